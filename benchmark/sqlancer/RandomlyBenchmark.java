@@ -0,0 +1,84 @@
+package sqlancer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.beust.jcommander.JCommander;
+
+/**
+ * Measures the methods of {@link Randomly} that the expression generators call for every constant and operator.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="RandomlyBenchmark -f 1"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class RandomlyBenchmark {
+
+    @Param({ "JDK", "SPLITMIX64" })
+    private String generator;
+
+    @Param({ "true", "false" })
+    private String useCaching;
+
+    private Randomly r;
+
+    @Setup
+    public void setUp() {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--random-number-generator", generator,
+                "--use-constant-caching", useCaching);
+        Randomly.initialize(options);
+        r = new Randomly(42);
+    }
+
+    @Benchmark
+    public long getInteger() {
+        return r.getInteger();
+    }
+
+    @Benchmark
+    public long getPositiveInteger() {
+        return r.getPositiveInteger();
+    }
+
+    @Benchmark
+    public double getDouble() {
+        return r.getDouble();
+    }
+
+    @Benchmark
+    public String getString() {
+        return r.getString();
+    }
+
+    @Benchmark
+    public int getBoundedInteger() {
+        return r.getInteger(0, 100);
+    }
+
+    @Benchmark
+    public boolean getBoolean() {
+        return Randomly.getBoolean();
+    }
+
+    @Benchmark
+    public Integer fromOptions() {
+        return Randomly.fromOptions(1, 2, 3, 4, 5);
+    }
+
+}
@@ -0,0 +1,96 @@
+package sqlancer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.beust.jcommander.JCommander;
+
+/**
+ * Measures the selection of all statements of a database by {@link StatementExecutor}, with a weight per action as
+ * returned by the action mappers of the providers, and a large {@code --max-num-inserts} for the last action. The
+ * linear scan is the selection that {@link StatementExecutor} used before {@link WeightedSampler}.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WeightedSamplerBenchmark -f 1"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class WeightedSamplerBenchmark {
+
+    @Param({ "JDK", "SPLITMIX64" })
+    private String generator;
+
+    @Param({ "8", "32", "128" })
+    private int nrActions;
+
+    @Param({ "30", "1000", "10000" })
+    private int maxNumInserts;
+
+    private int[] weights;
+    private Randomly r;
+
+    @Setup
+    public void setUp() {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--random-number-generator", generator);
+        Randomly.initialize(options);
+        r = new Randomly(42);
+        weights = new int[nrActions];
+        for (int i = 0; i < nrActions - 1; i++) {
+            weights[i] = r.getInteger(0, 10);
+        }
+        weights[nrActions - 1] = maxNumInserts;
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int[] nrRemaining = weights.clone();
+        int total = 0;
+        for (int weight : nrRemaining) {
+            total += weight;
+        }
+        int checksum = 0;
+        while (total != 0) {
+            int selection = r.getInteger(0, total);
+            int previousRange = 0;
+            int i;
+            for (i = 0; i < nrRemaining.length; i++) {
+                if (selection < previousRange + nrRemaining[i]) {
+                    break;
+                }
+                previousRange += nrRemaining[i];
+            }
+            nrRemaining[i]--;
+            checksum += i;
+            total--;
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public int weightedSampler() {
+        WeightedSampler sampler = new WeightedSampler(weights);
+        int checksum = 0;
+        while (sampler.getTotal() != 0) {
+            int i = sampler.sample(r);
+            sampler.decrement(i);
+            checksum += i;
+        }
+        return checksum;
+    }
+
+}
@@ -0,0 +1,63 @@
+package sqlancer.common.ast.newast;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.duckdb.DuckDBOptions;
+import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
+import sqlancer.duckdb.DuckDBSchema.DuckDBColumn;
+import sqlancer.duckdb.ast.DuckDBExpression;
+import sqlancer.duckdb.gen.DuckDBExpressionGenerator;
+
+/**
+ * Measures generating DuckDB predicates with and without {@code --intern-expressions}.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="InterningBenchmark -f 1 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class InterningBenchmark {
+
+    @Param({ "true", "false" })
+    private String internExpressions;
+
+    private DuckDBExpressionGenerator gen;
+
+    @Setup
+    public void setUp() {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--intern-expressions", internExpressions);
+        DuckDBGlobalState state = new DuckDBGlobalState();
+        state.setMainOptions(options);
+        state.setDbmsSpecificOptions(new DuckDBOptions());
+        state.setRandomly(new Randomly(42));
+        gen = new DuckDBExpressionGenerator(state).setColumns(Arrays.asList(new DuckDBColumn("c0", null, false, false),
+                new DuckDBColumn("c1", null, false, false)));
+    }
+
+    @Benchmark
+    public DuckDBExpression generateExpression() {
+        return gen.generateExpression();
+    }
+
+}
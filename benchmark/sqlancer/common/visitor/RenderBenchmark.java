@@ -0,0 +1,94 @@
+package sqlancer.common.visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import sqlancer.Randomly;
+import sqlancer.sqlite3.SQLite3Visitor;
+import sqlancer.sqlite3.ast.SQLite3Constant;
+import sqlancer.sqlite3.ast.SQLite3Expression;
+import sqlancer.sqlite3.ast.SQLite3Expression.SQLite3PostfixUnaryOperation;
+import sqlancer.sqlite3.ast.SQLite3Expression.SQLite3PostfixUnaryOperation.PostfixUnaryOperator;
+import sqlancer.sqlite3.ast.SQLite3Expression.Sqlite3BinaryOperation;
+import sqlancer.sqlite3.ast.SQLite3Expression.Sqlite3BinaryOperation.BinaryOperator;
+import sqlancer.sqlite3.ast.SQLite3Select;
+import sqlancer.sqlite3.ast.SQLite3Select.SelectType;
+import sqlancer.sqlite3.ast.SQLite3UnaryOperation;
+import sqlancer.sqlite3.ast.SQLite3UnaryOperation.UnaryOperator;
+
+/**
+ * Renders the four queries of a TLP check, that is, the original query and the queries with the predicates p, NOT p,
+ * and p IS NULL. Run it with the GC profiler to see the allocation per check:
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="RenderBenchmark -f 1 -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    @Param({ "3", "6" })
+    private int depth;
+
+    private SQLite3Select select;
+    private SQLite3Expression predicate;
+    private SQLite3Expression negatedPredicate;
+    private SQLite3Expression isNullPredicate;
+
+    private static SQLite3Expression generateExpression(Randomly r, int depth) {
+        if (depth == 0) {
+            return Randomly.getBoolean() ? SQLite3Constant.createIntConstant(r.getInteger())
+                    : SQLite3Constant.createTextConstant(r.getString());
+        }
+        if (Randomly.getBooleanWithRatherLowProbability()) {
+            return new SQLite3UnaryOperation(UnaryOperator.NOT, generateExpression(r, depth - 1));
+        }
+        return new Sqlite3BinaryOperation(generateExpression(r, depth - 1), generateExpression(r, depth - 1),
+                Randomly.fromOptions(BinaryOperator.values()));
+    }
+
+    @Setup
+    public void setUp() {
+        Randomly r = new Randomly(42);
+        List<SQLite3Expression> fetchColumns = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            fetchColumns.add(generateExpression(r, depth - 1));
+        }
+        select = new SQLite3Select();
+        select.setSelectType(SelectType.DISTINCT);
+        select.setFetchColumns(fetchColumns);
+        predicate = generateExpression(r, depth);
+        negatedPredicate = new SQLite3UnaryOperation(UnaryOperator.NOT, predicate);
+        isNullPredicate = new SQLite3PostfixUnaryOperation(PostfixUnaryOperator.ISNULL, predicate);
+    }
+
+    @Benchmark
+    public void renderTLPQueries(Blackhole bh) {
+        select.setWhereClause(null);
+        bh.consume(SQLite3Visitor.asString(select));
+        select.setWhereClause(predicate);
+        bh.consume(SQLite3Visitor.asString(select));
+        select.setWhereClause(negatedPredicate);
+        bh.consume(SQLite3Visitor.asString(select));
+        select.setWhereClause(isNullPredicate);
+        bh.consume(SQLite3Visitor.asString(select));
+    }
+
+}
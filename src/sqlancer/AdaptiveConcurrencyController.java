@@ -0,0 +1,124 @@
+package sqlancer;
+
+import sqlancer.common.metrics.MetricsRegistry;
+
+/**
+ * Tunes the number of concurrently-tested databases of a DBMS using additive-increase/multiplicative-decrease (AIMD),
+ * with the aim of maximizing the number of successfully-executed statements per second.
+ *
+ * Each {@link #run()} compares the statistics collected since the previous adjustment. While the DBMS keeps up, the
+ * limit grows by one database per interval. When the server shows signs of overload, the limit is cut by
+ * {@link #DECREASE_FACTOR}. Overload means the average statement latency exceeds {@link #LATENCY_TOLERANCE} times the
+ * lowest latency seen, the ratio of failing statements jumps, or throughput drops after the previous increase.
+ */
+public final class AdaptiveConcurrencyController implements Runnable {
+
+    static final double DECREASE_FACTOR = 0.75;
+    static final double LATENCY_TOLERANCE = 2.0;
+    static final double ERROR_RATIO_TOLERANCE = 0.1;
+    static final double THROUGHPUT_TOLERANCE = 0.9;
+    static final double LATENCY_DRIFT = 1.05;
+
+    private final ConcurrencyLimiter limiter;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private long lastTimeNanos;
+    private long lastSuccessful;
+    private long lastUnsuccessful;
+    private long lastTimedStatements;
+    private long lastLatencyNanos;
+
+    private double lastThroughput;
+    private double lastErrorRatio;
+    private double minAverageLatency = Double.MAX_VALUE / LATENCY_DRIFT;
+    private boolean increasedLastTime;
+    private boolean hasFeedback;
+
+    public AdaptiveConcurrencyController(ConcurrencyLimiter limiter, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException(minLimit + " " + maxLimit);
+        }
+        this.limiter = limiter;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        limiter.setLimit(Math.max(minLimit, maxLimit / 2));
+        lastTimeNanos = System.nanoTime();
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        lastSuccessful = metrics.getSuccessfulStatements();
+        lastUnsuccessful = metrics.getUnsuccessfulStatements();
+        lastTimedStatements = metrics.getStatementLatency().getCount();
+        lastLatencyNanos = metrics.getStatementLatency().getSum();
+    }
+
+    @Override
+    public void run() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        adjust(System.nanoTime(), metrics.getSuccessfulStatements(), metrics.getUnsuccessfulStatements(),
+                metrics.getStatementLatency().getCount(), metrics.getStatementLatency().getSum());
+    }
+
+    /**
+     * Computes and applies the next concurrency limit based on the cumulative counters passed.
+     *
+     * @param timeNanos
+     *            the current time
+     * @param successful
+     *            the total number of successfully-executed statements
+     * @param unsuccessful
+     *            the total number of statements that resulted in an error
+     * @param timedStatements
+     *            the total number of statements whose latency was measured
+     * @param latencyNanos
+     *            the total latency of these statements
+     *
+     * @return the new limit
+     */
+    synchronized int adjust(long timeNanos, long successful, long unsuccessful, long timedStatements,
+            long latencyNanos) {
+        double elapsedSeconds = (timeNanos - lastTimeNanos) / 1e9;
+        long nrSuccessful = successful - lastSuccessful;
+        long nrUnsuccessful = unsuccessful - lastUnsuccessful;
+        long nrTimed = timedStatements - lastTimedStatements;
+        lastTimeNanos = timeNanos;
+        lastSuccessful = successful;
+        lastUnsuccessful = unsuccessful;
+        lastTimedStatements = timedStatements;
+        long intervalLatencyNanos = latencyNanos - lastLatencyNanos;
+        lastLatencyNanos = latencyNanos;
+        int limit = limiter.getLimit();
+        if (elapsedSeconds <= 0 || nrSuccessful + nrUnsuccessful <= 0 || nrTimed <= 0) {
+            // no feedback, for example, because all workers are still generating databases
+            return limit;
+        }
+        double throughput = nrSuccessful / elapsedSeconds;
+        double errorRatio = (double) nrUnsuccessful / (nrSuccessful + nrUnsuccessful);
+        double averageLatency = (double) intervalLatencyNanos / nrTimed;
+        // let the reference latency drift upwards, since statements become slower as the databases grow
+        minAverageLatency = Math.min(averageLatency, minAverageLatency * LATENCY_DRIFT);
+
+        boolean latencyDegraded = averageLatency > LATENCY_TOLERANCE * minAverageLatency;
+        boolean errorsIncreased = hasFeedback && errorRatio > lastErrorRatio + ERROR_RATIO_TOLERANCE;
+        boolean increaseDidNotPay = increasedLastTime && throughput < THROUGHPUT_TOLERANCE * lastThroughput;
+        int newLimit;
+        if (latencyDegraded || errorsIncreased || increaseDidNotPay) {
+            newLimit = Math.max(minLimit, (int) (limit * DECREASE_FACTOR));
+            increasedLastTime = false;
+        } else {
+            newLimit = Math.min(maxLimit, limit + 1);
+            increasedLastTime = newLimit != limit;
+        }
+        lastThroughput = throughput;
+        lastErrorRatio = errorRatio;
+        hasFeedback = true;
+        if (newLimit != limit) {
+            limiter.setLimit(newLimit);
+        }
+        return newLimit;
+    }
+
+    public int getTarget() {
+        return limiter.getLimit();
+    }
+
+}
@@ -3,18 +3,73 @@ package sqlancer;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
 
 public final class ComparatorHelper {
 
+    private static final int MAX_REPORTED_MISSES = 1000;
+    // the estimated memory that a cached value takes in addition to its characters
+    private static final int CACHED_VALUE_OVERHEAD = 48;
+
+    private static final ResultSetReader<List<String>> FIRST_COLUMN = new ResultSetReader<>() {
+
+        @Override
+        public List<String> read(SQLancerResultSet result, SQLGlobalState<?, ?> state) throws SQLException {
+            List<String> resultSet = new ArrayList<>();
+            addFirstColumn(resultSet).accept(result);
+            return resultSet;
+        }
+
+        @Override
+        public long estimateSize(List<String> resultSet) {
+            long size = CACHED_VALUE_OVERHEAD;
+            for (String value : resultSet) {
+                size += CACHED_VALUE_OVERHEAD + (value == null ? 0 : 2L * value.length());
+            }
+            return size;
+        }
+
+        @Override
+        public List<String> copy(List<String> resultSet) {
+            return new ArrayList<>(resultSet);
+        }
+
+    };
+
+    private static final ResultSetReader<ResultSetFingerprint> FINGERPRINT = new ResultSetReader<>() {
+
+        @Override
+        public ResultSetFingerprint read(SQLancerResultSet result, SQLGlobalState<?, ?> state) throws SQLException {
+            ResultSetFingerprint fingerprint = new ResultSetFingerprint();
+            addRows(fingerprint, state).accept(result);
+            return fingerprint;
+        }
+
+        @Override
+        public long estimateSize(ResultSetFingerprint fingerprint) {
+            return CACHED_VALUE_OVERHEAD;
+        }
+
+        @Override
+        public ResultSetFingerprint copy(ResultSetFingerprint fingerprint) {
+            ResultSetFingerprint copy = new ResultSetFingerprint();
+            copy.addAll(fingerprint);
+            return copy;
+        }
+
+    };
+
     private ComparatorHelper() {
     }
 
@@ -40,6 +95,165 @@ public final class ComparatorHelper {
 
     public static List<String> getResultSetFirstColumnAsString(String queryString, ExpectedErrors errors,
             SQLGlobalState<?, ?> state) throws SQLException {
+        return readResults(List.of(queryString), errors, state, FIRST_COLUMN).get(0);
+    }
+
+    /**
+     * Returns the fingerprint of the rows of a query's result with all of their columns, each of which is read and
+     * canonicalized according to its type, see {@link ResultRowReader}. The rows are folded into the fingerprint while
+     * they are read, rather than kept in memory.
+     *
+     * @param queryString
+     *            the query to execute
+     * @param errors
+     *            the expected errors of the query
+     * @param state
+     *            the global state
+     *
+     * @return the fingerprint of the rows
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ResultSetFingerprint getResultSetFingerprint(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        return readResults(List.of(queryString), errors, state, FINGERPRINT).get(0);
+    }
+
+    /**
+     * Returns the fingerprints of the results of several queries, see
+     * {@link #getResultSetFingerprint(String, ExpectedErrors, SQLGlobalState)}. If the state has a connection group,
+     * the queries are executed concurrently, see {@link SQLGlobalState#getConnectionGroup()}.
+     *
+     * @param queryStrings
+     *            the queries to execute
+     * @param errors
+     *            the expected errors of the queries
+     * @param state
+     *            the global state
+     *
+     * @return the fingerprints in the order of the queries
+     *
+     * @throws SQLException
+     *             if a result set cannot be read
+     */
+    public static List<ResultSetFingerprint> getResultSetFingerprints(List<String> queryStrings, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        return readResults(queryStrings, errors, state, FINGERPRINT);
+    }
+
+    private static void addRows(ExternalRowSorter sorter, String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        readResultSet(queryString, errors, state, result -> {
+            ResultRowReader reader = new ResultRowReader(result, state.hasDynamicallyTypedResults());
+            while (reader.next()) {
+                sorter.add(reader.getRow());
+            }
+        });
+    }
+
+    private interface ResultSetConsumer {
+        void accept(SQLancerResultSet result) throws SQLException;
+    }
+
+    // reads a result set into a value that the test oracles can share through the query result cache
+    private interface ResultSetReader<T> {
+
+        T read(SQLancerResultSet result, SQLGlobalState<?, ?> state) throws SQLException;
+
+        long estimateSize(T value);
+
+        // returns a copy that the caller may modify without changing the cached value
+        T copy(T value);
+
+    }
+
+    private static ResultSetConsumer addFirstColumn(List<String> resultSet) {
+        return result -> {
+            while (result.next()) {
+                // Remove the trailing zeros as many DBMS treat it as non-bugs
+                resultSet.add(removeTrailingZeros(result.getString(1)));
+            }
+        };
+    }
+
+    private static ResultSetConsumer addRows(ResultSetFingerprint fingerprint, SQLGlobalState<?, ?> state) {
+        return result -> {
+            ResultRowReader reader = new ResultRowReader(result, state.hasDynamicallyTypedResults());
+            while (reader.next()) {
+                reader.addTo(fingerprint);
+            }
+        };
+    }
+
+    // returns the results of the queries in their order, of which only those that the query result cache of the state
+    // does not hold yet are read from the DBMS
+    private static <T> List<T> readResults(List<String> queryStrings, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            ResultSetReader<T> reader) throws SQLException {
+        QueryResultCache cache = state.getQueryResultCache();
+        List<T> results = new ArrayList<>(queryStrings.size());
+        List<ResultSetConsumer> consumers = new ArrayList<>(queryStrings.size());
+        for (int i = 0; i < queryStrings.size(); i++) {
+            @SuppressWarnings("unchecked")
+            T cached = (T) cache.get(reader, queryStrings.get(i));
+            if (cache.isEnabled()) {
+                state.getMetrics().recordQueryResultCacheLookup(cached != null);
+            }
+            results.add(cached);
+            int index = i;
+            consumers.add(cached == null ? result -> results.set(index, reader.read(result, state)) : null);
+        }
+        readResultSets(queryStrings, errors, state, consumers);
+        for (int i = 0; i < queryStrings.size(); i++) {
+            T result = results.get(i);
+            if (consumers.get(i) != null) {
+                cache.put(reader, queryStrings.get(i), result, reader.estimateSize(result));
+            }
+            results.set(i, reader.copy(result));
+        }
+        return results;
+    }
+
+    // executes the queries concurrently on the connection group of the state, if it has one, and otherwise one after
+    // the other, and passes the result of each query to the consumer at the same index; a query whose consumer is null
+    // is only logged, since its result is already known
+    private static void readResultSets(List<String> queryStrings, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            List<ResultSetConsumer> consumers) throws SQLException {
+        SQLConnectionGroup group = queryStrings.size() > 1 ? state.getConnectionGroup() : null;
+        if (group == null) {
+            for (int i = 0; i < queryStrings.size(); i++) {
+                if (consumers.get(i) == null) {
+                    logQuery(queryStrings.get(i), state);
+                } else {
+                    readResultSet(queryStrings.get(i), errors, state, consumers.get(i));
+                }
+            }
+            return;
+        }
+        List<SQLConnectionGroup.Task<Void>> tasks = new ArrayList<>(queryStrings.size());
+        for (int i = 0; i < queryStrings.size(); i++) {
+            String queryString = queryStrings.get(i);
+            ResultSetConsumer consumer = consumers.get(i);
+            // the queries are logged in their order before any of them is executed
+            logQuery(queryString, state);
+            if (consumer == null) {
+                continue;
+            }
+            tasks.add(connection -> {
+                executeAndRead(queryString, errors, state, connection, consumer);
+                return null;
+            });
+        }
+        group.executeAll(tasks);
+    }
+
+    private static void readResultSet(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            ResultSetConsumer consumer) throws SQLException {
+        logQuery(queryString, state);
+        executeAndRead(queryString, errors, state, state.getConnection(), consumer);
+    }
+
+    private static void logQuery(String queryString, SQLGlobalState<?, ?> state) {
         if (state.getOptions().logEachSelect()) {
             // TODO: refactor me
             state.getLogger().writeCurrent(queryString);
@@ -49,24 +263,23 @@ public final class ComparatorHelper {
                 // TODO Auto-generated catch block
                 e.printStackTrace();
             }
+        } else if (state.getLogger().isLoggingOnFailure()) {
+            state.getLogger().logStatementOnFailure(queryString);
         }
+    }
+
+    private static void executeAndRead(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            SQLConnection connection, ResultSetConsumer consumer) throws SQLException {
         boolean canonicalizeString = state.getOptions().canonicalizeSqlString();
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors, true, canonicalizeString);
-        List<String> resultSet = new ArrayList<>();
         SQLancerResultSet result = null;
+        PhaseProfiler.enter(Phase.MATERIALIZATION);
         try {
-            result = q.executeAndGet(state);
+            result = q.executeAndGet(state, connection);
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            while (result.next()) {
-                String resultTemp = result.getString(1);
-                if (resultTemp != null) {
-                    resultTemp = resultTemp.replaceAll("[\\.]0+$", ""); // Remove the trailing zeros as many DBMS treat
-                    // it as non-bugs
-                }
-                resultSet.add(resultTemp);
-            }
+            consumer.accept(result);
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
                 throw e;
@@ -75,7 +288,9 @@ public final class ComparatorHelper {
             if (e.getMessage() == null) {
                 throw new AssertionError(queryString, e);
             }
-            if (errors.errorIsExpected(e.getMessage())) {
+            String signature = errors.getMatchingError(e.getMessage());
+            if (signature != null) {
+                state.getMetrics().recordExpectedError(signature);
                 throw new IgnoreMeException();
             }
             throw new AssertionError(queryString, e);
@@ -83,39 +298,124 @@ public final class ComparatorHelper {
             if (result != null && !result.isClosed()) {
                 result.close();
             }
+            PhaseProfiler.exit();
+        }
+    }
+
+    // equivalent to value.replaceAll("[\\.]0+$", ""), which removes a fractional part that consists only of zeros,
+    // but without the overhead of a regular expression for each value
+    static String removeTrailingZeros(String value) {
+        if (value == null) {
+            return null;
+        }
+        // like $, the zeros may be followed by a final line terminator
+        int end = value.length();
+        if (value.endsWith("\r\n")) {
+            end -= 2;
+        } else if (end != 0 && isLineTerminator(value.charAt(end - 1))) {
+            end--;
         }
-        return resultSet;
+        int i = end;
+        while (i != 0 && value.charAt(i - 1) == '0') {
+            i--;
+        }
+        if (i == end || i == 0 || value.charAt(i - 1) != '.') {
+            return value;
+        }
+        return value.substring(0, i - 1) + value.substring(end);
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
             String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
-        if (resultSet.size() != secondResultSet.size()) {
+        assumeMultisetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString, state);
+    }
+
+    private static <T> void assumeMultisetsAreEqual(List<T> resultSet, List<T> secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
+        assumeCardinalitiesAreEqual(resultSet.size(), secondResultSet.size(), originalQueryString, combinedString,
+                state);
+        if (state.getOptions().validateResultSizeOnly()) {
+            return;
+        }
+        // the results are compared as multisets, so that a value that occurs more often in one of them is detected
+        Map<T, Integer> counts = new HashMap<>();
+        for (T value : resultSet) {
+            counts.merge(value, 1, Integer::sum);
+        }
+        for (T value : secondResultSet) {
+            counts.merge(value, -1, Integer::sum);
+        }
+        List<T> firstResultSetMisses = new ArrayList<>();
+        List<T> secondResultSetMisses = new ArrayList<>();
+        for (Map.Entry<T, Integer> entry : counts.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                firstResultSetMisses.add(entry.getKey());
+            }
+            for (int i = 0; i > entry.getValue(); i--) {
+                secondResultSetMisses.add(entry.getKey());
+            }
+        }
+        assumeNoMisses(firstResultSetMisses, secondResultSetMisses, originalQueryString, combinedString, state);
+    }
+
+    // like assumeMultisetsAreEqual, but merges the sorted rows rather than counting them in memory, and reports at most
+    // MAX_REPORTED_MISSES rows of each result
+    private static void assumeSortedRowsAreEqual(ExternalRowSorter rows, ExternalRowSorter secondRows,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
+        assumeCardinalitiesAreEqual(rows.size(), secondRows.size(), originalQueryString, combinedString, state);
+        if (state.getOptions().validateResultSizeOnly()) {
+            return;
+        }
+        Iterator<ResultRow> first = rows.sorted();
+        Iterator<ResultRow> second = secondRows.sorted();
+        List<ResultRow> firstResultSetMisses = new ArrayList<>();
+        List<ResultRow> secondResultSetMisses = new ArrayList<>();
+        ResultRow row = first.hasNext() ? first.next() : null;
+        ResultRow secondRow = second.hasNext() ? second.next() : null;
+        while (row != null || secondRow != null) {
+            int comparison = row == null ? 1 : secondRow == null ? -1 : row.compareTo(secondRow);
+            if (comparison <= 0) {
+                if (comparison < 0 && firstResultSetMisses.size() < MAX_REPORTED_MISSES) {
+                    firstResultSetMisses.add(row);
+                }
+                row = first.hasNext() ? first.next() : null;
+            }
+            if (comparison >= 0) {
+                if (comparison > 0 && secondResultSetMisses.size() < MAX_REPORTED_MISSES) {
+                    secondResultSetMisses.add(secondRow);
+                }
+                secondRow = second.hasNext() ? second.next() : null;
+            }
+        }
+        assumeNoMisses(firstResultSetMisses, secondResultSetMisses, originalQueryString, combinedString, state);
+    }
+
+    private static void assumeCardinalitiesAreEqual(long size, long secondSize, String originalQueryString,
+            List<String> combinedString, SQLGlobalState<?, ?> state) {
+        if (size != secondSize) {
             String queryFormatString = "-- %s;" + System.lineSeparator() + "-- cardinality: %d"
                     + System.lineSeparator();
-            String firstQueryString = String.format(queryFormatString, originalQueryString, resultSet.size());
+            String firstQueryString = String.format(queryFormatString, originalQueryString, size);
             String combinedQueryString = String.join(";", combinedString);
-            String secondQueryString = String.format(queryFormatString, combinedQueryString, secondResultSet.size());
+            String secondQueryString = String.format(queryFormatString, combinedQueryString, secondSize);
             state.getState().getLocalState()
                     .log(String.format("%s" + System.lineSeparator() + "%s", firstQueryString, secondQueryString));
             String assertionMessage = String.format(
                     "The size of the result sets mismatch (%d and %d)!" + System.lineSeparator()
                             + "First query: \"%s\", whose cardinality is: %d" + System.lineSeparator()
                             + "Second query:\"%s\", whose cardinality is: %d",
-                    resultSet.size(), secondResultSet.size(), originalQueryString, resultSet.size(),
-                    combinedQueryString, secondResultSet.size());
+                    size, secondSize, originalQueryString, size, combinedQueryString, secondSize);
             throw new AssertionError(assertionMessage);
         }
+    }
 
-        Set<String> firstHashSet = new HashSet<>(resultSet);
-        Set<String> secondHashSet = new HashSet<>(secondResultSet);
-
-        boolean validateResultSizeOnly = state.getOptions().validateResultSizeOnly();
-        if (!validateResultSizeOnly && !firstHashSet.equals(secondHashSet)) {
-            Set<String> firstResultSetMisses = new HashSet<>(firstHashSet);
-            firstResultSetMisses.removeAll(secondHashSet);
-            Set<String> secondResultSetMisses = new HashSet<>(secondHashSet);
-            secondResultSetMisses.removeAll(firstHashSet);
-
+    private static void assumeNoMisses(List<?> firstResultSetMisses, List<?> secondResultSetMisses,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
+        if (!firstResultSetMisses.isEmpty() || !secondResultSetMisses.isEmpty()) {
             String queryFormatString = "-- Query: \"%s\"; It misses: \"%s\"";
             String firstQueryString = String.format(queryFormatString, originalQueryString, firstResultSetMisses);
             String secondQueryString = String.format(queryFormatString, String.join(";", combinedString),
@@ -130,6 +430,52 @@ public final class ComparatorHelper {
         }
     }
 
+    /**
+     * Checks that two results are equal by the fingerprints of their rows. Only if they differ, the queries are
+     * executed again and their rows are sorted, in temporary files if they exceed the memory given by
+     * --comparison-memory-mb, and merged to describe the difference.
+     *
+     * @param fingerprint
+     *            the fingerprint of the original query's result
+     * @param secondFingerprint
+     *            the fingerprint of the combined queries' result
+     * @param originalQueryString
+     *            the original query
+     * @param combinedString
+     *            the combined queries, whose results together make up the second result
+     * @param state
+     *            the global state
+     * @param errors
+     *            the expected errors of the queries
+     *
+     * @throws SQLException
+     *             if a query fails when it is executed again
+     */
+    public static void assumeResultSetsAreEqual(ResultSetFingerprint fingerprint,
+            ResultSetFingerprint secondFingerprint, String originalQueryString, List<String> combinedString,
+            SQLGlobalState<?, ?> state, ExpectedErrors errors) throws SQLException {
+        if (state.getOptions().validateResultSizeOnly() ? fingerprint.getCount() == secondFingerprint.getCount()
+                : fingerprint.equals(secondFingerprint)) {
+            return;
+        }
+        // the results might be too large to be kept in memory, so half of the memory for the comparison is used for
+        // each of them
+        long maxBytesInMemory = state.getOptions().getComparisonMemoryBytes() / 2;
+        try (ExternalRowSorter rows = new ExternalRowSorter(maxBytesInMemory);
+                ExternalRowSorter secondRows = new ExternalRowSorter(maxBytesInMemory)) {
+            addRows(rows, originalQueryString, errors, state);
+            for (String queryString : combinedString) {
+                addRows(secondRows, queryString, errors, state);
+            }
+            assumeSortedRowsAreEqual(rows, secondRows, originalQueryString, combinedString, state);
+        }
+        // the queries returned different results when they were executed again
+        throw new AssertionError(String.format(
+                "The fingerprints of the result sets mismatch (%s and %s)!" + System.lineSeparator()
+                        + "First query : \"%s\"" + System.lineSeparator() + "Second query: \"%s\"",
+                fingerprint, secondFingerprint, originalQueryString, String.join(";", combinedString)));
+    }
+
     public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
             String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state,
             UnaryOperator<String> canonicalizationRule) {
@@ -146,40 +492,132 @@ public final class ComparatorHelper {
     public static List<String> getCombinedResultSet(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
-        List<String> secondResultSet;
+        List<String> queryStrings = getCombinedQueries(firstQueryString, secondQueryString, thirdQueryString, asUnion);
+        combinedString.addAll(queryStrings);
+        List<String> secondResultSet = new ArrayList<>();
+        for (List<String> resultSet : readResults(queryStrings, errors, state, FIRST_COLUMN)) {
+            secondResultSet.addAll(resultSet);
+        }
+        return secondResultSet;
+    }
+
+    /**
+     * Returns the queries whose results together make up the result of the original query of a ternary logic
+     * partitioning check: a single query that combines the partitions by UNION ALL, or the three partitioning queries,
+     * which can then be executed concurrently.
+     *
+     * @param firstQueryString
+     *            the first partitioning query
+     * @param secondQueryString
+     *            the second partitioning query
+     * @param thirdQueryString
+     *            the third partitioning query
+     * @param asUnion
+     *            whether to combine the queries by UNION ALL
+     *
+     * @return the queries to execute
+     */
+    public static List<String> getCombinedQueries(String firstQueryString, String secondQueryString,
+            String thirdQueryString, boolean asUnion) {
+        List<String> queryStrings = new ArrayList<>(3);
         if (asUnion) {
-            String unionString = firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
-                    + thirdQueryString;
-            combinedString.add(unionString);
-            secondResultSet = getResultSetFirstColumnAsString(unionString, errors, state);
+            queryStrings.add(firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL " + thirdQueryString);
         } else {
-            secondResultSet = new ArrayList<>();
-            secondResultSet.addAll(getResultSetFirstColumnAsString(firstQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(secondQueryString, errors, state));
-            secondResultSet.addAll(getResultSetFirstColumnAsString(thirdQueryString, errors, state));
-            combinedString.add(firstQueryString);
-            combinedString.add(secondQueryString);
-            combinedString.add(thirdQueryString);
+            queryStrings.add(firstQueryString);
+            queryStrings.add(secondQueryString);
+            queryStrings.add(thirdQueryString);
         }
-        return secondResultSet;
+        return queryStrings;
+    }
+
+    /**
+     * Like {@link #getCombinedResultSet(String, String, String, List, boolean, SQLGlobalState, ExpectedErrors)}, but
+     * returns the fingerprint of the combined result.
+     *
+     * @param firstQueryString
+     *            the first partitioning query
+     * @param secondQueryString
+     *            the second partitioning query
+     * @param thirdQueryString
+     *            the third partitioning query
+     * @param combinedString
+     *            the list to which the executed queries are added
+     * @param asUnion
+     *            whether to execute the queries combined by UNION ALL rather than one by one
+     * @param state
+     *            the global state
+     * @param errors
+     *            the expected errors of the queries
+     *
+     * @return the fingerprint of the combined result
+     *
+     * @throws SQLException
+     *             if a result set cannot be read
+     */
+    public static ResultSetFingerprint getCombinedResultSetFingerprint(String firstQueryString,
+            String secondQueryString, String thirdQueryString, List<String> combinedString, boolean asUnion,
+            SQLGlobalState<?, ?> state, ExpectedErrors errors) throws SQLException {
+        List<String> queryStrings = getCombinedQueries(firstQueryString, secondQueryString, thirdQueryString, asUnion);
+        combinedString.addAll(queryStrings);
+        ResultSetFingerprint fingerprint = new ResultSetFingerprint();
+        for (ResultSetFingerprint partition : getResultSetFingerprints(queryStrings, errors, state)) {
+            fingerprint.addAll(partition);
+        }
+        return fingerprint;
     }
 
     public static List<String> getCombinedResultSetNoDuplicates(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
-        String unionString;
-        if (asUnion) {
-            unionString = firstQueryString + " UNION " + secondQueryString + " UNION " + thirdQueryString;
-        } else {
-            unionString = "SELECT DISTINCT * FROM (" + firstQueryString + " UNION ALL " + secondQueryString
-                    + " UNION ALL " + thirdQueryString + ")";
-        }
+        String unionString = getNoDuplicatesUnion(firstQueryString, secondQueryString, thirdQueryString, asUnion);
         List<String> secondResultSet;
         combinedString.add(unionString);
         secondResultSet = getResultSetFirstColumnAsString(unionString, errors, state);
         return secondResultSet;
     }
 
+    /**
+     * Like
+     * {@link #getCombinedResultSetNoDuplicates(String, String, String, List, boolean, SQLGlobalState, ExpectedErrors)},
+     * but returns the fingerprint of the combined result.
+     *
+     * @param firstQueryString
+     *            the first partitioning query
+     * @param secondQueryString
+     *            the second partitioning query
+     * @param thirdQueryString
+     *            the third partitioning query
+     * @param combinedString
+     *            the list to which the executed query is added
+     * @param asUnion
+     *            whether to combine the queries by UNION rather than by SELECT DISTINCT over UNION ALL
+     * @param state
+     *            the global state
+     * @param errors
+     *            the expected errors of the queries
+     *
+     * @return the fingerprint of the combined result
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ResultSetFingerprint getCombinedResultSetNoDuplicatesFingerprint(String firstQueryString,
+            String secondQueryString, String thirdQueryString, List<String> combinedString, boolean asUnion,
+            SQLGlobalState<?, ?> state, ExpectedErrors errors) throws SQLException {
+        String unionString = getNoDuplicatesUnion(firstQueryString, secondQueryString, thirdQueryString, asUnion);
+        combinedString.add(unionString);
+        return getResultSetFingerprint(unionString, errors, state);
+    }
+
+    private static String getNoDuplicatesUnion(String firstQueryString, String secondQueryString,
+            String thirdQueryString, boolean asUnion) {
+        if (asUnion) {
+            return firstQueryString + " UNION " + secondQueryString + " UNION " + thirdQueryString;
+        }
+        return "SELECT DISTINCT * FROM (" + firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
+                + thirdQueryString + ")";
+    }
+
     public static String canonicalizeResultValue(String value) {
         if (value == null) {
             return value;
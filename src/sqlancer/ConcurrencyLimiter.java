@@ -0,0 +1,62 @@
+package sqlancer;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds how many databases of a DBMS are tested at the same time, independently of the number of worker threads. The
+ * limit can be changed while workers are running; a lowered limit takes effect once enough workers have released their
+ * permits.
+ */
+public final class ConcurrencyLimiter {
+
+    private final AdjustableSemaphore permits;
+    private int limit;
+
+    private static final class AdjustableSemaphore extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        AdjustableSemaphore(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+
+    }
+
+    public ConcurrencyLimiter(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException(String.valueOf(limit));
+        }
+        this.limit = limit;
+        this.permits = new AdjustableSemaphore(limit);
+    }
+
+    public void acquire() throws InterruptedException {
+        permits.acquire();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized void setLimit(int newLimit) {
+        if (newLimit <= 0) {
+            throw new IllegalArgumentException(String.valueOf(newLimit));
+        }
+        if (newLimit > limit) {
+            permits.release(newLimit - limit);
+        } else if (newLimit < limit) {
+            permits.reducePermits(limit - newLimit);
+        }
+        limit = newLimit;
+    }
+
+}
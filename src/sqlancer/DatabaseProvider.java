@@ -33,6 +33,25 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
      */
     Reproducer<G> generateAndTestDatabase(G globalState) throws Exception;
 
+    /**
+     * Like {@link #generateAndTestDatabase(GlobalState)}, but amortizes the database generation using a
+     * {@link DatabaseTemplate}. If the database was cloned from the template, it is tested without generating it.
+     * Otherwise, the database is generated and saved as the new template before it is tested.
+     *
+     * @param globalState
+     *                    the state created and is valid for this method call.
+     * @param template
+     *                    the template of the worker
+     *
+     * @return Reproducer if a bug is found and a reproducer is available.
+     *
+     * @throws Exception
+     *                   if creating the database fails.
+     */
+    default Reproducer<G> generateAndTestDatabase(G globalState, DatabaseTemplate template) throws Exception {
+        return generateAndTestDatabase(globalState);
+    }
+
     /**
      * The experimental feature: Query Plan Guidance.
      *
@@ -47,6 +66,53 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
 
     C createDatabase(G globalState) throws Exception;
 
+    /**
+     * Saves a copy of the database that was just generated for the given state, from which
+     * {@link #cloneDatabase(GlobalState, GlobalState)} can create further databases.
+     *
+     * @param globalState
+     *                    the state of the generated database
+     *
+     * @return whether the template was saved, which is false if the DBMS does not support cloning this database
+     *
+     * @throws Exception
+     *                   if saving the template fails
+     */
+    default boolean saveTemplate(G globalState) throws Exception {
+        return false;
+    }
+
+    /**
+     * Creates the database of the given state as a copy of a template, instead of {@link #createDatabase}. It is only
+     * called for a template for which {@link #saveTemplate(GlobalState)} returned true, so a provider that overrides
+     * one of the two methods must override the other one as well.
+     *
+     * @param template
+     *                    the state for which {@link #saveTemplate(GlobalState)} succeeded
+     * @param globalState
+     *                    the state of the database to create
+     *
+     * @return the connection to the cloned database
+     *
+     * @throws Exception
+     *                   if cloning the database fails
+     */
+    default C cloneDatabase(G template, G globalState) throws Exception {
+        throw new AssertionError(getDBMSName() + " saved a template but cannot clone it");
+    }
+
+    /**
+     * Removes a template that is no longer used.
+     *
+     * @param template
+     *                    the state for which {@link #saveTemplate(GlobalState)} succeeded
+     *
+     * @throws Exception
+     *                   if dropping the template fails
+     */
+    default void dropTemplate(G template) throws Exception {
+    }
+
     /**
      * The DBMS name is used to name the log directory and command to test the
      * respective DBMS.
@@ -55,6 +121,15 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
      */
     String getDBMSName();
 
+    /**
+     * Whether the provider can load a large number of rows into each table of a generated database, see --bulk-rows.
+     *
+     * @return whether --bulk-rows is supported
+     */
+    default boolean supportsBulkData() {
+        return false;
+    }
+
     LoggableFactory getLoggableFactory();
 
     StateToReproduce getStateToReproduce(String databaseName);
@@ -0,0 +1,122 @@
+package sqlancer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import sqlancer.common.query.Query;
+
+/**
+ * A generated database that a worker tests several times, each time on a fresh clone, to amortize the cost of
+ * generating it. The DBMS-specific part of creating and cloning the template is implemented by
+ * {@link DatabaseProvider#saveTemplate}, {@link DatabaseProvider#cloneDatabase} and
+ * {@link DatabaseProvider#dropTemplate}.
+ *
+ * The statements that generated the template are copied to the {@link StateToReproduce} of each clone, so that bug
+ * reports still reproduce the database from scratch.
+ */
+public final class DatabaseTemplate {
+
+    private final int maxClones;
+    private DatabaseProvider<?, ?, ?> provider;
+    private GlobalState<?, ?, ?> template;
+    private GlobalState<?, ?, ?> lastClone;
+    private List<Query<?>> statements;
+    private int nrClones;
+
+    /**
+     * @param maxClones
+     *            the number of clones handed out for each template, in addition to the database from which the template
+     *            was created
+     */
+    public DatabaseTemplate(int maxClones) {
+        this.maxClones = maxClones;
+    }
+
+    /**
+     * Returns the template from which the next database should be cloned, or <code>null</code> if a new database has to
+     * be generated, because no template exists or the current one has been cloned <code>maxClones</code> times.
+     *
+     * @param <G>
+     *            the global state class of the DBMS
+     *
+     * @return the global state of the database run that created the template
+     *
+     * @throws Exception
+     *             if dropping an exhausted template fails
+     */
+    @SuppressWarnings("unchecked")
+    public <G extends GlobalState<?, ?, ?>> G getTemplate() throws Exception {
+        if (template != null && nrClones >= maxClones) {
+            drop();
+        }
+        return (G) template;
+    }
+
+    /**
+     * Saves the database that was just generated for <code>globalState</code> as the new template, unless cloning is
+     * disabled or the DBMS does not support it for this database.
+     *
+     * @param <G>
+     *            the global state class of the DBMS
+     * @param databaseProvider
+     *            the provider of the DBMS
+     * @param globalState
+     *            the state of the generated database
+     *
+     * @throws Exception
+     *             if saving the template fails
+     */
+    public <G extends GlobalState<?, ?, ?>> void save(DatabaseProvider<G, ?, ?> databaseProvider, G globalState)
+            throws Exception {
+        if (maxClones <= 0 || !databaseProvider.saveTemplate(globalState)) {
+            return;
+        }
+        provider = databaseProvider;
+        template = globalState;
+        statements = new ArrayList<>(globalState.getState().getStatements());
+        nrClones = 0;
+    }
+
+    /**
+     * Initializes the state of a database that was cloned from the current template.
+     *
+     * @param clone
+     *            the state of the database created by {@link DatabaseProvider#cloneDatabase}
+     */
+    public void initializeClone(GlobalState<?, ?, ?> clone) {
+        if (template == null) {
+            throw new IllegalStateException();
+        }
+        nrClones++;
+        lastClone = clone;
+        clone.getState().setStatements(new ArrayList<>(statements));
+    }
+
+    public boolean isClone(GlobalState<?, ?, ?> globalState) {
+        return globalState == lastClone;
+    }
+
+    /**
+     * Drops the current template, for example, when testing its clones keeps failing.
+     *
+     * @throws Exception
+     *             if the DBMS fails to drop the template
+     */
+    public void drop() throws Exception {
+        if (template == null) {
+            return;
+        }
+        GlobalState<?, ?, ?> droppedTemplate = template;
+        template = null;
+        lastClone = null;
+        statements = null;
+        dropTemplate(provider, droppedTemplate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <G extends GlobalState<?, ?, ?>> void dropTemplate(DatabaseProvider<G, ?, ?> provider,
+            GlobalState<?, ?, ?> template) throws Exception {
+        provider.dropTemplate((G) template);
+    }
+
+}
@@ -6,17 +6,21 @@ public final class ExecutionTimer {
     private long endTime;
 
     public ExecutionTimer start() {
-        startTime = System.currentTimeMillis();
+        startTime = System.nanoTime();
         return this;
     }
 
     public ExecutionTimer end() {
-        endTime = System.currentTimeMillis();
+        endTime = System.nanoTime();
         return this;
     }
 
+    public long getElapsedNanos() {
+        return endTime - startTime;
+    }
+
     public String asString() {
-        long timeMillis = endTime - startTime;
+        long timeMillis = getElapsedNanos() / 1_000_000;
         return timeMillis + "ms";
     }
 
@@ -0,0 +1,248 @@
+package sqlancer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the rows of a result, which might not fit into memory, and returns them in sorted order, so that two results
+ * can be compared as multisets by merging them.
+ *
+ * The rows are kept in memory until their estimated size exceeds a limit. Then, they are sorted and appended as a run
+ * to a temporary file, which is deleted when the sorter is closed. {@link #sorted()} merges the runs and the rows that
+ * are still in memory, reading each run sequentially with a small buffer.
+ */
+public final class ExternalRowSorter implements AutoCloseable {
+
+    // the estimated memory that a row takes in addition to its encoding: the objects, their headers, and the reference
+    private static final int ROW_OVERHEAD = 48;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final long maxBytesInMemory;
+    private final List<ResultRow> rows = new ArrayList<>();
+    private long bytesInMemory;
+    private long size;
+    private FileChannel spillFile;
+    private DataOutputStream spillOutput;
+    private final List<Run> runs = new ArrayList<>();
+
+    private static final class Run {
+
+        private final long start;
+        private final long end;
+
+        Run(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    /**
+     * A position in a sorted sequence of rows, which is ordered by its current row.
+     */
+    private abstract static class Cursor implements Comparable<Cursor> {
+
+        private ResultRow current;
+
+        // returns null at the end
+        abstract ResultRow readNext() throws IOException;
+
+        boolean advance() throws IOException {
+            current = readNext();
+            return current != null;
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return current.compareTo(other.current);
+        }
+
+    }
+
+    private static final class MemoryCursor extends Cursor {
+
+        private final Iterator<ResultRow> iterator;
+
+        MemoryCursor(List<ResultRow> rows) {
+            this.iterator = rows.iterator();
+        }
+
+        @Override
+        ResultRow readNext() {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+    }
+
+    private static final class RunCursor extends Cursor {
+
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+
+        RunCursor(FileChannel channel, Run run) {
+            this.channel = channel;
+            this.position = run.start;
+            this.end = run.end;
+        }
+
+        @Override
+        ResultRow readNext() throws IOException {
+            if (position == end && !buffer.hasRemaining()) {
+                return null;
+            }
+            fill(Integer.BYTES);
+            int length = buffer.getInt();
+            fill(length);
+            byte[] data = new byte[length];
+            buffer.get(data);
+            return new ResultRow(data, length);
+        }
+
+        // makes sure that the buffer holds at least the given number of bytes
+        private void fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes).put(buffer).flip();
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                int limit = (int) Math.min(buffer.capacity(), buffer.position() + end - position);
+                buffer.limit(limit);
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    throw new IOException("unexpected end of " + channel);
+                }
+                position += read;
+            }
+            buffer.flip();
+        }
+
+    }
+
+    /**
+     * Creates a sorter that keeps rows in memory up to a limit.
+     *
+     * @param maxBytesInMemory
+     *            the estimated size of the rows in memory, above which they are written to a temporary file
+     */
+    public ExternalRowSorter(long maxBytesInMemory) {
+        this.maxBytesInMemory = maxBytesInMemory;
+    }
+
+    public void add(ResultRow row) {
+        rows.add(row);
+        size++;
+        bytesInMemory += row.getEncodedLength() + ROW_OVERHEAD;
+        if (bytesInMemory > maxBytesInMemory) {
+            spill();
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns whether rows have been written to the temporary file.
+     *
+     * @return whether the rows did not fit into memory
+     */
+    public boolean hasSpilled() {
+        return !runs.isEmpty();
+    }
+
+    /**
+     * Returns all rows that have been added in sorted order. Rows must not be added while the iterator is used.
+     *
+     * @return an iterator over the sorted rows, which throws {@link UncheckedIOException} if the temporary file cannot
+     *         be read
+     */
+    public Iterator<ResultRow> sorted() {
+        Collections.sort(rows);
+        PriorityQueue<Cursor> queue = new PriorityQueue<>();
+        add(queue, new MemoryCursor(rows));
+        for (Run run : runs) {
+            add(queue, new RunCursor(spillFile, run));
+        }
+        return new Iterator<ResultRow>() {
+
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public ResultRow next() {
+                Cursor cursor = queue.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                ResultRow row = cursor.current;
+                add(queue, cursor);
+                return row;
+            }
+
+        };
+    }
+
+    private static void add(PriorityQueue<Cursor> queue, Cursor cursor) {
+        try {
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void spill() {
+        Collections.sort(rows);
+        try {
+            if (spillFile == null) {
+                spillFile = FileChannel.open(Files.createTempFile("sqlancer-rows", ".bin"), StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                spillOutput = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(spillFile), BUFFER_SIZE));
+            }
+            long start = spillFile.position();
+            for (ResultRow row : rows) {
+                row.writeTo(spillOutput);
+            }
+            spillOutput.flush();
+            runs.add(new Run(start, spillFile.position()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rows.clear();
+        bytesInMemory = 0;
+    }
+
+    @Override
+    public void close() {
+        if (spillFile != null) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+}
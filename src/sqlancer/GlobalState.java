@@ -1,9 +1,23 @@
 package sqlancer;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import sqlancer.common.ast.newast.NodeInterner;
+import sqlancer.common.metrics.MetricsRegistry;
+import sqlancer.common.metrics.MetricsScope;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
+import sqlancer.common.metrics.SchemaRefreshEvent;
+import sqlancer.common.metrics.StatementExecutionEvent;
+import sqlancer.common.metrics.StatementKind;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
+import sqlancer.common.schema.SchemaChange;
+import sqlancer.common.schema.SchemaRefreshMode;
 
 public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends AbstractSchema<?, ?>, C extends SQLancerDBConnection> {
 
@@ -12,15 +26,27 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     private MainOptions options; // 选项 --help 之类的
     private O dbmsSpecificOptions;// 数据库管理系统特定的选项。
     // 用途：存储与数据库特性相关的配置项，允许 SQLancer 针对不同的数据库管理系统定制行为
-    private S schema;// 数据库的模式（schema），描述当前数据库的结构，即数据库中表、列等结构的描述。
+    private volatile S schema;// 数据库的模式（schema），描述当前数据库的结构，即数据库中表、列等结构的描述。
+    private final AtomicLong schemaVersion = new AtomicLong(); // 每次更新 schema 时加一，用于判断预先生成的查询是否已过时
     private Main.StateLogger logger;
     private StateToReproduce state;
     private Main.QueryManager<C> manager;
     private String databaseName; // 数据库的名称
+    private MetricsScope metrics; // 统计执行的语句（按 DBMS、oracle 和语句类型分类）
+    private NodeInterner nodeInterner; // 表达式节点的哈希共享（--intern-expressions）
+    private QueryResultCache queryResultCache; // 数据库未改变时各 oracle 共享的查询结果（--query-result-cache-mb）
+    // 流水线 oracle 的生成线程使用自己的随机数生成器和 interner，见 OraclePipeline
+    private volatile Thread generationThread;
+    private Randomly generationRandomly;
+    private NodeInterner generationInterner;
 
     // 用于设置和获取数据库连接
     public void setConnection(C con) {
         this.databaseConnection = con;
+        // 新连接可能属于另一个数据库，例如 reducer 为每个候选语句序列重新创建的数据库
+        if (queryResultCache != null) {
+            queryResultCache.clear();
+        }
     }
 
     public C getConnection() {
@@ -43,7 +69,30 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     }
 
     public Randomly getRandomly() {
-        return r;
+        return generationThread == Thread.currentThread() ? generationRandomly : r;
+    }
+
+    /**
+     * Makes {@link #getRandomly()} and {@link #getNodeInterner()} return separate instances on the current thread, so
+     * that it can generate queries while another thread executes statements, see
+     * {@link sqlancer.common.oracle.OraclePipeline}. Only a single thread can do so at a time.
+     *
+     * @param randomly
+     *            the random number generator of the current thread
+     */
+    public void setGenerationThread(Randomly randomly) {
+        generationRandomly = randomly;
+        generationInterner = null;
+        generationThread = Thread.currentThread();
+    }
+
+    /**
+     * Makes the current thread use the random number generator and node interner of this state again.
+     */
+    public void clearGenerationThread() {
+        generationThread = null;
+        generationRandomly = null;
+        generationInterner = null;
     }
 
     public MainOptions getOptions() {
@@ -86,6 +135,81 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.databaseName = databaseName;
     }
 
+    public void setMetrics(MetricsScope metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the metrics to which the statements executed on this database are reported. If none were set, for
+     * example, when reproducing or reducing a bug, the statements are reported to an <code>unknown</code> scope.
+     *
+     * @return the metrics scope
+     */
+    public MetricsScope getMetrics() {
+        if (metrics == null) {
+            metrics = MetricsRegistry.getDefault().getScope("unknown", "unknown");
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the interner with which the expression generators share structurally equal nodes, which does not intern
+     * unless --intern-expressions is enabled. It is cleared whenever the schema is updated. A thread for which
+     * {@link #setGenerationThread(Randomly)} was called gets its own interner, which it must clear itself.
+     *
+     * @return the node interner of this database
+     */
+    public NodeInterner getNodeInterner() {
+        if (generationThread == Thread.currentThread()) {
+            if (generationInterner == null) {
+                generationInterner = createNodeInterner();
+            }
+            return generationInterner;
+        }
+        if (nodeInterner == null) {
+            nodeInterner = createNodeInterner();
+        }
+        return nodeInterner;
+    }
+
+    private NodeInterner createNodeInterner() {
+        return options.internExpressions() ? new NodeInterner(NodeInterner.DEFAULT_MAX_SIZE) : NodeInterner.NONE;
+    }
+
+    /**
+     * Returns the cache in which the test oracles share the results of their queries, which does not cache unless
+     * --query-result-cache-mb is positive. It is cleared whenever a statement that might change the database is
+     * executed, see {@link #invalidateQueryResults(Query)}, the schema is updated, or a connection is set, since the
+     * new connection might refer to another database.
+     *
+     * @return the query result cache of this database
+     */
+    public QueryResultCache getQueryResultCache() {
+        if (queryResultCache == null) {
+            long maxBytes = getOptions().getQueryResultCacheBytes();
+            queryResultCache = maxBytes > 0 ? new QueryResultCache(maxBytes) : QueryResultCache.NONE;
+        }
+        return queryResultCache;
+    }
+
+    /**
+     * Clears the query result cache if a statement might have changed the database, which all statements other than
+     * queries might, including those that failed, as well as the queries for which
+     * {@link QueryResultCache#mightChangeDatabase(String)} holds.
+     *
+     * @param q
+     *            the executed statement
+     */
+    public void invalidateQueryResults(Query<?> q) {
+        if (queryResultCache == null || !queryResultCache.isEnabled()) {
+            return;
+        }
+        String query = q.getQueryString();
+        if (StatementKind.classify(query) != StatementKind.SELECT || QueryResultCache.mightChangeDatabase(query)) {
+            queryResultCache.clear();
+        }
+    }
+
     // 用于执行查询的前置操作，例如记录查询执行时间、日志等
     private ExecutionTimer executePrologue(Query<?> q) throws Exception {
         boolean logExecutionTime = getOptions().logExecutionTime();// MainOptions类的logExecutionTime()方法返回true
@@ -102,6 +226,9 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
             } else {
                 getLogger().writeCurrent(q.getLogString());
             }
+        } else if (getLogger().isLoggingOnFailure()) {
+            // 只记录在内存中，出错或超时时才写入 -cur.log
+            getLogger().logStatementOnFailure(q.getLogString());
         }
         return timer;
     }
@@ -110,15 +237,31 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
 
     public boolean executeStatement(Query<C> q, String... fills) throws Exception {
         ExecutionTimer timer = executePrologue(q);
-        boolean success = manager.execute(q, fills);
+        StatementExecutionEvent event = new StatementExecutionEvent();
+        event.begin();
+        boolean success;
+        try {
+            success = manager.execute(q, fills);
+        } finally {
+            invalidateQueryResults(q);
+        }
+        commitStatementEvent(event, q, success);
         executeEpilogue(q, success, timer);
         return success;
     }
 
     public SQLancerResultSet executeStatementAndGet(Query<C> q, String... fills) throws Exception {
         ExecutionTimer timer = executePrologue(q);
-        SQLancerResultSet result = manager.executeAndGet(q, fills);
+        StatementExecutionEvent event = new StatementExecutionEvent();
+        event.begin();
+        SQLancerResultSet result;
+        try {
+            result = manager.executeAndGet(q, fills);
+        } finally {
+            invalidateQueryResults(q);
+        }
         boolean success = result != null;
+        commitStatementEvent(event, q, success);
         if (success) {
             result.registerEpilogue(() -> {
                 try {
@@ -131,6 +274,16 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         return result;
     }
 
+    private void commitStatementEvent(StatementExecutionEvent event, Query<C> q, boolean success) {
+        // 只有在 JFR 记录该事件时才填充字段，未记录时开销可以忽略
+        if (event.shouldCommit()) {
+            event.dbms = getMetrics().getDbms();
+            event.kind = StatementKind.classify(q.getQueryString()).name();
+            event.expectedError = !success;
+            event.commit();
+        }
+    }
+
     public S getSchema() {
         if (schema == null) {
             try {
@@ -144,13 +297,166 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
 
     protected void setSchema(S schema) {
         this.schema = schema;
+        schemaVersion.incrementAndGet();
+        if (nodeInterner != null) {
+            nodeInterner.clear();
+        }
+        if (queryResultCache != null) {
+            queryResultCache.clear();
+        }
+    }
+
+    /**
+     * Returns a number that changes whenever the schema is updated, for example, after a statement that could affect
+     * the schema was executed. Queries that were generated for an older version might refer to tables or columns that
+     * no longer exist.
+     *
+     * @return the version of the current schema
+     */
+    public long getSchemaVersion() {
+        return schemaVersion.get();
     }
 
     public void updateSchema() throws Exception {
-        setSchema(readSchema());
+        ExecutionTimer timer = new ExecutionTimer().start();
+        SchemaRefreshEvent event = new SchemaRefreshEvent();
+        event.begin();
+        S previous = schema;
+        PhaseProfiler.enter(Phase.SCHEMA_REFRESH);
+        try {
+            setSchema(readSchema());
+        } finally {
+            PhaseProfiler.exit();
+        }
+        if (previous != null) {
+            keepEstimatedRowCounts(previous);
+        }
+        finishSchemaUpdate(event);
+        getMetrics().recordSchemaRefresh(timer.end().getElapsedNanos());
+    }
+
+    /**
+     * Updates the schema after a statement that could affect it was executed. Unless --schema-refresh is FULL, the
+     * change of the statement is applied to the current schema by {@link #applySchemaChange}, and the schema is only
+     * read again if that is not possible. The schema version only changes if the schema did.
+     *
+     * @param q
+     *            the executed statement
+     * @param success
+     *            whether the statement was executed without an error
+     *
+     * @throws Exception
+     *             if reading the schema fails
+     */
+    public void updateSchema(Query<?> q, boolean success) throws Exception {
+        SchemaRefreshMode mode = options.getSchemaRefreshMode();
+        if (mode == SchemaRefreshMode.FULL || schema == null) {
+            updateSchema();
+            return;
+        }
+        ExecutionTimer timer = new ExecutionTimer().start();
+        SchemaRefreshEvent event = new SchemaRefreshEvent();
+        event.begin();
+        SchemaChange change = SchemaChange.parse(q.getQueryString());
+        S updated;
+        PhaseProfiler.enter(Phase.SCHEMA_REFRESH);
+        try {
+            updated = change.getKind() == SchemaChange.Kind.UNKNOWN ? null : applySchemaChange(schema, change, success);
+        } finally {
+            PhaseProfiler.exit();
+        }
+        if (updated == null) {
+            updateSchema();
+            return;
+        }
+        if (mode == SchemaRefreshMode.VERIFY) {
+            String expected = readSchema().getCanonicalDescription();
+            String actual = updated.getCanonicalDescription();
+            if (!expected.equals(actual)) {
+                throw new AssertionError(String.format(
+                        "the schema after applying %s of %s differs from the database schema%n%s%nexpected:%n%s",
+                        change, q.getQueryString(), actual, expected));
+            }
+        }
+        if (updated != schema) {
+            setSchema(updated);
+        }
+        event.incremental = true;
+        finishSchemaUpdate(event);
+        getMetrics().recordSchemaDelta(timer.end().getElapsedNanos());
+    }
+
+    private void keepEstimatedRowCounts(S previous) {
+        Map<String, Long> estimates = new HashMap<>();
+        for (AbstractTable<?, ?, ?> table : previous.getDatabaseTables()) {
+            estimates.put(table.getName(), table.getEstimatedNrRows());
+        }
+        for (AbstractTable<?, ?, ?> table : schema.getDatabaseTables()) {
+            Long estimate = estimates.get(table.getName());
+            if (estimate != null) {
+                table.setEstimatedNrRows(estimate);
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a successful INSERT, UPDATE, or DELETE statement, so that the number of rows of its table
+     * is counted again and its {@link AbstractTable#getEstimatedNrRows() estimate} is adjusted. If the table cannot be
+     * determined, the rows of all tables are counted again.
+     *
+     * @param q
+     *            the executed statement
+     * @param updateCount
+     *            the number of changed rows that the DBMS reported, or -1 if unknown
+     */
+    public void recordRowCountChange(Query<?> q, long updateCount) {
+        if (schema == null) {
+            return;
+        }
+        SchemaChange change = SchemaChange.parse(q.getQueryString());
+        AbstractTable<?, ?, ?> table = change.getKind() == SchemaChange.Kind.NONE && change.getName() != null
+                ? schema.getDatabaseTable(change.getName()) : null;
+        if (table == null) {
+            for (AbstractTable<?, ?, ?> t : schema.getDatabaseTables()) {
+                t.recomputeCount();
+            }
+        } else {
+            table.recordRowCountChange(updateCount < 0 ? 0 : change.getRowCountDelta(updateCount));
+        }
+    }
+
+    private void finishSchemaUpdate(SchemaRefreshEvent event) {
         for (AbstractTable<?, ?, ?> table : schema.getDatabaseTables()) {
             table.recomputeCount();
         }
+        if (event.shouldCommit()) {
+            event.dbms = getMetrics().getDbms();
+            event.database = databaseName;
+            event.tables = schema.getDatabaseTables().size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Applies the change of an executed statement to the schema, for --schema-refresh INCREMENTAL and VERIFY. Only the
+     * tables that the statement affected should be read from the database. The returned schema must be equivalent to
+     * the one that {@link #readSchema()} would return, as far as {@link AbstractSchema#getCanonicalDescription()} is
+     * concerned.
+     *
+     * @param current
+     *            the schema before the statement was executed, which must not be modified
+     * @param change
+     *            the change of the statement, which is not {@link SchemaChange.Kind#UNKNOWN}
+     * @param success
+     *            whether the statement was executed without an error
+     *
+     * @return the updated schema, current if the statement did not change it, or null to read the whole schema
+     *
+     * @throws Exception
+     *             if reading the affected tables fails
+     */
+    protected S applySchemaChange(S current, SchemaChange change, boolean success) throws Exception {
+        return null;
     }
 
     protected abstract S readSchema() throws Exception;
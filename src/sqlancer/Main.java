@@ -13,12 +13,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.JCommander.Builder;
@@ -27,7 +30,14 @@ import sqlancer.citus.CitusProvider;
 import sqlancer.clickhouse.ClickHouseProvider;
 import sqlancer.cnosdb.CnosDBProvider;
 import sqlancer.cockroachdb.CockroachDBProvider;
+import sqlancer.common.log.AsyncLogWriter;
 import sqlancer.common.log.Loggable;
+import sqlancer.common.log.LoggableFactory;
+import sqlancer.common.log.StatementRingBuffer;
+import sqlancer.common.metrics.MetricsRegistry;
+import sqlancer.common.metrics.MetricsScope;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PrometheusExporter;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.databend.DatabendProvider;
@@ -50,11 +60,8 @@ import sqlancer.yugabyte.ysql.YSQLProvider;
 public final class Main {
 
     public static final File LOG_DIRECTORY = new File("logs");
-    public static volatile AtomicLong nrQueries = new AtomicLong();
-    public static volatile AtomicLong nrDatabases = new AtomicLong();
-    public static volatile AtomicLong nrSuccessfulActions = new AtomicLong();
-    public static volatile AtomicLong nrUnsuccessfulActions = new AtomicLong();
     public static volatile AtomicLong threadsShutdown = new AtomicLong();
+    static volatile AdaptiveConcurrencyController concurrencyController;
     static boolean progressMonitorStarted;
 
     static {
@@ -76,13 +83,16 @@ public final class Main {
         private File queryPlanFile;
         private File reduceFile;
         private FileWriter logFileWriter;
-        public FileWriter currentFileWriter;
+        public Writer currentFileWriter;
         private FileWriter queryPlanFileWriter;
         private FileWriter reduceFileWriter;
 
         private static final List<String> INITIALIZED_PROVIDER_NAMES = new ArrayList<>();
         private final boolean logEachSelect;
+        private final boolean asyncLogging;
         private final boolean logQueryPlan;
+        // 未开启 --log-each-select 时，最近执行的语句只保存在内存中，出错或超时时才写入 -cur.log
+        private final StatementRingBuffer failureLog;
 
         private final boolean useReducer;
         private final DatabaseProvider<?, ?, ?> databaseProvider;
@@ -124,7 +134,10 @@ public final class Main {
                 System.out.println("No this file!!!");
             }
             logEachSelect = options.logEachSelect(); // 默认返回为true
-            if (logEachSelect) {
+            asyncLogging = options.asyncLogging();
+            failureLog = !logEachSelect && options.getFailureLogSize() > 0
+                    ? new StatementRingBuffer(options.getFailureLogSize()) : null;
+            if (logEachSelect || failureLog != null) {
                 curFile = new File(dir, databaseName + "-cur.log");
             }
             logQueryPlan = options.logQueryPlan();
@@ -177,13 +190,14 @@ public final class Main {
             return logFileWriter;
         }
 
-        public FileWriter getCurrentFileWriter() {
+        public Writer getCurrentFileWriter() {
             if (!logEachSelect) {
                 throw new UnsupportedOperationException();
             }
             if (currentFileWriter == null) {
                 try {
-                    currentFileWriter = new FileWriter(curFile, false);
+                    currentFileWriter = asyncLogging ? new AsyncLogWriter(curFile, false)
+                            : new FileWriter(curFile, false);
                 } catch (IOException e) {
                     throw new AssertionError(e);
                 }
@@ -308,7 +322,77 @@ public final class Main {
 
         }
 
+        /**
+         * Writes all statements logged so far to the current log file, which, with {@code --async-logging}, might
+         * still be buffered in memory.
+         */
+        public void syncCurrent() {
+            if (currentFileWriter instanceof AsyncLogWriter) {
+                try {
+                    ((AsyncLogWriter) currentFileWriter).sync();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        /**
+         * Returns whether the statements are only logged when something goes wrong (see {@code --failure-log-size}).
+         *
+         * @return whether {@link #logStatementOnFailure(String)} records the statements
+         */
+        public boolean isLoggingOnFailure() {
+            return failureLog != null;
+        }
+
+        /**
+         * Records a statement in memory, so that it can be written to the current log file by
+         * {@link #writeFailureLog(StateToReproduce, String)} if something goes wrong.
+         *
+         * @param statement
+         *            the statement that is about to be executed
+         */
+        public void logStatementOnFailure(String statement) {
+            failureLog.add(statement);
+        }
+
+        /**
+         * Writes the statements recorded by {@link #logStatementOnFailure(String)} to the current log file, replacing
+         * its previous content. Does nothing unless logging on failure is enabled.
+         *
+         * @param state
+         *            the state of the database whose statements are written
+         * @param reason
+         *            why the statements are written, for example, the message of an exception
+         */
+        public synchronized void writeFailureLog(StateToReproduce state, String reason) {
+            if (failureLog == null) {
+                return;
+            }
+            LoggableFactory loggableFactory = databaseProvider.getLoggableFactory();
+            long nrStatements = failureLog.getNrStatements();
+            List<String> statements = failureLog.getStatements();
+            StringBuilder sb = new StringBuilder();
+            sb.append(loggableFactory.getInfo(state.getDatabaseName(), state.getDatabaseVersion(), state.getSeedValue())
+                    .getLogString());
+            sb.append(loggableFactory.createLoggable("-- " + reason).getLogString());
+            if (nrStatements > statements.size()) {
+                sb.append(loggableFactory.createLoggable(String.format("-- %d earlier statements are not logged",
+                        nrStatements - statements.size())).getLogString());
+            }
+            for (String statement : statements) {
+                sb.append(loggableFactory.createLoggable(statement).getLogString());
+            }
+            try (FileWriter writer = new FileWriter(curFile, false)) {
+                writer.write(sb.toString());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
         public void logException(Throwable reduce, StateToReproduce state) {
+            syncCurrent();
+            writeFailureLog(state, "failed with " + reduce);
             Loggable stackTrace = getStackTrace(reduce);
             FileWriter logFileWriter2 = getLogFileWriter();
             try {
@@ -329,7 +413,7 @@ public final class Main {
             return databaseProvider.getLoggableFactory().convertStacktraceToLoggable(e1);
         }
 
-        private void printState(FileWriter writer, StateToReproduce state) {
+        private void printState(Writer writer, StateToReproduce state) {
             StringBuilder sb = new StringBuilder();
 
             sb.append(databaseProvider.getLoggableFactory()
@@ -365,7 +449,7 @@ public final class Main {
         public boolean execute(Query<C> q, String... fills) throws Exception {
             boolean success;
             success = q.execute(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
+            MetricsRegistry.getDefault().incrementSuccessfulStatements();
             if (globalState.getOptions().loggerPrintFailed() || success) {
                 globalState.getState().logStatement(q);
             }
@@ -376,20 +460,20 @@ public final class Main {
             globalState.getState().logStatement(q);
             SQLancerResultSet result;
             result = q.executeAndGet(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
+            MetricsRegistry.getDefault().incrementSuccessfulStatements();
             return result;
         }
 
         public void incrementSelectQueryCount() {
-            Main.nrQueries.addAndGet(1);
+            MetricsRegistry.getDefault().incrementQueries();
         }
 
         public Long getSelectQueryCount() {
-            return Main.nrQueries.get();
+            return MetricsRegistry.getDefault().getQueries();
         }
 
         public void incrementCreateDatabase() {
-            Main.nrDatabases.addAndGet(1);
+            MetricsRegistry.getDefault().incrementDatabases();
         }
 
     }
@@ -412,6 +496,7 @@ public final class Main {
         private StateLogger logger;
         private StateToReproduce stateToRepro;
         private final Randomly r;
+        private final MetricsScope metrics;
 
         public DBMSExecutor(DatabaseProvider<G, O, C> provider, MainOptions options, O dbmsSpecificOptions,
                 String databaseName, Randomly r) {
@@ -420,6 +505,8 @@ public final class Main {
             this.databaseName = databaseName;
             this.command = dbmsSpecificOptions;
             this.r = r;
+            this.metrics = MetricsRegistry.getDefault().getScope(provider.getDBMSName(), dbmsSpecificOptions
+                    .getTestOracleFactory().stream().map(Object::toString).collect(Collectors.joining(",")));
         }
 
         private G createGlobalState() {
@@ -442,6 +529,20 @@ public final class Main {
         }
 
         public void run() throws Exception {
+            run(null);
+        }
+
+        /**
+         * Generates and tests a single database.
+         *
+         * @param databaseTemplate
+         *            the template of the worker, from which the database is cloned if possible, or <code>null</code>
+         *            to always generate the database
+         *
+         * @throws Exception
+         *             if generating or testing the database fails
+         */
+        public void run(DatabaseTemplate databaseTemplate) throws Exception {
             G state = createGlobalState();
             stateToRepro = provider.getStateToReproduce(databaseName);
             stateToRepro.seedValue = r.getSeed();
@@ -451,7 +552,13 @@ public final class Main {
             state.setDatabaseName(databaseName);
             state.setMainOptions(options);
             state.setDbmsSpecificOptions(command);
-            try (C con = provider.createDatabase(state)) {
+            state.setMetrics(metrics);
+            G template = databaseTemplate == null ? null : databaseTemplate.getTemplate();
+            try (C con = template == null ? provider.createDatabase(state) : provider.cloneDatabase(template, state)) {
+                if (template != null) {
+                    // 克隆的数据库沿用模板的语句日志，使得 bug 报告仍然可以从头重现数据库
+                    databaseTemplate.initializeClone(state);
+                }
                 QueryManager<C> manager = new QueryManager<>(state);
                 try {
                     stateToRepro.databaseVersion = con.getDatabaseVersion();
@@ -467,14 +574,24 @@ public final class Main {
                 Reproducer<G> reproducer = null;
                 if (options.enableQPG()) {
                     provider.generateAndTestDatabaseWithQueryPlanGuidance(state);
-                } else {
+                } else if (databaseTemplate == null) {
                     reproducer = provider.generateAndTestDatabase(state);
+                } else {
+                    try {
+                        reproducer = provider.generateAndTestDatabase(state, databaseTemplate);
+                    } catch (IgnoreMeException e) {
+                        // the clones of this database would most likely be ignored as well
+                        databaseTemplate.drop();
+                        throw e;
+                    }
                 }
-                try {
-                    logger.getCurrentFileWriter().close();
-                    logger.currentFileWriter = null;
-                } catch (IOException e) {
-                    throw new AssertionError(e);
+                if (options.logEachSelect()) {
+                    try {
+                        logger.getCurrentFileWriter().close();
+                        logger.currentFileWriter = null;
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
                 }
 
                 if (options.reduceAST() && !options.useReducer()) {
@@ -491,6 +608,7 @@ public final class Main {
                     newGlobalState.setDatabaseName(databaseName);
                     newGlobalState.setMainOptions(options);
                     newGlobalState.setDbmsSpecificOptions(command);
+                    newGlobalState.setMetrics(metrics);
                     QueryManager<C> newManager = new QueryManager<>(newGlobalState);
                     newGlobalState.setStateLogger(new StateLogger(databaseName, provider, options));
                     newGlobalState.setManager(newManager);
@@ -526,6 +644,7 @@ public final class Main {
             state.setDatabaseName(databaseName);
             state.setMainOptions(options);
             state.setDbmsSpecificOptions(command);
+            state.setMetrics(metrics);
             return state;
         }
 
@@ -543,6 +662,7 @@ public final class Main {
         private final DatabaseProvider<G, O, C> provider;
         private final MainOptions options;
         private final O command;
+        private ConcurrencyLimiter concurrencyLimiter;
 
         public DBMSExecutorFactory(DatabaseProvider<G, O, C> provider, MainOptions options) {
             this.provider = provider;
@@ -576,6 +696,19 @@ public final class Main {
             return provider;
         }
 
+        /**
+         * Gets the limiter shared by all workers testing this DBMS. It is created on first use, since the options are
+         * parsed only after the factory has been constructed.
+         *
+         * @return the limiter bounding the number of concurrently-tested databases
+         */
+        public synchronized ConcurrencyLimiter getConcurrencyLimiter() {
+            if (concurrencyLimiter == null) {
+                concurrencyLimiter = new ConcurrencyLimiter(options.getMaxConcurrentDatabases());
+            }
+            return concurrencyLimiter;
+        }
+
     }
 
     /*
@@ -603,8 +736,21 @@ public final class Main {
             jc.usage();
             return options.getErrorExitCode();
         }
+        DatabaseProvider<?, ?, ?> parsedProvider = nameToProvider.get(jc.getParsedCommand()).getProvider();
+        if (options.getBulkRows() > 0 && !parsedProvider.supportsBulkData()) {
+            // 否则每个数据库都会在生成后失败
+            System.err.println("--bulk-rows is not supported for " + parsedProvider.getDBMSName());
+            return options.getErrorExitCode();
+        }
+        if (options.getComparisonMemoryBytes() < 1L << 20) {
+            // 否则每一行都会被单独写成一个 run，合并时每个 run 都需要一个缓冲区
+            System.err.println("--comparison-memory-mb must be at least 1");
+            return options.getErrorExitCode();
+        }
 
         Randomly.initialize(options);
+        MetricsRegistry.getDefault().registerMBeans();
+        PhaseProfiler.setEnabled(options.profilePhases());
         if (options.printProgressInformation()) {
             // true 打印查询进度信息
             startProgressMonitor();// 跟踪程序（设置定时任务，并且打印信息）
@@ -625,14 +771,22 @@ public final class Main {
 
                     @Override
                     public void run() {
+                        MetricsRegistry metrics = MetricsRegistry.getDefault();
                         System.out.println("Overall execution statistics");
                         System.out.println("============================");
-                        System.out.println(formatInteger(nrQueries.get()) + " queries");
-                        System.out.println(formatInteger(nrDatabases.get()) + " databases");
-                        System.out.println(
-                                formatInteger(nrSuccessfulActions.get()) + " successfully-executed statements");
+                        System.out.println(formatInteger(metrics.getQueries()) + " queries");
+                        System.out.println(formatInteger(metrics.getDatabases()) + " databases");
                         System.out.println(
-                                formatInteger(nrUnsuccessfulActions.get()) + " unsuccessfuly-executed statements");
+                                formatInteger(metrics.getSuccessfulStatements()) + " successfully-executed statements");
+                        System.out.println(formatInteger(metrics.getUnsuccessfulStatements())
+                                + " unsuccessfuly-executed statements");
+                        if (PhaseProfiler.isEnabled()) {
+                            // 按测试 oracle 分别列出各阶段（生成、渲染、执行等）所用的时间
+                            System.out.println();
+                            System.out.println("Time per phase");
+                            System.out.println("==============");
+                            System.out.print(PhaseProfiler.getSummary());
+                        }
                     }
 
                     private String formatInteger(long intValue) {
@@ -646,9 +800,15 @@ public final class Main {
             }
         }
         // System.out.println("I am Here");
-        // Executors 类中的一个静态方法，用于创建一个固定大小的线程池。线程池的大小由参数 nThreads 指定，线程池中的线程数固定，不会动态调整。
-        // getNumberConcurrentThreads()： 默认是16，如果 --num-threads 4 这种制定就是4
-        ExecutorService execService = Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+        // --executor PLATFORM（默认）：固定大小的线程池，大小由 --num-threads 指定（默认16）
+        // --executor VIRTUAL：每个数据库一个虚拟线程，并发数由 --max-concurrent-databases 限制
+        ExecutorService execService;
+        try {
+            execService = options.getWorkerExecutor().createExecutorService(options);
+        } catch (AssertionError e) {
+            System.err.println(e.getMessage());
+            return options.getErrorExitCode();
+        }
         DBMSExecutorFactory<?, ?, ?> executorFactory = nameToProvider.get(jc.getParsedCommand());
         // 请求进行数据库连接测试
         if (options.performConnectionTest()) {
@@ -662,7 +822,32 @@ public final class Main {
                 return options.getErrorExitCode();
             }
         }
+        PrometheusExporter metricsExporter = null;
+        if (options.getMetricsPort() != -1) {
+            try {
+                metricsExporter = PrometheusExporter.start(MetricsRegistry.getDefault(), options.getMetricsPort());
+            } catch (IOException e) {
+                System.err.println("Could not serve the metrics on port " + options.getMetricsPort() + ": " + e);
+                return options.getErrorExitCode();
+            }
+        }
+        ScheduledExecutorService concurrencyControllerScheduler = null;
+        if (options.useAdaptiveConcurrency()) {
+            // 固定线程池中最多只有 --num-threads 个线程，所以目标并发数不能超过它
+            int maxConcurrency = options.getMaxConcurrentDatabases();
+            if (options.getWorkerExecutor() == WorkerExecutor.PLATFORM) {
+                maxConcurrency = Math.min(maxConcurrency, options.getNumberConcurrentThreads());
+            }
+            concurrencyController = new AdaptiveConcurrencyController(executorFactory.getConcurrencyLimiter(), 1,
+                    maxConcurrency);
+            concurrencyControllerScheduler = Executors.newSingleThreadScheduledExecutor();
+            concurrencyControllerScheduler.scheduleAtFixedRate(concurrencyController,
+                    options.getAdaptiveConcurrencyInterval(), options.getAdaptiveConcurrencyInterval(),
+                    TimeUnit.SECONDS);
+        }
         final AtomicBoolean someOneFails = new AtomicBoolean(false);
+        // 正在测试的数据库，超时时将它们最近执行的语句写入日志（见 --failure-log-size）
+        final Set<DBMSExecutor<?, ?, ?>> runningExecutors = ConcurrentHashMap.newKeySet();
         // getTotalNumberTries()：返回一个值totalNumberTries（默认100），该值指定发现多少个错误后停止测试
         for (int i = 0; i < options.getTotalNumberTries(); i++) {
             final String databaseName = options.getDatabasePrefix() + i;// "databasei"
@@ -689,20 +874,36 @@ public final class Main {
 
                 private void runThread(final String databaseName) {
                     Randomly r = new Randomly(seed);
+                    // 每个线程保存一个模板数据库，后续的数据库直接从模板克隆（--clones-per-template）
+                    // QPG 会不断修改数据库，因此不使用模板
+                    DatabaseTemplate template = options.getClonesPerTemplate() > 0 && !options.enableQPG()
+                            ? new DatabaseTemplate(options.getClonesPerTemplate()) : null;
                     try {
                         // 通过getMaxGeneratedDatabases()方法获得maxGeneratedDatabases，默认为-1
                         int maxNrDbs = options.getMaxGeneratedDatabases();
                         // run without a limit if maxNrDbs == -1 如果maxNrDbs是-1，表示没有限制，即会无限制地进行操作while(1)
                         // 如果有限制，则会根据 maxNrDbs 执行相应次数的数据库操作
                         for (int i = 0; i < maxNrDbs || maxNrDbs == -1; i++) {
-                            Boolean continueRunning = run(options, execService, executorFactory, r, databaseName);
+                            Boolean continueRunning = run(options, execService, executorFactory, r, databaseName,
+                                    template);
                             // 如果为false，则说明有错误
                             if (!continueRunning) {
                                 someOneFails.set(true);
                                 break;
                             }
+                            // 被中断的线程（例如在 limiter.acquire() 中）停止运行，但这不是错误，否则它会不断重试
+                            if (Thread.currentThread().isInterrupted()) {
+                                break;
+                            }
                         }
                     } finally {
+                        if (template != null) {
+                            try {
+                                template.drop();
+                            } catch (Exception e) {
+                                e.printStackTrace();
+                            }
+                        }
                         threadsShutdown.addAndGet(1);// 线程池中完成的任务数加一
                         if (threadsShutdown.get() == options.getTotalNumberTries()) {
                             execService.shutdown();
@@ -711,10 +912,20 @@ public final class Main {
                 }
 
                 private boolean run(MainOptions options, ExecutorService execService,
-                        DBMSExecutorFactory<?, ?, ?> executorFactory, Randomly r, final String databaseName) {
+                        DBMSExecutorFactory<?, ?, ?> executorFactory, Randomly r, final String databaseName,
+                        DatabaseTemplate template) {
+                    ConcurrencyLimiter limiter = executorFactory.getConcurrencyLimiter();
+                    try {
+                        limiter.acquire();
+                    } catch (InterruptedException e) {
+                        // runThread stops when the interrupt flag is set, without reporting a failure
+                        Thread.currentThread().interrupt();
+                        return true;
+                    }
                     DBMSExecutor<?, ?, ?> executor = executorFactory.getDBMSExecutor(databaseName, r);
+                    runningExecutors.add(executor);
                     try {
-                        executor.run();
+                        executor.run(template);
                         return true;
                     } catch (IgnoreMeException e) {
                         return true;
@@ -725,6 +936,8 @@ public final class Main {
                         executor.getLogger().logException(reduce, executor.getStateToReproduce());
                         return false;
                     } finally {
+                        runningExecutors.remove(executor);
+                        limiter.release();
                         try {
                             if (options.logEachSelect()) {
                                 if (executor.getLogger().currentFileWriter != null) {
@@ -748,6 +961,19 @@ public final class Main {
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        for (DBMSExecutor<?, ?, ?> executor : runningExecutors) {
+            StateLogger logger = executor.getLogger();
+            if (logger != null) {
+                logger.writeFailureLog(executor.getStateToReproduce(), "timed out");
+            }
+        }
+        if (concurrencyControllerScheduler != null) {
+            concurrencyControllerScheduler.shutdownNow();
+            concurrencyController = null;
+        }
+        if (metricsExporter != null) {
+            metricsExporter.close();
+        }
 
         return someOneFails.get() ? options.getErrorExitCode() : 0;
     }
@@ -841,25 +1067,30 @@ public final class Main {
             public void run() {
                 // 计算自上次任务执行以来的时间 (elapsedTimeMillis)
                 long elapsedTimeMillis = System.currentTimeMillis() - timeMillis;
-                long currentNrQueries = nrQueries.get();// 获取当前查询数
+                MetricsRegistry metrics = MetricsRegistry.getDefault();
+                long currentNrQueries = metrics.getQueries();// 获取当前查询数
                 // 计算这次周期内执行的查询数
                 long nrCurrentQueries = currentNrQueries - lastNrQueries;
                 // 计算查询吞吐量
                 double throughput = nrCurrentQueries / (elapsedTimeMillis / 1000d);
                 // 获取当前数据库数
-                long currentNrDbs = nrDatabases.get();
+                long currentNrDbs = metrics.getDatabases();
                 long nrCurrentDbs = currentNrDbs - lastNrDbs;
                 // 计算数据库吞吐量
                 double throughputDbs = nrCurrentDbs / (elapsedTimeMillis / 1000d);
                 // 计算成功的语句比例
-                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions.get()
-                        / (nrSuccessfulActions.get() + nrUnsuccessfulActions.get()));
+                long successfulStatements = metrics.getSuccessfulStatements();
+                long successfulStatementsRatio = (long) (100.0 * successfulStatements
+                        / (successfulStatements + metrics.getUnsuccessfulStatements()));
                 DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
                 Date date = new Date();
+                AdaptiveConcurrencyController controller = concurrencyController;
+                String concurrencyTarget = controller == null ? ""
+                        : String.format(" Concurrency target: %d.", controller.getTarget());
                 System.out.println(String.format(
-                        "[%s] Executed %d queries (%d queries/s; %.2f/s dbs, successful statements: %2d%%). Threads shut down: %d.",
+                        "[%s] Executed %d queries (%d queries/s; %.2f/s dbs, successful statements: %2d%%). Threads shut down: %d.%s",
                         dateFormat.format(date), currentNrQueries, (int) throughput, throughputDbs,
-                        successfulStatementsRatio, threadsShutdown.get()));
+                        successfulStatementsRatio, threadsShutdown.get(), concurrencyTarget));
                 timeMillis = System.currentTimeMillis();
                 lastNrQueries = currentNrQueries;
                 lastNrDbs = currentNrDbs;
@@ -5,7 +5,9 @@ import java.util.Objects;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
+import sqlancer.Randomly.RandomNumberGenerator;
 import sqlancer.Randomly.StringGenerationStrategy;
+import sqlancer.common.schema.SchemaRefreshMode;
 
 @Parameters(separators = "=", commandDescription = "Options applicable to all DBMS")
 public class MainOptions {
@@ -20,6 +22,18 @@ public class MainOptions {
             "--num-threads" }, description = "How many threads should run concurrently to test separate databases")
     private int nrConcurrentThreads = 16; // NOPMD
 
+    @Parameter(names = "--executor", description = "The kind of threads that test the databases (PLATFORM or VIRTUAL, which requires JDK 21 or later)")
+    private WorkerExecutor workerExecutor = WorkerExecutor.PLATFORM; // NOPMD
+
+    @Parameter(names = "--max-concurrent-databases", description = "The maximum number of databases of a DBMS that are tested concurrently (-1 to use the value of --num-threads)")
+    private int maxConcurrentDatabases = -1; // NOPMD
+
+    @Parameter(names = "--adaptive-concurrency", description = "Adjust the number of concurrently-tested databases (up to --max-concurrent-databases) based on the statement latency and error rate of the DBMS", arity = 1)
+    private boolean adaptiveConcurrency; // NOPMD
+
+    @Parameter(names = "--adaptive-concurrency-interval", description = "The interval in seconds after which --adaptive-concurrency reconsiders the number of concurrently-tested databases")
+    private int adaptiveConcurrencyInterval = 5; // NOPMD
+
     @Parameter(names = {
             "--random-seed" }, description = "A seed value != -1 that can be set to make the query and database generation deterministic")
     private long randomSeed = -1; // NOPMD
@@ -91,6 +105,27 @@ public class MainOptions {
     @Parameter(names = "--max-generated-databases", description = "The maximum number of databases that are generated by each thread")
     private int maxGeneratedDatabases = -1; // NOPMD
 
+    @Parameter(names = "--pipelined-oracle", description = "Generate the queries of the test oracle on a separate thread while the DBMS executes the previous ones (only supported by some oracles, e.g., NoREC and WHERE; makes the generated queries depend on the thread scheduling)", arity = 1)
+    private boolean pipelinedOracle; // NOPMD
+
+    @Parameter(names = "--pipelined-oracle-queue-size", description = "The maximum number of query bundles generated ahead of execution by --pipelined-oracle")
+    private int pipelinedOracleQueueSize = 16; // NOPMD
+
+    @Parameter(names = "--clones-per-template", description = "The number of times a generated database is cloned and tested again before a new database is generated (0 to generate each database from scratch; only supported by some DBMS)")
+    private int clonesPerTemplate; // NOPMD
+
+    @Parameter(names = "--metrics-port", description = "Serve the execution statistics in the Prometheus text format on http://<host>:<port>/metrics (-1 to disable)")
+    private int metricsPort = -1; // NOPMD
+
+    @Parameter(names = "--profile-phases", description = "Measure the time spent generating, rendering and executing queries, reading results, refreshing the schema and counting rows per test oracle, and print it in the execution summary (see --print-progress-summary)", arity = 1)
+    private boolean profilePhases; // NOPMD
+
+    @Parameter(names = "--async-logging", description = "Write the statements logged by --log-each-select on a background thread in batches rather than flushing the log file after each statement; the log is written completely when a bug is found", arity = 1)
+    private boolean asyncLogging; // NOPMD
+
+    @Parameter(names = "--failure-log-size", description = "When --log-each-select is disabled, keep the last <n> statements of each database in memory and write them to the -cur.log file only when a bug is found, a thread fails, or the run times out (0 to disable)")
+    private int failureLogSize; // NOPMD
+
     @Parameter(names = "--exit-code-error", description = "The exit code that should be returned when an error is encountered (or a bug is found) 遇到错误（或发现错误）时应返回的退出代码")
     private int errorExitCode = -1; // NOPMD
 
@@ -109,12 +144,39 @@ public class MainOptions {
     @Parameter(names = "--random-string-generation", description = "Select the random-string eneration approach")
     private StringGenerationStrategy randomStringGenerationStrategy = StringGenerationStrategy.SOPHISTICATED; // NOPMD
 
+    @Parameter(names = "--random-number-generator", description = "Select the pseudo-random number generator (JDK reproduces the seeds of earlier versions, SPLITMIX64 is faster; a seed only reproduces a run with the same generator)")
+    private RandomNumberGenerator randomNumberGenerator = RandomNumberGenerator.JDK; // NOPMD
+
     @Parameter(names = "--string-constant-max-length", description = "Specify the maximum-length of generated string constants")
     private int maxStringConstantLength = 10; // NOPMD
 
     @Parameter(names = "--use-constant-caching", description = "Specifies whether constants should be cached and re-used with a certain probability", arity = 1)
     private boolean useConstantCaching = true; // NOPMD
 
+    @Parameter(names = "--intern-expressions", description = "Share structurally equal expression nodes between the generated expressions (only supported by some DBMS)", arity = 1)
+    private boolean internExpressions; // NOPMD
+
+    @Parameter(names = "--schema-refresh", description = "How the schema is updated after a statement that could affect it (FULL reads it again, INCREMENTAL applies the change of the statement where supported, VERIFY additionally checks the result against a full read)")
+    private SchemaRefreshMode schemaRefreshMode = SchemaRefreshMode.FULL; // NOPMD
+
+    @Parameter(names = "--bulk-rows", description = "Load this many rows into each table after a database was generated, with a single INSERT ... SELECT per table that computes the rows in the DBMS (0 disables it; only supported by ClickHouse, DuckDB, and SQLite)")
+    private long bulkRows; // NOPMD
+
+    @Parameter(names = "--insert-batch-size", description = "Combine up to this many consecutive INSERT statements of the same shape into a single multi-row INSERT when populating a database (1 disables it; the DBMS must insert the rows of a statement atomically)")
+    private int insertBatchSize = 1; // NOPMD
+
+    @Parameter(names = "--population-transaction-size", description = "Execute up to this many consecutive data-changing statements in a single transaction when populating a database, rather than committing each of them (1 disables it; only for embedded DBMSs, such as SQLite, H2, HSQLDB, and DuckDB)")
+    private int populationTransactionSize = 1; // NOPMD
+
+    @Parameter(names = "--comparison-memory-mb", description = "The memory in MB that the rows of two query results may take when they are compared row by row, above which they are sorted in temporary files (at least 1)")
+    private int comparisonMemoryMb = 64; // NOPMD
+
+    @Parameter(names = "--query-result-cache-mb", description = "The memory in MB for the results of queries that the test oracles share while the database does not change, so that a query that was already executed is not executed again (disabled by default; assumes that the queries are deterministic and that only those containing INSERT, UPDATE, DELETE, MERGE, INTO, nextval, or setval change the database)")
+    private int queryResultCacheMb; // NOPMD
+
+    @Parameter(names = "--oracle-connections", description = "Execute the queries of a test oracle check concurrently on up to this many additional connections to the database (1 disables it; only supported by ClickHouse, DuckDB, and Presto)")
+    private int oracleConnections = 1; // NOPMD
+
     @Parameter(names = "--use-connection-test", description = "Test whether the DBMS is accessible before trying to connect using multiple threads", arity = 1)
     private boolean useConnectionTest = true; // NOPMD
 
@@ -160,6 +222,25 @@ public class MainOptions {
         return nrConcurrentThreads;
     }
 
+    public WorkerExecutor getWorkerExecutor() {
+        return workerExecutor;
+    }
+
+    public int getMaxConcurrentDatabases() {
+        if (maxConcurrentDatabases == -1) {
+            return nrConcurrentThreads;
+        }
+        return maxConcurrentDatabases;
+    }
+
+    public boolean useAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public int getAdaptiveConcurrencyInterval() {
+        return adaptiveConcurrencyInterval;
+    }
+
     public boolean logEachSelect() {
         return logEachSelect;
     }
@@ -179,10 +260,8 @@ public class MainOptions {
     }
 
     public boolean logExecutionTime() {
-        if (!logEachSelect) {
-            throw new AssertionError();
-        }
-        return logExecutionTime;
+        // the execution time is appended to the logged statement, so it can only be logged with --log-each-select
+        return logEachSelect && logExecutionTime;
     }
 
     public boolean loggerPrintFailed() {
@@ -253,6 +332,34 @@ public class MainOptions {
         return maxGeneratedDatabases;
     }
 
+    public boolean usePipelinedOracle() {
+        return pipelinedOracle;
+    }
+
+    public int getPipelinedOracleQueueSize() {
+        return pipelinedOracleQueueSize;
+    }
+
+    public int getClonesPerTemplate() {
+        return clonesPerTemplate;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public boolean profilePhases() {
+        return profilePhases;
+    }
+
+    public boolean asyncLogging() {
+        return asyncLogging;
+    }
+
+    public int getFailureLogSize() {
+        return failureLogSize;
+    }
+
     public int getErrorExitCode() {
         return errorExitCode;
     }
@@ -273,6 +380,10 @@ public class MainOptions {
         return randomStringGenerationStrategy;
     }
 
+    public RandomNumberGenerator getRandomNumberGenerator() {
+        return randomNumberGenerator;
+    }
+
     public int getMaxStringConstantLength() {
         return maxStringConstantLength;
     }
@@ -281,6 +392,38 @@ public class MainOptions {
         return useConstantCaching;
     }
 
+    public boolean internExpressions() {
+        return internExpressions;
+    }
+
+    public long getBulkRows() {
+        return bulkRows;
+    }
+
+    public int getInsertBatchSize() {
+        return insertBatchSize;
+    }
+
+    public int getPopulationTransactionSize() {
+        return populationTransactionSize;
+    }
+
+    public int getOracleConnections() {
+        return oracleConnections;
+    }
+
+    public long getComparisonMemoryBytes() {
+        return comparisonMemoryMb * (1L << 20);
+    }
+
+    public long getQueryResultCacheBytes() {
+        return queryResultCacheMb * (1L << 20);
+    }
+
+    public SchemaRefreshMode getSchemaRefreshMode() {
+        return schemaRefreshMode;
+    }
+
     public int getConstantCacheSize() {
         return constantCacheSize;
     }
@@ -0,0 +1,230 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import sqlancer.common.metrics.StatementKind;
+import sqlancer.common.query.Query;
+
+/**
+ * Groups consecutive data-changing statements that populate a database into explicit transactions, so that an embedded
+ * DBMS does not commit, and for a file-based database, sync, after each of them.
+ *
+ * The transactions are started and ended through JDBC and are not logged, so the log only contains the statements
+ * themselves, and executing it in autocommit mode must result in the same database. Each statement is therefore
+ * executed within a savepoint, to which the transaction is rolled back if the statement fails. For a DBMS that does not
+ * support savepoints and that aborts the transaction when a statement fails, such as DuckDB, the transaction is rolled
+ * back instead, and the statements of the group that succeeded are executed again and committed. If the commit fails,
+ * for example, because SQLite checks deferred foreign keys only then, if a failing statement ends the transaction, as
+ * SQLite's ON CONFLICT ROLLBACK constraints do, or if a statement fails when it is executed again, the transaction is
+ * rolled back, and all statements of the group are executed again in autocommit mode, ignoring their errors, as they
+ * would be when the log is reproduced.
+ *
+ * Statements other than INSERT, UPDATE, DELETE, and the like end the current group and are executed in autocommit mode,
+ * as are SQLite's OR FAIL and OR ROLLBACK statements, which keep the changes made before the failure or end the
+ * transaction, and all statements within a transaction that the generator started itself.
+ */
+public final class PopulationTransaction implements AutoCloseable {
+
+    private static final Pattern NON_ATOMIC_STATEMENT = Pattern
+            .compile("^\\s*(INSERT|UPDATE|REPLACE)\\s+OR\\s+(FAIL|ROLLBACK)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BEGIN_STATEMENT = Pattern.compile("^\\s*(BEGIN|START\\s+TRANSACTION|SAVEPOINT)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern END_STATEMENT = Pattern
+            .compile("^\\s*(COMMIT|END|ROLLBACK)(\\s+(TRANSACTION|WORK))?\\s*;?\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private final SQLConnection connection;
+    private final int maxSize;
+    // the statements of the current group in their order, and whether they succeeded
+    private final List<String> statements = new ArrayList<>();
+    private final List<Boolean> succeeded = new ArrayList<>();
+    private boolean active;
+    private boolean grouped;
+    private boolean savepointsSupported = true;
+    private Savepoint savepoint;
+    // whether the generator started a transaction with a statement, within which no group can be started
+    private boolean explicitTransaction;
+
+    public PopulationTransaction(SQLConnection connection, int maxSize) {
+        if (maxSize < 2) {
+            throw new IllegalArgumentException(String.valueOf(maxSize));
+        }
+        this.connection = connection;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Prepares the execution of a statement, which must be followed by a call to {@link #end(Query, boolean)}. If the
+     * statement can be grouped, this starts a transaction if none is active and sets a savepoint. Otherwise, it commits
+     * the current group, so that the statement is executed in autocommit mode.
+     *
+     * @param query
+     *            the statement that is executed next
+     *
+     * @throws SQLException
+     *             if the transaction cannot be started or committed
+     */
+    public void begin(Query<?> query) throws SQLException {
+        grouped = canBeGrouped(query.getQueryString());
+        if (!grouped) {
+            commit();
+            return;
+        }
+        if (!active) {
+            connection.setAutoCommit(false);
+            active = true;
+        }
+        if (savepointsSupported) {
+            try {
+                savepoint = connection.setSavepoint();
+            } catch (SQLFeatureNotSupportedException e) {
+                savepointsSupported = false;
+            }
+        }
+    }
+
+    /**
+     * Completes the execution of a statement, which rolls back its changes if it failed, and commits the group if it is
+     * full.
+     *
+     * @param query
+     *            the statement passed to {@link #begin(Query)}
+     * @param success
+     *            whether the statement was executed without an error
+     *
+     * @throws SQLException
+     *             if the transaction cannot be rolled back or committed
+     */
+    public void end(Query<?> query, boolean success) throws SQLException {
+        String statement = query.getQueryString();
+        if (!grouped) {
+            if (success && BEGIN_STATEMENT.matcher(statement).find()) {
+                explicitTransaction = true;
+            } else if (success && END_STATEMENT.matcher(statement).find()) {
+                explicitTransaction = false;
+            }
+            return;
+        }
+        grouped = false;
+        statements.add(statement);
+        succeeded.add(success);
+        Savepoint current = savepoint;
+        savepoint = null;
+        if (success) {
+            if (current != null) {
+                connection.releaseSavepoint(current);
+            }
+        } else if (current == null) {
+            executeSucceededAgain();
+        } else {
+            // the savepoint is not released, since HSQLDB already removes it when rolling back to it
+            try {
+                connection.rollback(current);
+            } catch (SQLException e) {
+                executeSucceededAgain();
+            }
+        }
+        if (statements.size() >= maxSize) {
+            commit();
+        }
+    }
+
+    /**
+     * Commits the current group, if any, and returns to autocommit mode.
+     *
+     * @throws SQLException
+     *             if autocommit mode cannot be restored
+     */
+    public void commit() throws SQLException {
+        if (!active) {
+            return;
+        }
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            rollback();
+            executeAllInAutocommitMode();
+            return;
+        }
+        connection.setAutoCommit(true);
+        active = false;
+        clear();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        commit();
+    }
+
+    private boolean canBeGrouped(String statement) {
+        return !explicitTransaction && StatementKind.classify(statement) == StatementKind.DML
+                && !NON_ATOMIC_STATEMENT.matcher(statement).find();
+    }
+
+    // rolls back the transaction and executes the statements that succeeded in a new one, which is committed right away
+    // so that no statement is executed more than twice
+    private void executeSucceededAgain() throws SQLException {
+        if (!rollback()) {
+            executeAllInAutocommitMode();
+            return;
+        }
+        try (Statement s = connection.createStatement()) {
+            for (int i = 0; i < statements.size(); i++) {
+                if (succeeded.get(i)) {
+                    s.execute(statements.get(i));
+                }
+            }
+        } catch (SQLException e) {
+            rollback();
+            executeAllInAutocommitMode();
+            return;
+        }
+        commit();
+    }
+
+    // returns false if the DBMS already ended the transaction itself when a statement failed, for example, SQLite for a
+    // constraint with ON CONFLICT ROLLBACK, in which case all changes of the group are undone as well
+    private boolean rollback() {
+        try {
+            connection.rollback();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // expects that the changes of the group have been rolled back
+    private void executeAllInAutocommitMode() throws SQLException {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            // the SQLite driver fails to commit a transaction that SQLite already ended, but still returns to
+            // autocommit mode
+            if (!connection.getAutoCommit()) {
+                throw e;
+            }
+        }
+        active = false;
+        try (Statement s = connection.createStatement()) {
+            for (String statement : statements) {
+                try {
+                    s.execute(statement);
+                } catch (SQLException ignored) {
+                    // the statement fails when the log is reproduced, too
+                }
+            }
+        }
+        clear();
+    }
+
+    private void clear() {
+        statements.clear();
+        succeeded.clear();
+    }
+
+}
@@ -5,11 +5,17 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 import sqlancer.StateToReproduce.OracleRunReproductionState;
 import sqlancer.common.DBMSCommon;
+import sqlancer.common.metrics.OracleCheckEvent;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.oracle.CompositeTestOracle;
+import sqlancer.common.oracle.OraclePipeline;
+import sqlancer.common.oracle.PipelinedTestOracle;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.common.schema.AbstractSchema;
 
@@ -48,35 +54,91 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
 
     @Override
     public Reproducer<G> generateAndTestDatabase(G globalState) throws Exception {
+        return generateAndTestDatabase(globalState, null);
+    }
+
+    @Override
+    public Reproducer<G> generateAndTestDatabase(G globalState, DatabaseTemplate template) throws Exception {
         try {
-            generateDatabase(globalState);
-            checkViewsAreValid(globalState);
+            if (template == null || !template.isClone(globalState)) {
+                generateDatabase(globalState);
+                loadBulkData(globalState);
+                checkViewsAreValid(globalState);
+                if (template != null) {
+                    template.save(this, globalState);
+                }
+            }
             globalState.getManager().incrementCreateDatabase();
 
             TestOracle<G> oracle = getTestOracle(globalState);
-            for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
-                try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
-                    assert localState != null;
-                    try {
-                        oracle.check();
-                        globalState.getManager().incrementSelectQueryCount();
-                    } catch (IgnoreMeException ignored) {
-                    } catch (AssertionError e) {
-                        Reproducer<G> reproducer = oracle.getLastReproducer();
-                        if (reproducer != null) {
-                            return reproducer;
-                        }
-                        throw e;
-                    }
-                    localState.executedWithoutError();
+            String previousOracle = PhaseProfiler.setOracle(oracle.getClass().getSimpleName());
+            try {
+                if (globalState.getOptions().usePipelinedOracle() && oracle instanceof PipelinedTestOracle) {
+                    @SuppressWarnings("unchecked")
+                    PipelinedTestOracle<G, ?> pipelinedOracle = (PipelinedTestOracle<G, ?>) oracle;
+                    return testDatabasePipelined(globalState, pipelinedOracle);
                 }
+                return testDatabase(globalState, oracle);
+            } finally {
+                PhaseProfiler.setOracle(previousOracle);
             }
         } finally {
             globalState.getConnection().close();
         }
+    }
+
+    private Reproducer<G> testDatabase(G globalState, TestOracle<G> oracle) throws Exception {
+        for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
+            try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
+                assert localState != null;
+                ExecutionTimer timer = new ExecutionTimer().start();
+                OracleCheckEvent event = new OracleCheckEvent();
+                event.begin();
+                String outcome = OracleCheckEvent.FAILED;
+                PhaseProfiler.enter(Phase.CHECK);
+                try {
+                    oracle.check();
+                    outcome = OracleCheckEvent.PASSED;
+                    globalState.getManager().incrementSelectQueryCount();
+                } catch (IgnoreMeException ignored) {
+                    outcome = OracleCheckEvent.IGNORED;
+                } catch (AssertionError e) {
+                    Reproducer<G> reproducer = oracle.getLastReproducer();
+                    if (reproducer != null) {
+                        return reproducer;
+                    }
+                    throw e;
+                } finally {
+                    PhaseProfiler.exit();
+                    globalState.getMetrics().recordCheck(timer.end().getElapsedNanos());
+                    if (event.shouldCommit()) {
+                        event.dbms = globalState.getMetrics().getDbms();
+                        event.oracle = globalState.getMetrics().getOracle();
+                        event.outcome = outcome;
+                        event.commit();
+                    }
+                }
+                localState.executedWithoutError();
+            }
+        }
         return null;
     }
 
+    // the generator thread of the pipeline creates its own instance of the oracle, and thus of its generators, with the
+    // factory that created the given one, which is the only one since composite oracles cannot be pipelined
+    private <B> Reproducer<G> testDatabasePipelined(G globalState, PipelinedTestOracle<G, B> oracle) throws Exception {
+        OracleFactory<G> factory = globalState.getDbmsSpecificOptions().getTestOracleFactory().get(0);
+        Callable<PipelinedTestOracle<G, B>> generationOracle = () -> {
+            @SuppressWarnings("unchecked")
+            PipelinedTestOracle<G, B> created = (PipelinedTestOracle<G, B>) factory.create(globalState);
+            return created;
+        };
+        try (OraclePipeline<G, B> pipeline = new OraclePipeline<>(oracle, generationOracle, globalState,
+                globalState.getOptions().getPipelinedOracleQueueSize())) {
+            return testDatabase(globalState, pipeline);
+        }
+    }
+
     protected abstract void checkViewsAreValid(G globalState) throws SQLException;
 
     protected TestOracle<G> getTestOracle(G globalState) throws Exception {
@@ -108,6 +170,29 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
 
     public abstract void generateDatabase(G globalState) throws Exception;
 
+    private void loadBulkData(G globalState) throws Exception {
+        long nrRows = globalState.getOptions().getBulkRows();
+        if (nrRows > 0) {
+            generateBulkData(globalState, nrRows);
+        }
+    }
+
+    /**
+     * Loads a large number of rows into each table of the generated database, see --bulk-rows. Only called if
+     * {@link #supportsBulkData()} returns true, which subclasses that override this method must also override.
+     *
+     * @param globalState
+     *            the state of the generated database
+     * @param nrRows
+     *            the number of rows to load into each table
+     *
+     * @throws Exception
+     *             if loading the rows fails
+     */
+    protected void generateBulkData(G globalState, long nrRows) throws Exception {
+        throw new AssertionError(getDBMSName() + " supports --bulk-rows but does not generate bulk data");
+    }
+
     // QPG: entry function
     @Override
     public void generateAndTestDatabaseWithQueryPlanGuidance(G globalState) throws Exception {
@@ -116,6 +201,7 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         }
         try {
             generateDatabase(globalState);
+            loadBulkData(globalState);
             checkViewsAreValid(globalState);
             globalState.getManager().incrementCreateDatabase();
 
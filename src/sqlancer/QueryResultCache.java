@@ -0,0 +1,217 @@
+package sqlancer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Caches the results of queries while the database does not change, so that the test oracles that are run one after the
+ * other on the same database, such as those of a {@link sqlancer.common.oracle.CompositeTestOracle}, do not execute the
+ * same query again.
+ *
+ * A result is identified by its kind, such as the first column or the fingerprint of all rows, and by the query with
+ * its whitespace normalized, see {@link #normalize(String)}. The global state clears the cache whenever a statement
+ * other than a query is executed or its connection is replaced, see {@link GlobalState#getQueryResultCache()}. Queries
+ * that might change the database nevertheless, such as WITH ... INSERT, SELECT ... INTO, or SELECT nextval(...), are
+ * treated like other statements, see {@link #mightChangeDatabase(String)}. Functions with other side effects are not
+ * recognized, so the cache must not be used for DBMSs whose oracles call them. When the estimated size of the results
+ * exceeds the limit, the least recently used ones are evicted. {@link #NONE} does not store any results.
+ */
+public final class QueryResultCache {
+
+    public static final QueryResultCache NONE = new QueryResultCache(0);
+
+    // the estimated memory that an entry takes in addition to its result: the key, the query, and the map entry
+    private static final int ENTRY_OVERHEAD = 128;
+    // keywords and functions with which a statement that starts like a query can change the database
+    private static final Pattern CHANGING_KEYWORDS = Pattern
+            .compile("\\b(INSERT|UPDATE|DELETE|MERGE|INTO|NEXTVAL|SETVAL)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private static final class Key {
+
+        private final Object kind;
+        private final String query;
+
+        Key(Object kind, String query) {
+            this.kind = kind;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return kind == other.kind && query.equals(other.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(kind) * 31 + query.hashCode();
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final Object result;
+        private final long bytes;
+
+        Entry(Object result, long bytes) {
+            this.result = result;
+            this.bytes = bytes;
+        }
+
+    }
+
+    /**
+     * Creates a cache whose results may take up to a limit.
+     *
+     * @param maxBytes
+     *            the estimated size of the results, above which the least recently used ones are evicted, or 0 to
+     *            disable the cache
+     */
+    public QueryResultCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Returns the cached result of a query. Callers must not modify it, but copy it if they need to.
+     *
+     * @param kind
+     *            the kind of the result, which is compared by identity, such as a constant that reads it
+     * @param query
+     *            the query
+     *
+     * @return the result, or null if it is not cached
+     */
+    public synchronized Object get(Object kind, String query) {
+        if (!isEnabled()) {
+            return null;
+        }
+        if (mightChangeDatabase(query)) {
+            return null;
+        }
+        Entry entry = entries.get(new Key(kind, normalize(query)));
+        return entry == null ? null : entry.result;
+    }
+
+    /**
+     * Stores the result of a query, which must not be modified afterwards.
+     *
+     * @param kind
+     *            the kind of the result
+     * @param query
+     *            the query
+     * @param result
+     *            the result
+     * @param resultBytes
+     *            the estimated size of the result
+     */
+    public synchronized void put(Object kind, String query, Object result, long resultBytes) {
+        long entryBytes = resultBytes + ENTRY_OVERHEAD + 2L * query.length();
+        if (entryBytes > maxBytes || mightChangeDatabase(query)) {
+            return;
+        }
+        Entry previous = entries.put(new Key(kind, normalize(query)),
+                new Entry(Objects.requireNonNull(result), entryBytes));
+        if (previous != null) {
+            bytes -= previous.bytes;
+        }
+        bytes += entryBytes;
+        for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes && it.hasNext();) {
+            bytes -= it.next().bytes;
+            it.remove();
+        }
+    }
+
+    /**
+     * Removes all results, since a statement might have changed the database.
+     */
+    public synchronized void clear() {
+        if (!entries.isEmpty()) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Checks whether a query might change the database although it starts like one that only reads it, for example,
+     * WITH ... INSERT, SELECT ... INTO, or SELECT nextval(...). The check is conservative, since it also matches these
+     * keywords in literals and identifiers, in which case the result is merely not cached.
+     *
+     * @param query
+     *            the query
+     *
+     * @return whether the query contains a keyword or function with which it might change the database
+     */
+    public static boolean mightChangeDatabase(String query) {
+        return CHANGING_KEYWORDS.matcher(query).find();
+    }
+
+    /**
+     * Normalizes a query, so that queries that only differ in their whitespace or in a terminating semicolon share a
+     * result. Whitespace within string literals and quoted identifiers is kept.
+     *
+     * @param query
+     *            the query
+     *
+     * @return the query without leading and trailing whitespace and semicolons, in which each other sequence of
+     *         whitespace is replaced by a single space
+     */
+    static String normalize(String query) {
+        int start = 0;
+        int end = query.length();
+        while (start < end && Character.isWhitespace(query.charAt(start))) {
+            start++;
+        }
+        while (end > start && (Character.isWhitespace(query.charAt(end - 1)) || query.charAt(end - 1) == ';')) {
+            end--;
+        }
+        StringBuilder sb = null;
+        char quote = 0;
+        int i = start;
+        while (i < end) {
+            char c = query.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c) && (c != ' ' || Character.isWhitespace(query.charAt(i + 1)))) {
+                // the query needs to be copied only if it contains whitespace other than single spaces, which cannot
+                // be at its end
+                if (sb == null) {
+                    sb = new StringBuilder(end - start).append(query, start, i);
+                }
+                sb.append(' ');
+                i++;
+                while (Character.isWhitespace(query.charAt(i))) {
+                    i++;
+                }
+                continue;
+            }
+            if (quote == 0 && (c == '\'' || c == '"' || c == '`')) {
+                quote = c;
+            } else if (c == quote) {
+                quote = 0;
+            }
+            if (sb != null) {
+                sb.append(c);
+            }
+            i++;
+        }
+        return sb == null ? query.substring(start, end) : sb.toString();
+    }
+
+}
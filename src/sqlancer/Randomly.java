@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 
 public final class Randomly {
@@ -15,67 +16,131 @@ public final class Randomly {
     private static int maxStringLength = 10;
     private static boolean useCaching = true;
     private static int cacheSize = 100;
+    private static RandomNumberGenerator randomNumberGenerator = RandomNumberGenerator.JDK;
 
-    private final List<Long> cachedLongs = new ArrayList<>();
-    private final List<Integer> cachedIntegers = new ArrayList<>();
-    private final List<String> cachedStrings = new ArrayList<>();
-    private final List<Double> cachedDoubles = new ArrayList<>();
+    private final LongCache cachedLongs = new LongCache();
+    private final LongCache cachedIntegers = new LongCache();
+    private final StringCache cachedStrings = new StringCache();
+    // the bits of the doubles (see Double#doubleToLongBits), which are compared like Double#equals compares doubles
+    private final LongCache cachedDoubles = new LongCache();
     private final List<byte[]> cachedBytes = new ArrayList<>();
     private Supplier<String> provider;
 
     private static final ThreadLocal<Random> THREAD_RANDOM = new ThreadLocal<>();
     private long seed;
 
-    private void addToCache(long val) {
-        if (useCaching && cachedLongs.size() < cacheSize && !cachedLongs.contains(val)) {
-            cachedLongs.add(val);
+    private static int getHashTableSize(int capacity) {
+        // at most half of the slots are used
+        int size = 2;
+        while (size < capacity * 2) {
+            size <<= 1;
         }
+        return size;
     }
 
-    private void addToCache(int val) {
-        if (useCaching && cachedIntegers.size() < cacheSize && !cachedIntegers.contains(val)) {
-            cachedIntegers.add(val);
+    /**
+     * The distinct values added first (up to {@link Randomly#cacheSize}), in the order in which they were added.
+     * Whether a value is contained is looked up in an open-addressing hash table, so that adding a value neither boxes
+     * it nor compares it with all cached values.
+     */
+    private static final class LongCache {
+
+        private long[] values;
+        // the index + 1 of the value in values, or 0 for an empty slot
+        private int[] slots;
+        private int size;
+
+        void add(long value) {
+            if (values == null) {
+                values = new long[Math.max(cacheSize, 0)];
+                slots = new int[getHashTableSize(values.length)];
+            }
+            if (size == values.length) {
+                return;
+            }
+            int mask = slots.length - 1;
+            long hash = value * 0x9E3779B97F4A7C15L;
+            int slot = (int) (hash >>> 32) & mask;
+            while (slots[slot] != 0) {
+                if (values[slots[slot] - 1] == value) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values[size++] = value;
+            slots[slot] = size;
         }
-    }
 
-    private void addToCache(double val) {
-        if (useCaching && cachedDoubles.size() < cacheSize && !cachedDoubles.contains(val)) {
-            cachedDoubles.add(val);
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long getRandomValue() {
+            return values[getNextInt(0, size)];
         }
+
     }
 
-    private void addToCache(String val) {
-        if (useCaching && cachedStrings.size() < cacheSize && !cachedStrings.contains(val)) {
-            cachedStrings.add(val);
+    /**
+     * Like {@link LongCache}, for strings.
+     */
+    private static final class StringCache {
+
+        private String[] values;
+        private int[] slots;
+        private int size;
+
+        void add(String value) {
+            if (values == null) {
+                values = new String[Math.max(cacheSize, 0)];
+                slots = new int[getHashTableSize(values.length)];
+            }
+            if (size == values.length) {
+                return;
+            }
+            int mask = slots.length - 1;
+            int slot = (value.hashCode() * 0x9E3779B9 >>> 16) & mask;
+            while (slots[slot] != 0) {
+                if (values[slots[slot] - 1].equals(value)) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values[size++] = value;
+            slots[slot] = size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
         }
+
+        String getRandomValue() {
+            return values[getNextInt(0, size)];
+        }
+
     }
 
-    private Long getFromLongCache() {
-        if (!useCaching || cachedLongs.isEmpty()) {
-            return null;
-        } else {
-            return Randomly.fromList(cachedLongs);
+    private void addToCache(long val) {
+        if (useCaching) {
+            cachedLongs.add(val);
         }
     }
 
-    private Integer getFromIntegerCache() {
-        if (!useCaching || cachedIntegers.isEmpty()) {
-            return null;
-        } else {
-            return Randomly.fromList(cachedIntegers);
+    private void addToCache(int val) {
+        if (useCaching) {
+            cachedIntegers.add(val);
         }
     }
 
-    private Double getFromDoubleCache() {
-        if (!useCaching) {
-            return null;
+    private void addToCache(double val) {
+        if (useCaching) {
+            cachedDoubles.add(Double.doubleToLongBits(val));
         }
-        if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return (double) Randomly.fromList(cachedLongs);
-        } else if (!cachedDoubles.isEmpty()) {
-            return Randomly.fromList(cachedDoubles);
-        } else {
-            return null;
+    }
+
+    private void addToCache(String val) {
+        if (useCaching) {
+            cachedStrings.add(val);
         }
     }
 
@@ -84,14 +149,14 @@ public final class Randomly {
             return null;
         }
         if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedLongs));
+            return String.valueOf(cachedLongs.getRandomValue());
         } else if (Randomly.getBoolean() && !cachedDoubles.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedDoubles));
+            return String.valueOf(Double.longBitsToDouble(cachedDoubles.getRandomValue()));
         } else if (Randomly.getBoolean() && !cachedBytes.isEmpty()
                 && stringGenerationStrategy == StringGenerationStrategy.SOPHISTICATED) {
             return new String(Randomly.fromList(cachedBytes));
         } else if (!cachedStrings.isEmpty()) {
-            String randomString = Randomly.fromList(cachedStrings);
+            String randomString = cachedStrings.getRandomValue();
             if (Randomly.getBoolean()) {
                 return randomString;
             } else {
@@ -177,36 +242,35 @@ public final class Randomly {
 
     public static int smallNumber() {
         // no need to cache for small numbers
-        return (int) (Math.abs(getThreadRandom().get().nextGaussian())) * 2;
+        return (int) (Math.abs(getThreadRandom().nextGaussian())) * 2;
     }
 
     public static boolean getBoolean() {
-        return getThreadRandom().get().nextBoolean();
+        return getThreadRandom().nextBoolean();
     }
 
     public static double getPercentage() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
-    private static ThreadLocal<Random> getThreadRandom() {
-        if (THREAD_RANDOM.get() == null) {
+    private static Random getThreadRandom() {
+        Random random = THREAD_RANDOM.get();
+        if (random == null) {
             // a static method has been called, before Randomly was instantiated
-            THREAD_RANDOM.set(new Random());
+            random = randomNumberGenerator.create();
+            THREAD_RANDOM.set(random);
         }
-        return THREAD_RANDOM;
+        return random;
     }
 
     public long getInteger() {
         if (smallBiasProbability()) {
             return Randomly.fromOptions(-1L, Long.MAX_VALUE, Long.MIN_VALUE, 1L, 0L);
         } else {
-            if (cacheProbability()) {
-                Long l = getFromLongCache();
-                if (l != null) {
-                    return l;
-                }
+            if (cacheProbability() && !cachedLongs.isEmpty()) {
+                return cachedLongs.getRandomValue();
             }
-            long nextLong = getThreadRandom().get().nextInt();
+            long nextLong = getThreadRandom().nextInt();
             addToCache(nextLong);
             return nextLong;
         }
@@ -348,7 +412,7 @@ public final class Randomly {
     public byte[] getBytes() {
         int size = Randomly.smallNumber();
         byte[] arr = new byte[size];
-        getThreadRandom().get().nextBytes(arr);
+        getThreadRandom().nextBytes(arr);
         return arr;
     }
 
@@ -357,9 +421,9 @@ public final class Randomly {
         if (smallBiasProbability()) {
             return Randomly.fromOptions(-1L, Long.MAX_VALUE, Long.MIN_VALUE, 1L);
         }
-        if (cacheProbability()) {
-            Long l = getFromLongCache();
-            if (l != null && l != 0) {
+        if (cacheProbability() && !cachedLongs.isEmpty()) {
+            long l = cachedLongs.getRandomValue();
+            if (l != 0) {
                 return l;
             }
         }
@@ -371,9 +435,9 @@ public final class Randomly {
     }
 
     public long getPositiveInteger() {
-        if (cacheProbability()) {
-            Long value = getFromLongCache();
-            if (value != null && value >= 0) {
+        if (cacheProbability() && !cachedLongs.isEmpty()) {
+            long value = cachedLongs.getRandomValue();
+            if (value >= 0) {
                 return value;
             }
         }
@@ -389,9 +453,9 @@ public final class Randomly {
     }
 
     public int getPositiveIntegerInt() {
-        if (cacheProbability()) {
-            Integer value = getFromIntegerCache();
-            if (value != null && value >= 0) {
+        if (cacheProbability() && !cachedIntegers.isEmpty()) {
+            int value = (int) cachedIntegers.getRandomValue();
+            if (value >= 0) {
                 return value;
             }
         }
@@ -420,22 +484,23 @@ public final class Randomly {
             return Randomly.fromOptions(0.0, -0.0, Double.MAX_VALUE, -Double.MAX_VALUE, Double.POSITIVE_INFINITY,
                     Double.NEGATIVE_INFINITY);
         } else if (cacheProbability()) {
-            Double d = getFromDoubleCache();
-            if (d != null) {
-                return d;
+            if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
+                return cachedLongs.getRandomValue();
+            } else if (!cachedDoubles.isEmpty()) {
+                return Double.longBitsToDouble(cachedDoubles.getRandomValue());
             }
         }
-        double value = getThreadRandom().get().nextDouble();
+        double value = getThreadRandom().nextDouble();
         addToCache(value);
         return value;
     }
 
     private static boolean smallBiasProbability() {
-        return getThreadRandom().get().nextInt(100) == 1;
+        return getThreadRandom().nextInt(100) == 1;
     }
 
     public static boolean getBooleanWithRatherLowProbability() {
-        return getThreadRandom().get().nextInt(10) == 1;
+        return getThreadRandom().nextInt(10) == 1;
     }
 
     public static boolean getBooleanWithSmallProbability() {
@@ -469,7 +534,7 @@ public final class Randomly {
     }
 
     public BigDecimal getRandomBigDecimal() {
-        return BigDecimal.valueOf(getThreadRandom().get().nextDouble());
+        return BigDecimal.valueOf(getThreadRandom().nextDouble());
     }
 
     public long getPositiveIntegerNotNull() {
@@ -482,7 +547,7 @@ public final class Randomly {
     }
 
     public static long getNonCachedInteger() {
-        return getThreadRandom().get().nextLong();
+        return getThreadRandom().nextLong();
     }
 
     public static long getPositiveOrZeroNonCachedInteger() {
@@ -498,16 +563,16 @@ public final class Randomly {
     }
 
     public Randomly() {
-        THREAD_RANDOM.set(new Random());
+        THREAD_RANDOM.set(randomNumberGenerator.create());
     }
 
     public Randomly(long seed) {
         this.seed = seed;
-        THREAD_RANDOM.set(new Random(seed));
+        THREAD_RANDOM.set(randomNumberGenerator.create(seed));
     }
 
     public static double getUncachedDouble() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
     public String getChar() {
@@ -528,9 +593,8 @@ public final class Randomly {
         }
     }
 
-    // see https://stackoverflow.com/a/2546158
-    // uniformity does not seem to be important for us
-    // SQLancer previously used ThreadLocalRandom.current().nextLong(lower, upper)
+    // SQLancer previously used getThreadRandom().longs(lower, upper).findFirst().getAsLong(), which creates a stream
+    // for every number; this is the algorithm used by the stream, so that a seed still generates the same numbers
     private static long getNextLong(long lower, long upper) {
         if (lower > upper) {
             throw new IllegalArgumentException(lower + " " + upper);
@@ -538,7 +602,29 @@ public final class Randomly {
         if (lower == upper) {
             return lower;
         }
-        return getThreadRandom().get().longs(lower, upper).findFirst().getAsLong();
+        Random random = getThreadRandom();
+        long r = random.nextLong();
+        long n = upper - lower;
+        long m = n - 1;
+        if ((n & m) == 0L) {
+            // the range is a power of two
+            return (r & m) + lower;
+        } else if (n > 0L) {
+            // reject the values that would make the smaller numbers of the range more likely
+            long u = r >>> 1;
+            long value = u % n;
+            while (u + m - value < 0L) {
+                u = random.nextLong() >>> 1;
+                value = u % n;
+            }
+            return value + lower;
+        } else {
+            // the range is too large to be represented as a long
+            while (r < lower || r >= upper) {
+                r = random.nextLong();
+            }
+            return r;
+        }
     }
 
     private static int getNextInt(int lower, int upper) {
@@ -554,6 +640,117 @@ public final class Randomly {
         maxStringLength = options.getMaxStringConstantLength();
         useCaching = options.useConstantCaching();
         cacheSize = options.getConstantCacheSize();
+        randomNumberGenerator = options.getRandomNumberGenerator();
+    }
+
+    /**
+     * The pseudo-random number generator used by each thread. A seed (see <code>--random-seed</code>) only reproduces a
+     * run with the same generator.
+     */
+    public enum RandomNumberGenerator {
+
+        /**
+         * {@link java.util.Random}, with which seeds reproduce the runs of earlier SQLancer versions.
+         */
+        JDK {
+            @Override
+            Random create(long seed) {
+                return new Random(seed);
+            }
+        },
+        /**
+         * SplitMix64, the generator on which {@link java.util.SplittableRandom} is based, which is faster than
+         * {@link java.util.Random}, as its state is not updated atomically.
+         */
+        SPLITMIX64 {
+            @Override
+            Random create(long seed) {
+                return new SplitMix64Random(seed);
+            }
+        };
+
+        abstract Random create(long seed);
+
+        Random create() {
+            return create(ThreadLocalRandom.current().nextLong());
+        }
+
+    }
+
+    /**
+     * A {@link Random} that generates numbers with SplitMix64. It must only be used by a single thread.
+     */
+    private static final class SplitMix64Random extends Random {
+
+        private static final long serialVersionUID = 1L;
+        private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+        private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+        private long state;
+        private double nextNextGaussian;
+        private boolean haveNextNextGaussian;
+
+        SplitMix64Random(long seed) {
+            super(seed);
+        }
+
+        @Override
+        public void setSeed(long seed) {
+            // called by the constructor of Random
+            state = seed;
+            haveNextNextGaussian = false;
+        }
+
+        @Override
+        protected int next(int bits) {
+            return (int) (nextLong() >>> (64 - bits));
+        }
+
+        @Override
+        public long nextLong() {
+            state += GOLDEN_GAMMA;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        public int nextInt() {
+            return (int) (nextLong() >>> 32);
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return nextLong() < 0;
+        }
+
+        @Override
+        public double nextDouble() {
+            return (nextLong() >>> 11) * DOUBLE_UNIT;
+        }
+
+        // the polar method of Random#nextGaussian, which is synchronized
+        @Override
+        public double nextGaussian() {
+            if (haveNextNextGaussian) {
+                haveNextNextGaussian = false;
+                return nextNextGaussian;
+            }
+            double v1;
+            double v2;
+            double s;
+            do {
+                v1 = 2 * nextDouble() - 1;
+                v2 = 2 * nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+            nextNextGaussian = v2 * multiplier;
+            haveNextNextGaussian = true;
+            return v1 * multiplier;
+        }
+
     }
 
 }
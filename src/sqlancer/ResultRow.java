@@ -0,0 +1,145 @@
+package sqlancer;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * A row of a result set in the binary encoding of {@link ResultRowReader}. Since the values are canonicalized when they
+ * are encoded, two rows are equal if and only if their encodings are equal.
+ */
+public final class ResultRow implements Comparable<ResultRow> {
+
+    static final byte NULL = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte DECIMAL = 3;
+    static final byte STRING = 4;
+    static final byte BOOLEAN = 5;
+    static final byte BYTES = 6;
+
+    private final byte[] data;
+
+    ResultRow(byte[] buffer, int length) {
+        this.data = Arrays.copyOf(buffer, length);
+    }
+
+    int getEncodedLength() {
+        return data.length;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    /**
+     * Compares the encodings of the rows, which orders rows that are equal next to each other, but has no meaning
+     * beyond that.
+     */
+    @Override
+    public int compareTo(ResultRow other) {
+        return Arrays.compareUnsigned(data, other.data);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ResultRow)) {
+            return false;
+        }
+        return Arrays.equals(data, ((ResultRow) obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+
+    /**
+     * Decodes the values for error messages. A single value is returned as it is, so that the rows of a single column
+     * are shown like the strings of {@link ComparatorHelper#getResultSetFirstColumnAsString}.
+     */
+    @Override
+    public String toString() {
+        Decoder decoder = new Decoder();
+        StringJoiner joiner = new StringJoiner(", ", "(", ")");
+        int count = 0;
+        String last = null;
+        while (decoder.hasNext()) {
+            last = decoder.nextValue();
+            joiner.add(last);
+            count++;
+        }
+        return count == 1 ? last : joiner.toString();
+    }
+
+    // decodes the values of the row one after the other
+    private final class Decoder {
+
+        private int position;
+
+        boolean hasNext() {
+            return position < data.length;
+        }
+
+        String nextValue() {
+            byte tag = data[position++];
+            switch (tag) {
+            case NULL:
+                return "null";
+            case LONG:
+                return String.valueOf(nextLong());
+            case DOUBLE:
+                return String.valueOf(Double.longBitsToDouble(nextLong()));
+            case BOOLEAN:
+                return String.valueOf(data[position++] != 0);
+            case DECIMAL:
+            case STRING:
+                int length = nextLength();
+                StringBuilder sb = new StringBuilder(length);
+                for (int i = 0; i < length; i++) {
+                    byte b = data[position++];
+                    if (b >= 0) {
+                        sb.append((char) b);
+                    } else {
+                        sb.append((char) ((data[position] & 0xff) << 8 | data[position + 1] & 0xff));
+                        position += 2;
+                    }
+                }
+                return sb.toString();
+            case BYTES:
+                int size = nextLength();
+                StringBuilder hex = new StringBuilder("x'");
+                for (int i = 0; i < size; i++) {
+                    hex.append(String.format("%02x", data[position++]));
+                }
+                return hex.append('\'').toString();
+            default:
+                throw new AssertionError(tag);
+            }
+        }
+
+        private long nextLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = value << 8 | data[position++] & 0xff;
+            }
+            return value;
+        }
+
+        private int nextLength() {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                length |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return length;
+        }
+
+    }
+
+}
@@ -0,0 +1,255 @@
+package sqlancer;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+
+import sqlancer.common.query.SQLancerResultSet;
+
+/**
+ * Reads all columns of the rows of a result set into a compact binary encoding, so that whole rows, rather than only
+ * their first column, can be compared. Each value is read with the getter that fits the JDBC type of its column and is
+ * canonicalized, so that values that the oracles consider equal are encoded equally:
+ * <ul>
+ * <li>integers are encoded as 64-bit values, as are floating-point and decimal values without a fractional part, like
+ * the strings of {@link ComparatorHelper#getResultSetFirstColumnAsString}, from which trailing zeros are removed;</li>
+ * <li>-0.0 is encoded as 0, all NaNs are encoded equally, and the mantissa of other floating-point values is rounded to
+ * 40 bits, so that values that only differ by rounding errors of about 1e-12 are usually encoded equally;</li>
+ * <li>trailing zeros are removed from decimal values, and from the string representation of values of other types.</li>
+ * </ul>
+ * The encoding of a row is kept in a buffer that is reused for the next row, so that its fingerprint can be computed
+ * without allocating memory for each row.
+ */
+public final class ResultRowReader {
+
+    private static final int MANTISSA_BITS_ROUNDED = 12;
+
+    private final SQLancerResultSet result;
+    private final boolean dynamicallyTyped;
+    private final int[] types;
+    private byte[] buffer = new byte[64];
+    private int length;
+
+    /**
+     * Creates a reader for the rows of a result set.
+     *
+     * @param result
+     *            the result set, which is positioned before its first row
+     * @param dynamicallyTyped
+     *            whether the JDBC type of a column can be different for each row, as for SQLite, so that the types are
+     *            determined for each row rather than only once
+     *
+     * @throws SQLException
+     *             if the metadata of the result set cannot be read
+     */
+    public ResultRowReader(SQLancerResultSet result, boolean dynamicallyTyped) throws SQLException {
+        this.result = result;
+        this.dynamicallyTyped = dynamicallyTyped;
+        this.types = new int[result.getColumnCount()];
+        if (!dynamicallyTyped) {
+            readTypes();
+        }
+    }
+
+    /**
+     * Moves to the next row and encodes it.
+     *
+     * @return whether there is a next row
+     *
+     * @throws SQLException
+     *             if the row cannot be read
+     */
+    public boolean next() throws SQLException {
+        if (!result.next()) {
+            return false;
+        }
+        if (dynamicallyTyped) {
+            readTypes();
+        }
+        length = 0;
+        for (int i = 0; i < types.length; i++) {
+            encodeValue(i + 1, types[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the current row to a fingerprint, without copying its encoding.
+     *
+     * @param fingerprint
+     *            the fingerprint to which the row is added
+     */
+    public void addTo(ResultSetFingerprint fingerprint) {
+        fingerprint.add(buffer, length);
+    }
+
+    public ResultRow getRow() {
+        return new ResultRow(buffer, length);
+    }
+
+    private void readTypes() throws SQLException {
+        for (int i = 0; i < types.length; i++) {
+            int type = result.getColumnType(i + 1);
+            // the values of an unsigned BIGINT column might not fit into a long
+            if (type == Types.BIGINT && !result.isSigned(i + 1)) {
+                type = Types.DECIMAL;
+            }
+            types[i] = type;
+        }
+    }
+
+    private void encodeValue(int column, int type) throws SQLException {
+        // values that the driver cannot read with the getter of their type are encoded as strings
+        int start = length;
+        try {
+            switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                long longValue = result.getLong(column);
+                if (result.wasNull()) {
+                    writeByte(ResultRow.NULL);
+                } else {
+                    writeLong(ResultRow.LONG, longValue);
+                }
+                return;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                double doubleValue = result.getDouble(column);
+                if (result.wasNull()) {
+                    writeByte(ResultRow.NULL);
+                } else {
+                    writeDouble(doubleValue);
+                }
+                return;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                writeDecimal(result.getBigDecimal(column));
+                return;
+            case Types.BOOLEAN:
+                boolean booleanValue = result.getBoolean(column);
+                if (result.wasNull()) {
+                    writeByte(ResultRow.NULL);
+                } else {
+                    writeByte(ResultRow.BOOLEAN);
+                    writeByte(booleanValue ? 1 : 0);
+                }
+                return;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                writeBytes(result.getBytes(column));
+                return;
+            default:
+                break;
+            }
+        } catch (SQLException | NumberFormatException e) {
+            length = start;
+        }
+        writeString(ComparatorHelper.removeTrailingZeros(result.getString(column)));
+    }
+
+    private void writeDouble(double value) {
+        if (Double.isNaN(value)) {
+            writeLong(ResultRow.DOUBLE, Double.doubleToLongBits(Double.NaN));
+            return;
+        }
+        double rounded = value;
+        if (!Double.isInfinite(value)) {
+            // rounds half up, which carries into the exponent if all remaining bits of the mantissa are set
+            long bits = Double.doubleToRawLongBits(value) + (1L << MANTISSA_BITS_ROUNDED - 1);
+            rounded = Double.longBitsToDouble(bits & -(1L << MANTISSA_BITS_ROUNDED));
+        }
+        if (rounded == Math.rint(rounded) && Math.abs(rounded) < 0x1p63) {
+            // also turns -0.0 into 0
+            writeLong(ResultRow.LONG, (long) rounded);
+        } else {
+            writeLong(ResultRow.DOUBLE, Double.doubleToLongBits(rounded));
+        }
+    }
+
+    private void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeByte(ResultRow.NULL);
+            return;
+        }
+        BigDecimal stripped = value.signum() == 0 ? BigDecimal.ZERO : value.stripTrailingZeros();
+        if (stripped.scale() <= 0 && stripped.precision() - stripped.scale() < 19) {
+            // has at most 18 digits, and therefore fits into a long
+            writeLong(ResultRow.LONG, stripped.longValue());
+        } else {
+            writeChars(ResultRow.DECIMAL, stripped.toPlainString());
+        }
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeByte(ResultRow.NULL);
+        } else {
+            writeChars(ResultRow.STRING, value);
+        }
+    }
+
+    private void writeBytes(byte[] value) {
+        if (value == null) {
+            writeByte(ResultRow.NULL);
+            return;
+        }
+        writeByte(ResultRow.BYTES);
+        writeLength(value.length);
+        ensureCapacity(value.length);
+        System.arraycopy(value, 0, buffer, length, value.length);
+        length += value.length;
+    }
+
+    // ASCII characters take one byte, and other characters three, the first of which has its highest bit set
+    private void writeChars(byte tag, String value) {
+        writeByte(tag);
+        writeLength(value.length());
+        ensureCapacity(3 * value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer[length++] = (byte) c;
+            } else {
+                buffer[length++] = (byte) 0x80;
+                buffer[length++] = (byte) (c >>> 8);
+                buffer[length++] = (byte) c;
+            }
+        }
+    }
+
+    private void writeLong(byte tag, long value) {
+        writeByte(tag);
+        ensureCapacity(Long.BYTES);
+        for (int shift = Long.SIZE - 8; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    // seven bits per byte, the highest bit of which is set if more bytes follow
+    private void writeLength(int value) {
+        int remaining = value;
+        while (remaining >= 0x80) {
+            writeByte(remaining & 0x7f | 0x80);
+            remaining >>>= 7;
+        }
+        writeByte(remaining);
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (length + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(2 * buffer.length, length + additional));
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package sqlancer;
+
+/**
+ * An order-independent fingerprint of a multiset of values, such as the rows of a result set, which can be computed
+ * while reading the rows, so that two results can be compared without keeping them in memory.
+ *
+ * The fingerprint consists of the number of values and of the sums of two independent 64-bit hashes of the values.
+ * Since addition is commutative, the order of the values does not matter, while a value that occurs once more changes
+ * the sums, so that results that only differ in the number of duplicates are distinguished. Equal multisets always have
+ * equal fingerprints; different ones have equal fingerprints only in the case of a hash collision.
+ */
+public final class ResultSetFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long POLYNOMIAL_MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+    private long count;
+    private long firstSum;
+    private long secondSum;
+
+    /**
+     * Adds a value, such as a row in the encoding of {@link ResultRowReader}.
+     *
+     * @param value
+     *            the array that holds the value
+     * @param length
+     *            the length of the value, which starts at the beginning of the array
+     */
+    public void add(byte[] value, int length) {
+        count++;
+        long fnv = FNV_OFFSET_BASIS;
+        long polynomial = length;
+        for (int i = 0; i < length; i++) {
+            int b = value[i] & 0xff;
+            fnv = (fnv ^ b) * FNV_PRIME;
+            polynomial = polynomial * POLYNOMIAL_MULTIPLIER + b;
+        }
+        firstSum += mix(fnv);
+        secondSum += mix(polynomial);
+    }
+
+    /**
+     * Adds the values of another fingerprint, for example, of a partition of the same result.
+     *
+     * @param other
+     *            the fingerprint to add
+     */
+    public void addAll(ResultSetFingerprint other) {
+        count += other.count;
+        firstSum += other.firstSum;
+        secondSum += other.secondSum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // the finalizer of MurmurHash3, so that similar values do not cancel each other out in the sums
+    private static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ResultSetFingerprint)) {
+            return false;
+        }
+        ResultSetFingerprint other = (ResultSetFingerprint) obj;
+        return count == other.count && firstSum == other.firstSum && secondSum == other.secondSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(count) * 31 + Long.hashCode(firstSum ^ secondSum);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, hash %016x%016x", count, firstSum, secondSum);
+    }
+
+}
@@ -3,6 +3,7 @@ package sqlancer;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 
 public class SQLConnection implements SQLancerDBConnection {
@@ -11,6 +12,8 @@ public class SQLConnection implements SQLancerDBConnection {
 
     // 持有一个 Connection 对象，该对象代表与数据库的连接
     private final Connection connection;
+    // opened by SQLGlobalState.getConnectionGroup() and closed together with this connection
+    private SQLConnectionGroup group;
 
     // 构造函数
     public SQLConnection(Connection connection) {
@@ -26,9 +29,34 @@ public class SQLConnection implements SQLancerDBConnection {
 
     @Override
     public void close() throws SQLException {
+        if (group != null) {
+            try {
+                group.close();
+            } finally {
+                group = null;
+                connection.close();
+            }
+            return;
+        }
         connection.close(); // 关闭数据库连接
     }
 
+    SQLConnectionGroup getGroup() {
+        return group;
+    }
+
+    void setGroup(SQLConnectionGroup group) {
+        this.group = group;
+    }
+
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        connection.setReadOnly(readOnly);
+    }
+
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return connection.unwrap(iface);
+    }
+
     // 接下来提供了两个方法；
     // 分别用于准备一个 SQL 语句（prepareStatement）
     // 创建一个简单的 SQL 语句对象（createStatement）。
@@ -40,4 +68,32 @@ public class SQLConnection implements SQLancerDBConnection {
     public Statement createStatement() throws SQLException {
         return connection.createStatement();
     }
+
+    public boolean getAutoCommit() throws SQLException {
+        return connection.getAutoCommit();
+    }
+
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        connection.setAutoCommit(autoCommit);
+    }
+
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    public Savepoint setSavepoint() throws SQLException {
+        return connection.setSavepoint();
+    }
+
+    public void rollback(Savepoint savepoint) throws SQLException {
+        connection.rollback(savepoint);
+    }
+
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        connection.releaseSavepoint(savepoint);
+    }
 }
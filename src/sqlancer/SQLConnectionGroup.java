@@ -0,0 +1,139 @@
+package sqlancer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import sqlancer.common.metrics.PhaseProfiler;
+
+/**
+ * Additional connections to the database under test, on which the queries of a test oracle check are executed
+ * concurrently, so that a check against a remote DBMS waits for a single round trip rather than one per query. The
+ * connections are only used to execute queries, so they see the same database as the connection of the global state,
+ * see {@link SQLGlobalState#getConnectionGroup()}.
+ */
+public final class SQLConnectionGroup implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    private final List<SQLConnection> connections;
+    private final BlockingQueue<SQLConnection> idleConnections;
+    private final ExecutorService executor;
+
+    /**
+     * A unit of work that is executed on one of the connections.
+     *
+     * @param <T>
+     *            the result of the task
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T execute(SQLConnection connection) throws SQLException;
+    }
+
+    public SQLConnectionGroup(List<SQLConnection> connections) {
+        if (connections.isEmpty()) {
+            throw new IllegalArgumentException();
+        }
+        this.connections = new ArrayList<>(connections);
+        this.idleConnections = new ArrayBlockingQueue<>(connections.size(), false, connections);
+        this.executor = Executors.newFixedThreadPool(connections.size(), r -> {
+            Thread thread = new Thread(r, "sqlancer-connection-group-" + THREAD_NUMBER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int size() {
+        return connections.size();
+    }
+
+    /**
+     * Executes tasks concurrently, each on a connection that no other task uses at the same time, and waits until all
+     * of them have completed.
+     *
+     * @param <T>
+     *            the result of the tasks
+     * @param tasks
+     *            the tasks to execute
+     *
+     * @return the results of the tasks in their order
+     *
+     * @throws SQLException
+     *             the exception of the first task that failed with one, if no earlier task failed with another
+     *             exception, which is rethrown as it is if it is unchecked
+     */
+    public <T> List<T> executeAll(List<? extends Task<T>> tasks) throws SQLException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        // the phases of the tasks are attributed to the oracle that executes them, rather than to the pool threads
+        String oracle = PhaseProfiler.getOracle();
+        for (Task<T> task : tasks) {
+            futures.add(executor.submit(() -> {
+                SQLConnection connection = idleConnections.take();
+                String previousOracle = PhaseProfiler.setOracle(oracle);
+                try {
+                    return task.execute(connection);
+                } finally {
+                    PhaseProfiler.setOracle(previousOracle);
+                    idleConnections.add(connection);
+                }
+            }));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        Throwable failure = null;
+        // waits for all tasks, even if one failed, so that all connections are idle when the next tasks are executed
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                for (Future<T> f : futures) {
+                    f.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new IgnoreMeException();
+            }
+        }
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        } else if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new AssertionError(failure);
+        }
+        return results;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        executor.shutdownNow();
+        SQLException exception = null;
+        for (SQLConnection connection : connections) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+}
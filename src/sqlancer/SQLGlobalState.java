@@ -1,5 +1,10 @@
 package sqlancer;
 
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+
 import sqlancer.common.query.Query;
 import sqlancer.common.schema.AbstractSchema;
 
@@ -24,7 +29,99 @@ public abstract class SQLGlobalState<O extends DBMSSpecificOptions<?>, S extends
             getLogger().writeCurrent(" -- " + timer.end().asString());
         }
         if (q.couldAffectSchema()) {
-            updateSchema();
+            updateSchema(q, success);
+        }
+    }
+
+    /**
+     * Returns whether the statements that populate the database can be grouped into transactions, see
+     * {@link PopulationTransaction}. This requires a DBMS that supports transactions through JDBC and that either
+     * supports savepoints or rolls back the whole transaction when a statement fails.
+     *
+     * @return whether --population-transaction-size applies to the DBMS
+     */
+    public boolean supportsPopulationTransactions() {
+        return false;
+    }
+
+    /**
+     * Returns whether the values of a result column can have different types in different rows, as for SQLite, whose
+     * JDBC driver reports the type of the value in the current row, see {@link ResultRowReader}.
+     *
+     * @return whether the types of the result columns must be determined for each row
+     */
+    public boolean hasDynamicallyTypedResults() {
+        return false;
+    }
+
+    /**
+     * Returns whether the DBMS can open additional connections to the database under test, see
+     * {@link #openGroupConnection()}.
+     *
+     * @return whether --oracle-connections applies to the DBMS
+     */
+    public boolean supportsConnectionGroup() {
+        return false;
+    }
+
+    /**
+     * Opens another connection to the database under test for {@link #getConnectionGroup()}, which must see the same
+     * data as the connection of this state, and is only used to execute queries. {@link #getConnectionGroup()} marks it
+     * as read-only where the driver supports it. It is only called if {@link #supportsConnectionGroup()} returns true,
+     * in which case it must be overridden.
+     *
+     * @return the connection
+     *
+     * @throws SQLException
+     *             if the connection cannot be opened
+     */
+    protected SQLConnection openGroupConnection() throws SQLException {
+        throw new AssertionError(
+                getClass().getSimpleName() + " supports connection groups but cannot open a connection");
+    }
+
+    /**
+     * Returns the connections on which test oracles can execute their queries concurrently. They are opened when this
+     * is called for the first time for the current connection, and are closed together with it.
+     *
+     * @return the connection group, or null if --oracle-connections is 1 or the DBMS does not support it
+     *
+     * @throws SQLException
+     *             if a connection cannot be opened
+     */
+    public SQLConnectionGroup getConnectionGroup() throws SQLException {
+        int size = getOptions().getOracleConnections();
+        if (size < 2 || !supportsConnectionGroup()) {
+            return null;
+        }
+        SQLConnection connection = getConnection();
+        if (connection.getGroup() == null) {
+            List<SQLConnection> connections = new ArrayList<>(size);
+            try {
+                for (int i = 0; i < size; i++) {
+                    SQLConnection groupConnection = openGroupConnection();
+                    connections.add(groupConnection);
+                    setReadOnly(groupConnection);
+                }
+            } catch (SQLException e) {
+                for (SQLConnection opened : connections) {
+                    opened.close();
+                }
+                throw e;
+            }
+            connection.setGroup(new SQLConnectionGroup(connections));
+        }
+        return connection.getGroup();
+    }
+
+    // drivers that enforce the flag reject statements that would change the database; ClickHouse's driver ignores it,
+    // and Presto's only applies it to explicit transactions. DuckDB rejects it, and a duplicated connection cannot be
+    // opened read-only, since it shares the database of the connection of the state.
+    private static void setReadOnly(SQLConnection connection) throws SQLException {
+        try {
+            connection.setReadOnly(true);
+        } catch (SQLFeatureNotSupportedException e) {
+            // the connection is only used to execute queries, regardless of the flag
         }
     }
 }
@@ -5,11 +5,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import sqlancer.common.log.StatementJournal;
 import sqlancer.common.query.Query;
 
 public class StateToReproduce {
 
-    private List<Query<?>> statements = new ArrayList<>();
+    private StatementJournal statements;
 
     private final String databaseName;
 
@@ -26,6 +27,7 @@ public class StateToReproduce {
     public StateToReproduce(String databaseName, DatabaseProvider<?, ?, ?> databaseProvider) {
         this.databaseName = databaseName;
         this.databaseProvider = databaseProvider;
+        this.statements = new StatementJournal(databaseProvider.getLoggableFactory());
     }
 
     public String getException() {
@@ -66,6 +68,12 @@ public class StateToReproduce {
         statements.add(query);
     }
 
+    /**
+     * Returns the statements logged so far. Only the most recent statements are the logged {@link Query} objects; see
+     * {@link StatementJournal}.
+     *
+     * @return an unmodifiable view of the logged statements, which is best iterated sequentially
+     */
     public List<Query<?>> getStatements() {
         return Collections.unmodifiableList(statements);
     }
@@ -75,11 +83,11 @@ public class StateToReproduce {
      */
     @Deprecated
     public void commentStatements() {
-        for (int i = 0; i < statements.size(); i++) {
-            Query<?> statement = statements.get(i);
-            Query<?> newQuery = databaseProvider.getLoggableFactory().commentOutQuery(statement);
-            statements.set(i, newQuery);
+        List<Query<?>> commentedStatements = new ArrayList<>(statements.size());
+        for (Query<?> statement : statements) {
+            commentedStatements.add(databaseProvider.getLoggableFactory().commentOutQuery(statement));
         }
+        setStatements(commentedStatements);
     }
 
     public long getSeedValue() {
@@ -132,7 +140,8 @@ public class StateToReproduce {
     }
 
     public void setStatements(List<Query<?>> statements) {
-        this.statements = statements;
+        this.statements = new StatementJournal(databaseProvider.getLoggableFactory());
+        this.statements.addAll(statements);
     }
 
 }
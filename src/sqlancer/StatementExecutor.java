@@ -1,9 +1,11 @@
 package sqlancer;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import sqlancer.common.query.InsertBatch;
 import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
 
 public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends AbstractAction<G>> {
 
@@ -11,6 +13,10 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
     private final A[] actions;
     private final ActionMapper<G, A> mapping;
     private final AfterQueryAction queryConsumer;
+    // null unless --insert-batch-size is larger than 1
+    private final InsertBatch insertBatch;
+    // null unless --population-transaction-size is larger than 1 and the DBMS supports it
+    private final PopulationTransaction transaction;
 
     @FunctionalInterface
     public interface AfterQueryAction {
@@ -27,57 +33,125 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
         this.actions = actions.clone();
         this.mapping = mapping;
         this.queryConsumer = queryConsumer;
+        int insertBatchSize = globalState.getOptions().getInsertBatchSize();
+        this.insertBatch = insertBatchSize > 1 ? new InsertBatch(insertBatchSize) : null;
+        this.transaction = createPopulationTransaction(globalState);
+    }
+
+    private static PopulationTransaction createPopulationTransaction(GlobalState<?, ?, ?> globalState) {
+        int transactionSize = globalState.getOptions().getPopulationTransactionSize();
+        if (transactionSize <= 1 || !(globalState instanceof SQLGlobalState)) {
+            return null;
+        }
+        SQLGlobalState<?, ?> sqlGlobalState = (SQLGlobalState<?, ?>) globalState;
+        if (!sqlGlobalState.supportsPopulationTransactions()) {
+            return null;
+        }
+        return new PopulationTransaction(sqlGlobalState.getConnection(), transactionSize);
     }
 
-    @SuppressWarnings("unchecked")
     public void executeStatements() throws Exception {
         Randomly r = globalState.getRandomly();
         int[] nrRemaining = new int[actions.length];
-        List<A> availableActions = new ArrayList<>();
-        int total = 0;
         for (int i = 0; i < actions.length; i++) {
-            A action = actions[i];
-            int nrPerformed = mapping.map(globalState, action);
-            if (nrPerformed != 0) {
-                availableActions.add(action);
+            nrRemaining[i] = mapping.map(globalState, actions[i]);
+        }
+        WeightedSampler sampler = new WeightedSampler(nrRemaining);
+        // the current group is committed however the loop ends, so that the database matches the log
+        try (transaction) {
+            while (sampler.getTotal() != 0) {
+                int i = sampler.sample(r);
+                A nextAction = actions[i];
+                sampler.decrement(i);
+                @SuppressWarnings("rawtypes")
+                Query query = null;
+                List<SQLQueryAdapter> executedInserts = Collections.emptyList();
+                try {
+                    boolean success;
+                    int nrTries = 0;
+                    do {
+                        query = nextAction.getQuery(globalState);
+                        if (nrTries == 0 && insertBatch != null) {
+                            if (addToInsertBatch(query)) {
+                                query = null;
+                                break;
+                            }
+                            // the batched statements were generated first, so they are also executed first
+                            executedInserts = executeInsertBatch();
+                            if (addToInsertBatch(query)) {
+                                query = null;
+                                break;
+                            }
+                        }
+                        success = executeStatement(query);
+                    } while (nextAction.canBeRetried() && !success
+                            && nrTries++ < globalState.getOptions().getNrStatementRetryCount());
+                } catch (IgnoreMeException ignored) {
+
+                }
+                // the schema was already updated in GlobalState.executeEpilogue
+                notifyIfSchemaAffected(executedInserts);
+                if (query != null && query.couldAffectSchema()) {
+                    queryConsumer.notify(query);
+                }
             }
-            nrRemaining[i] = nrPerformed;
-            total += nrPerformed;
+            notifyIfSchemaAffected(executeInsertBatch());
         }
-        while (total != 0) {
-            A nextAction = null;
-            int selection = r.getInteger(0, total);
-            int previousRange = 0;
-            int i;
-            for (i = 0; i < nrRemaining.length; i++) {
-                if (previousRange <= selection && selection < previousRange + nrRemaining[i]) {
-                    nextAction = actions[i];
-                    break;
-                } else {
-                    previousRange += nrRemaining[i];
+    }
+
+    private boolean addToInsertBatch(Query<?> query) {
+        return query instanceof SQLQueryAdapter && insertBatch.add((SQLQueryAdapter) query);
+    }
+
+    // executes the combined INSERT, or if it fails, the original INSERTs one by one, and returns the executed
+    // statements; the original INSERTs are only retried as part of the combined statement
+    private List<SQLQueryAdapter> executeInsertBatch() throws Exception {
+        if (insertBatch == null || insertBatch.isEmpty()) {
+            return Collections.emptyList();
+        }
+        SQLQueryAdapter combined = insertBatch.size() > 1 ? insertBatch.combine() : null;
+        List<SQLQueryAdapter> inserts = insertBatch.take();
+        if (combined != null) {
+            try {
+                if (executeStatement(combined)) {
+                    return List.of(combined);
                 }
+            } catch (IgnoreMeException ignored) {
+                // the combined statement might have been executed, so the original ones must not be
+                return List.of(combined);
             }
-            assert nextAction != null;
-            assert nrRemaining[i] > 0;
-            nrRemaining[i]--;
-            @SuppressWarnings("rawtypes")
-            Query query = null;
+        }
+        for (SQLQueryAdapter insert : inserts) {
             try {
-                boolean success;
-                int nrTries = 0;
-                do {
-                    query = nextAction.getQuery(globalState);
-                    success = globalState.executeStatement(query);
-                } while (nextAction.canBeRetried() && !success
-                        && nrTries++ < globalState.getOptions().getNrStatementRetryCount());
+                executeStatement(insert);
             } catch (IgnoreMeException ignored) {
 
             }
-            if (query != null && query.couldAffectSchema()) {
-                globalState.updateSchema();
+        }
+        return inserts;
+    }
+
+    private void notifyIfSchemaAffected(List<SQLQueryAdapter> queries) throws Exception {
+        for (SQLQueryAdapter query : queries) {
+            if (query.couldAffectSchema()) {
                 queryConsumer.notify(query);
             }
-            total--;
         }
     }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private boolean executeStatement(Query query) throws Exception {
+        if (transaction == null) {
+            return globalState.executeStatement(query);
+        }
+        transaction.begin(query);
+        // if an exception is thrown, the statement might have changed the database, so it is kept like a successful one
+        boolean success = true;
+        try {
+            success = globalState.executeStatement(query);
+        } finally {
+            transaction.end(query, success);
+        }
+        return success;
+    }
 }
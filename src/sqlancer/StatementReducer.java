@@ -5,6 +5,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import sqlancer.common.metrics.ReducerStepEvent;
 import sqlancer.common.query.Query;
 
 public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpecificOptions<?>, C extends SQLancerDBConnection>
@@ -53,6 +54,7 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
             return;
         }
 
+        newGlobalState.getMetrics().recordReductionStart();
         timeOfReductionBegins = Instant.now();
         currentReduceSteps = 0;
         currentReduceTime = 0;
@@ -91,6 +93,8 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
         while (start < statements.size()) {
             // newStatements = candidate[:start] + candidate[start+subLength:]
             // in other word, remove [start, start+subLength) from candidates
+            ReducerStepEvent event = new ReducerStepEvent();
+            event.begin();
             try (C con2 = provider.createDatabase(newGlobalState)) {
                 newGlobalState.setConnection(con2);
                 List<Query<C>> candidateStatements = new ArrayList<>(statements);
@@ -107,6 +111,8 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
                 }
                 try {
                     if (reproducer.bugStillTriggers(newGlobalState)) {
+                        commitReducerStepEvent(event, newGlobalState, statements, candidateStatements, true);
+                        newGlobalState.getMetrics().recordReducerStep(statements.size() - candidateStatements.size());
                         observedChange = true;
                         statements = candidateStatements;
                         partitionNum = Math.max(partitionNum - 1, 2);
@@ -118,10 +124,13 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
                 } catch (Throwable ignoredException) {
 
                 }
+                commitReducerStepEvent(event, newGlobalState, statements, candidateStatements, false);
             } catch (Exception e) {
                 e.printStackTrace();
             }
 
+            // successful steps leave the loop through the break above
+            newGlobalState.getMetrics().recordReducerStep(0);
             currentReduceSteps++;
             Instant currentInstant = Instant.now();
 
@@ -135,6 +144,17 @@ public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpec
         return statements;
     }
 
+    private void commitReducerStepEvent(ReducerStepEvent event, G newGlobalState, List<Query<C>> statements,
+            List<Query<C>> candidateStatements, boolean bugStillTriggers) {
+        if (event.shouldCommit()) {
+            event.dbms = newGlobalState.getMetrics().getDbms();
+            event.statements = statements.size();
+            event.candidateStatements = candidateStatements.size();
+            event.bugStillTriggers = bugStillTriggers;
+            event.commit();
+        }
+    }
+
     @SuppressWarnings("unused")
     private void printQueries(List<Query<C>> statements) {
         System.out.println("===============================");
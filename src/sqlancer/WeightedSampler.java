@@ -0,0 +1,125 @@
+package sqlancer;
+
+/**
+ * Selects indexes with a probability proportional to their (non-negative) weights, which can be changed after each
+ * selection. The weights are stored in a Fenwick tree, so that both selecting an index and changing a weight take O(log
+ * n) time. For a few indexes, a linear scan over the weights is faster, so no tree is built.
+ *
+ * For the same random number, {@link #sample(Randomly)} selects the same index as a linear scan over the cumulative
+ * weights, so replacing such a scan does not change which statements are generated for a given seed.
+ */
+public final class WeightedSampler {
+
+    private static final int MAX_LINEAR_SCAN_SIZE = 16;
+
+    // tree[i] is the sum of the weights of the indexes (i - (i & -i), i], 1-based
+    private final long[] tree;
+    private final int[] weights;
+    private final int highestStep;
+    private long total;
+
+    public WeightedSampler(int... weights) {
+        this.weights = weights.clone();
+        tree = weights.length <= MAX_LINEAR_SCAN_SIZE ? null : new long[weights.length + 1];
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("negative weight " + weights[i] + " at index " + i);
+            }
+            total += weights[i];
+            if (tree != null) {
+                tree[i + 1] += weights[i];
+                int parent = i + 1 + (i + 1 & -(i + 1));
+                if (parent < tree.length) {
+                    tree[parent] += tree[i + 1];
+                }
+            }
+        }
+        highestStep = Integer.highestOneBit(Math.max(weights.length, 1));
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    public int getWeight(int index) {
+        return weights[index];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Adds a (possibly negative) amount to the weight of an index.
+     *
+     * @param index
+     *            the index whose weight is changed
+     * @param delta
+     *            the amount to add to the weight
+     */
+    public void add(int index, int delta) {
+        if (weights[index] + delta < 0) {
+            throw new IllegalArgumentException("weight of index " + index + " would become negative");
+        }
+        weights[index] += delta;
+        total += delta;
+        if (tree != null) {
+            for (int i = index + 1; i < tree.length; i += i & -i) {
+                tree[i] += delta;
+            }
+        }
+    }
+
+    public void decrement(int index) {
+        add(index, -1);
+    }
+
+    /**
+     * Returns the index whose range contains the given value, when the indexes cover consecutive ranges of the size of
+     * their weights starting at zero.
+     *
+     * @param value
+     *            a value in [0, {@link #getTotal()})
+     *
+     * @return the smallest index whose cumulative weight is larger than value
+     */
+    public int find(long value) {
+        if (value < 0 || value >= total) {
+            throw new IllegalArgumentException(value + " is not in [0, " + total + ")");
+        }
+        if (tree == null) {
+            long remaining = value;
+            int index = 0;
+            while (remaining >= weights[index]) {
+                remaining -= weights[index++];
+            }
+            return index;
+        }
+        int position = 0;
+        long remaining = value;
+        for (int step = highestStep; step != 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Selects an index with a probability proportional to its weight.
+     *
+     * @param r
+     *            the source of randomness
+     *
+     * @return the selected index
+     */
+    public int sample(Randomly r) {
+        if (total == 0) {
+            throw new IllegalStateException("all weights are zero");
+        }
+        return find(r.getLong(0, total));
+    }
+
+}
@@ -0,0 +1,48 @@
+package sqlancer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The kind of threads on which the {@link Main.DBMSExecutor} loops run.
+ */
+public enum WorkerExecutor {
+
+    /**
+     * A fixed pool of platform threads, one for each of the <code>--num-threads</code> concurrent databases.
+     */
+    PLATFORM {
+        @Override
+        public ExecutorService createExecutorService(MainOptions options) {
+            return Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+        }
+    },
+
+    /**
+     * One virtual thread per database. Workers spend most of their time blocked in JDBC calls, so virtual threads allow
+     * testing many more databases concurrently than platform threads would. How many of them run at the same time is
+     * bounded by the {@link ConcurrencyLimiter} of the DBMS.
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService createExecutorService(MainOptions options) {
+            // SQLancer targets Java 11, so the JDK 21 API can only be looked up at run time
+            Method factory;
+            try {
+                factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                throw new AssertionError("--executor VIRTUAL requires a JDK with virtual thread support (21 or later)",
+                        e);
+            }
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+        }
+    };
+
+    public abstract ExecutorService createExecutorService(MainOptions options);
+
+}
@@ -2,8 +2,11 @@ package sqlancer.clickhouse;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import com.google.auto.service.AutoService;
@@ -18,11 +21,14 @@ import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.clickhouse.ClickHouseProvider.ClickHouseGlobalState;
+import sqlancer.clickhouse.ClickHouseSchema.ClickHouseTable;
+import sqlancer.clickhouse.gen.ClickHouseBulkDataGenerator;
 import sqlancer.clickhouse.gen.ClickHouseCommon;
 import sqlancer.clickhouse.gen.ClickHouseInsertGenerator;
 import sqlancer.clickhouse.gen.ClickHouseTableGenerator;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
+import sqlancer.common.schema.SchemaChange;
 
 @AutoService(DatabaseProvider.class)
 public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState, ClickHouseOptions> {
@@ -83,6 +89,22 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
         protected ClickHouseSchema readSchema() throws SQLException {
             return ClickHouseSchema.fromConnection(getConnection(), getDatabaseName());
         }
+
+        @Override
+        public boolean supportsConnectionGroup() {
+            return true;
+        }
+
+        @Override
+        protected SQLConnection openGroupConnection() throws SQLException {
+            return connectToDatabase(this);
+        }
+
+        @Override
+        protected ClickHouseSchema applySchemaChange(ClickHouseSchema current, SchemaChange change, boolean success)
+                throws SQLException {
+            return success ? current.applyChange(getConnection(), change) : current;
+        }
     }
 
     @Override
@@ -107,15 +129,24 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
     }
 
     @Override
-    public SQLConnection createDatabase(ClickHouseGlobalState globalState) throws SQLException {
-        String host = globalState.getOptions().getHost();
-        int port = globalState.getOptions().getPort();
-        if (host == null) {
-            host = ClickHouseOptions.DEFAULT_HOST;
-        }
-        if (port == MainOptions.NO_SET_PORT) {
-            port = ClickHouseOptions.DEFAULT_PORT;
+    public boolean supportsBulkData() {
+        return true;
+    }
+
+    @Override
+    protected void generateBulkData(ClickHouseGlobalState globalState, long nrRows) throws Exception {
+        for (ClickHouseTable table : globalState.getSchema().getDatabaseTablesWithoutViews()) {
+            SQLQueryAdapter query = new ClickHouseBulkDataGenerator().getQuery(table, nrRows);
+            if (query != null) {
+                globalState.executeStatement(query);
+            }
         }
+    }
+
+    @Override
+    public SQLConnection createDatabase(ClickHouseGlobalState globalState) throws SQLException {
+        String host = getHost(globalState);
+        int port = getPort(globalState);
 
         ClickHouseOptions clickHouseOptions = globalState.getDbmsSpecificOptions();
         globalState.setClickHouseOptions(clickHouseOptions);
@@ -142,13 +173,90 @@ public class ClickHouseProvider extends SQLProviderAdapter<ClickHouseGlobalState
             e.printStackTrace();
         }
         con.close();
-        con = DriverManager.getConnection(
-                String.format("jdbc:clickhouse://%s:%d/%s?socket_timeout=300000%s", host, port, databaseName,
+        return connectToDatabase(globalState);
+    }
+
+    static SQLConnection connectToDatabase(ClickHouseGlobalState globalState) throws SQLException {
+        ClickHouseOptions clickHouseOptions = globalState.getClickHouseOptions();
+        Connection con = DriverManager.getConnection(
+                String.format("jdbc:clickhouse://%s:%d/%s?socket_timeout=300000%s", getHost(globalState),
+                        getPort(globalState), globalState.getDatabaseName(),
                         clickHouseOptions.enableAnalyzer ? "&allow_experimental_analyzer=1" : ""),
                 globalState.getOptions().getUserName(), globalState.getOptions().getPassword());
         return new SQLConnection(con);
     }
 
+    private static String getHost(ClickHouseGlobalState globalState) {
+        String host = globalState.getOptions().getHost();
+        if (host == null) {
+            host = ClickHouseOptions.DEFAULT_HOST;
+        }
+        return host;
+    }
+
+    private static int getPort(ClickHouseGlobalState globalState) {
+        int port = globalState.getOptions().getPort();
+        if (port == MainOptions.NO_SET_PORT) {
+            port = ClickHouseOptions.DEFAULT_PORT;
+        }
+        return port;
+    }
+
+    private static String getTemplateDatabaseName(ClickHouseGlobalState template) {
+        return template.getDatabaseName() + "_template";
+    }
+
+    private static void copyTables(Statement s, String fromDatabase, String toDatabase) throws SQLException {
+        List<String> tableNames = new ArrayList<>();
+        try (ResultSet rs = s.executeQuery("SHOW TABLES FROM " + fromDatabase)) {
+            while (rs.next()) {
+                tableNames.add(rs.getString(1));
+            }
+        }
+        for (String tableName : tableNames) {
+            s.execute(String.format("CREATE TABLE %s.%s AS %s.%s", toDatabase, tableName, fromDatabase, tableName));
+            s.execute(String.format("INSERT INTO %s.%s SELECT * FROM %s.%s", toDatabase, tableName, fromDatabase,
+                    tableName));
+        }
+    }
+
+    @Override
+    public boolean saveTemplate(ClickHouseGlobalState globalState) throws SQLException {
+        if (!globalState.getSchema().getViews().isEmpty()) {
+            // views would have to be rewritten to refer to the tables of the clone
+            return false;
+        }
+        String templateDatabaseName = getTemplateDatabaseName(globalState);
+        try (Statement s = globalState.getConnection().createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + templateDatabaseName);
+            s.execute("CREATE DATABASE " + templateDatabaseName);
+            copyTables(s, globalState.getDatabaseName(), templateDatabaseName);
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection cloneDatabase(ClickHouseGlobalState template, ClickHouseGlobalState globalState)
+            throws SQLException {
+        SQLConnection con = createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            copyTables(s, getTemplateDatabaseName(template), globalState.getDatabaseName());
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public void dropTemplate(ClickHouseGlobalState template) throws SQLException {
+        String url = String.format("jdbc:clickhouse://%s:%d/%s", getHost(template), getPort(template), "default");
+        try (Connection con = DriverManager.getConnection(url, template.getOptions().getUserName(),
+                template.getOptions().getPassword()); Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + getTemplateDatabaseName(template));
+        }
+    }
+
     @Override
     public String getDBMSName() {
         return "clickhouse";
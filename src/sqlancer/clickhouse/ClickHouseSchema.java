@@ -22,6 +22,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.SchemaChange;
 import sqlancer.common.schema.TableIndex;
 
 public class ClickHouseSchema extends AbstractSchema<ClickHouseGlobalState, ClickHouseTable> {
@@ -214,19 +215,51 @@ public class ClickHouseSchema extends AbstractSchema<ClickHouseGlobalState, Clic
         List<ClickHouseTable> databaseTables = new ArrayList<>();
         List<String> tableNames = getTableNames(con);
         for (String tableName : tableNames) {
-            List<ClickHouseColumn> databaseColumns = getTableColumns(con, tableName);
-            List<TableIndex> indexes = Collections.emptyList();
-            boolean isView = tableName.startsWith("v");
-            ClickHouseTable t = new ClickHouseTable(tableName, databaseColumns, indexes, isView);
-            for (ClickHouseColumn c : databaseColumns) {
-                c.setTable(t);
-            }
-            databaseTables.add(t);
-
+            databaseTables.add(readTable(con, tableName));
         }
         return new ClickHouseSchema(databaseTables);
     }
 
+    /**
+     * Applies the change of a successfully executed statement to this schema, and only reads a created table from the
+     * database.
+     *
+     * @param con
+     *            the connection used to read a created table
+     * @param change
+     *            the change of the statement
+     *
+     * @return the updated schema, this schema if the statement did not change it, or null if the whole schema must be
+     *         read again
+     *
+     * @throws SQLException
+     *             if reading the created table fails
+     */
+    public ClickHouseSchema applyChange(SQLConnection con, SchemaChange change) throws SQLException {
+        switch (change.getKind()) {
+        case NONE:
+            return this;
+        case CREATE_TABLE:
+            List<ClickHouseTable> databaseTables = new ArrayList<>(getDatabaseTables());
+            databaseTables.removeIf(t -> t.getName().equals(change.getName()));
+            databaseTables.add(readTable(con, change.getName()));
+            return new ClickHouseSchema(databaseTables);
+        default:
+            return null;
+        }
+    }
+
+    private static ClickHouseTable readTable(SQLConnection con, String tableName) throws SQLException {
+        List<ClickHouseColumn> databaseColumns = getTableColumns(con, tableName);
+        List<TableIndex> indexes = Collections.emptyList();
+        boolean isView = tableName.startsWith("v");
+        ClickHouseTable t = new ClickHouseTable(tableName, databaseColumns, indexes, isView);
+        for (ClickHouseColumn c : databaseColumns) {
+            c.setTable(t);
+        }
+        return t;
+    }
+
     private static List<String> getTableNames(SQLConnection con) throws SQLException {
         List<String> tableNames = new ArrayList<>();
         try (Statement s = con.createStatement()) {
@@ -0,0 +1,67 @@
+package sqlancer.clickhouse.gen;
+
+import sqlancer.clickhouse.ClickHouseErrors;
+import sqlancer.clickhouse.ClickHouseSchema.ClickHouseColumn;
+import sqlancer.clickhouse.ClickHouseSchema.ClickHouseTable;
+import sqlancer.common.gen.AbstractBulkDataGenerator;
+
+/**
+ * Loads many rows into a table with an INSERT that selects from the <code>numbers()</code> table function. ClickHouse
+ * splits the rows into blocks of <code>max_insert_block_size</code> rows, so a large load creates several parts that
+ * are merged in the background.
+ */
+public class ClickHouseBulkDataGenerator extends AbstractBulkDataGenerator<ClickHouseTable, ClickHouseColumn> {
+
+    public ClickHouseBulkDataGenerator() {
+        ClickHouseErrors.addExpectedExpressionErrors(errors);
+        errors.add("Memory limit");
+        errors.add("Cannot parse");
+        errors.add("Cannot convert");
+    }
+
+    @Override
+    protected String getInsertPrefix(ClickHouseTable table) {
+        return "INSERT";
+    }
+
+    @Override
+    protected String getRowSource(long nrRows) {
+        return "numbers(" + nrRows + ")";
+    }
+
+    @Override
+    protected String getRowNumber() {
+        return "number";
+    }
+
+    @Override
+    protected String hash(long salt) {
+        return "toInt64(cityHash64(number, " + salt + ") % " + HASH_MODULUS + ")";
+    }
+
+    @Override
+    protected String toValue(ClickHouseColumn column, String number) {
+        String type = column.getType().toString();
+        if (type.contains("String")) {
+            return "toString(" + number + ")";
+        }
+        // integer conversions wrap around rather than fail
+        return "CAST(" + number + " AS " + type + ")";
+    }
+
+    @Override
+    protected boolean canInsertInto(ClickHouseColumn column) {
+        return !column.isAlias() && !column.isMaterialized();
+    }
+
+    @Override
+    protected boolean canBeNull(ClickHouseColumn column) {
+        return column.getType().toString().startsWith("Nullable(");
+    }
+
+    @Override
+    protected boolean mustBeUnique(ClickHouseColumn column) {
+        return false;
+    }
+
+}
@@ -35,11 +35,6 @@ public final class CnosDBToStringVisitor extends ToStringVisitor<CnosDBExpressio
         sb.append(constant.getTextRepresentation());
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(CnosDBPostfixOperation op) {
         sb.append("(");
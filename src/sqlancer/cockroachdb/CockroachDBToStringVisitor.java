@@ -29,10 +29,6 @@ public class CockroachDBToStringVisitor extends ToStringVisitor<CockroachDBExpre
         sb.append(c.toString());
     }
 
-    public String getString() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(CockroachDBColumnReference c) {
         if (c.getColumn().getTable() == null) {
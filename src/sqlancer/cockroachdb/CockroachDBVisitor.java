@@ -68,7 +68,7 @@ public interface CockroachDBVisitor {
     static String asString(CockroachDBExpression expr) {
         CockroachDBToStringVisitor v = new CockroachDBToStringVisitor();
         v.visit(expr);
-        return v.getString();
+        return v.get();
     }
 
 }
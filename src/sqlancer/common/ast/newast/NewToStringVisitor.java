@@ -2,9 +2,12 @@ package sqlancer.common.ast.newast;
 
 import java.util.List;
 
+import sqlancer.common.visitor.RenderBuffers;
+
 public abstract class NewToStringVisitor<E> {
 
-    protected final StringBuilder sb = new StringBuilder();
+    protected final StringBuilder sb = RenderBuffers.acquire();
+    private String result;
 
     @SuppressWarnings("unchecked")
     public void visit(E expr) {
@@ -161,8 +164,18 @@ public abstract class NewToStringVisitor<E> {
         sb.append(")");
     }
 
+    /**
+     * Returns the rendered string. The visitor must not be used to render further nodes afterwards, since its buffer is
+     * reused by other visitors.
+     *
+     * @return the rendered string
+     */
     public String get() {
-        return sb.toString();
+        if (result == null) {
+            result = sb.toString();
+            RenderBuffers.release(sb);
+        }
+        return result;
     }
 
     public abstract void visitSpecific(E expr);
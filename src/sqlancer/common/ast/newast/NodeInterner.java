@@ -0,0 +1,167 @@
+package sqlancer.common.ast.newast;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import sqlancer.common.ast.BinaryOperatorNode.Operator;
+
+/**
+ * Hash-conses the column references and operator nodes that an expression generator creates, so that structurally equal
+ * subexpressions are represented by a single node. The generated expressions then form a DAG rather than trees.
+ *
+ * A node is identified by its factory, its column or operator, and the identities of its children. Since the children
+ * are interned themselves, two interned nodes are structurally equal if and only if they are the same object, and
+ * looking up a node takes constant time regardless of the size of its subtree. The factory is part of the key, so
+ * callers should keep it in a constant, such as {@code private static final BinaryNodeFactory<...> BINARY =
+ * DuckDBBinaryOperator::new}, rather than creating it at each call.
+ *
+ * Nodes must not be modified after they have been interned, since they may be shared between several expressions.
+ * {@link #NONE} does not intern, but only calls the factories, so that generators can call the interner
+ * unconditionally.
+ */
+public final class NodeInterner {
+
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+    public static final NodeInterner NONE = new NodeInterner(0);
+
+    private final Map<Key, Object> nodes = new HashMap<>();
+    private final int maxSize;
+    // reused for lookups, so that finding an interned node does not allocate
+    private final Key probe = new Key();
+    private long nrHits;
+
+    @FunctionalInterface
+    public interface UnaryNodeFactory<E, N> {
+        N create(E expr, Operator op);
+    }
+
+    @FunctionalInterface
+    public interface BinaryNodeFactory<E, N> {
+        N create(E left, E right, Operator op);
+    }
+
+    private static final class Key {
+
+        private Object factory;
+        private Object attribute;
+        private Object first;
+        private Object second;
+        private int hash;
+
+        Key set(Object factory, Object attribute, Object first, Object second) {
+            this.factory = factory;
+            this.attribute = attribute;
+            this.first = first;
+            this.second = second;
+            int h = System.identityHashCode(factory);
+            h = 31 * h + System.identityHashCode(attribute);
+            h = 31 * h + System.identityHashCode(first);
+            hash = 31 * h + System.identityHashCode(second);
+            return this;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return factory == other.factory && attribute == other.attribute && first == other.first
+                    && second == other.second;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    /**
+     * Creates an interner that holds up to the given number of nodes, and that is cleared when it is full.
+     *
+     * @param maxSize
+     *            the maximum number of interned nodes, or 0 to not intern at all
+     */
+    public NodeInterner(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException(String.valueOf(maxSize));
+        }
+        this.maxSize = maxSize;
+    }
+
+    public <C, N> N columnReference(C column, Function<C, N> factory) {
+        if (maxSize == 0) {
+            return factory.apply(column);
+        }
+        @SuppressWarnings("unchecked")
+        N node = (N) nodes.get(probe.set(factory, column, null, null));
+        if (node == null) {
+            node = factory.apply(column);
+            put(node);
+        } else {
+            nrHits++;
+        }
+        return node;
+    }
+
+    public <E, N> N unary(E expr, Operator op, UnaryNodeFactory<E, N> factory) {
+        if (maxSize == 0) {
+            return factory.create(expr, op);
+        }
+        @SuppressWarnings("unchecked")
+        N node = (N) nodes.get(probe.set(factory, op, expr, null));
+        if (node == null) {
+            node = factory.create(expr, op);
+            put(node);
+        } else {
+            nrHits++;
+        }
+        return node;
+    }
+
+    public <E, N> N binary(E left, E right, Operator op, BinaryNodeFactory<E, N> factory) {
+        if (maxSize == 0) {
+            return factory.create(left, right, op);
+        }
+        @SuppressWarnings("unchecked")
+        N node = (N) nodes.get(probe.set(factory, op, left, right));
+        if (node == null) {
+            node = factory.create(left, right, op);
+            put(node);
+        } else {
+            nrHits++;
+        }
+        return node;
+    }
+
+    private void put(Object node) {
+        if (nodes.size() == maxSize) {
+            nodes.clear();
+        }
+        nodes.put(new Key().set(probe.factory, probe.attribute, probe.first, probe.second), node);
+    }
+
+    /**
+     * Forgets all interned nodes, for example, after the schema has changed, so that the nodes do not keep columns that
+     * no longer exist alive.
+     */
+    public void clear() {
+        nodes.clear();
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns how many nodes were returned from the interner rather than created.
+     *
+     * @return the number of reused nodes
+     */
+    public long getNrHits() {
+        return nrHits;
+    }
+
+}
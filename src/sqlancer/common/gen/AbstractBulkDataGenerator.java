@@ -0,0 +1,161 @@
+package sqlancer.common.gen;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import sqlancer.Randomly;
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.schema.AbstractTable;
+import sqlancer.common.schema.AbstractTableColumn;
+
+/**
+ * Generates a single <code>INSERT ... SELECT</code> statement that loads a large number of rows into a table, so that
+ * the oracles can be run on realistic table sizes. The rows are computed by the DBMS from a row number source, such as
+ * a <code>numbers()</code> or <code>range()</code> table function, so that no data is transferred to the DBMS and the
+ * statement can be logged and reproduced like any other.
+ *
+ * Each column draws its values from a pseudo-random distribution that is chosen when the statement is generated: a
+ * domain of distinct values, which is small for some columns so that joins and groups match many rows, a percentage of
+ * NULL values, and a salt for the hash function that spreads the row numbers over the domain. Columns that must be
+ * unique get the row number instead. Since only the distributions are random, the same seed generates the same
+ * statement and thus the same data.
+ *
+ * @param <T>
+ *            the table type
+ * @param <C>
+ *            the column type
+ */
+public abstract class AbstractBulkDataGenerator<T extends AbstractTable<C, ?, ?>, C extends AbstractTableColumn<?, ?>> {
+
+    // a prime larger than the number of rows, by which the DBMS-specific hash is reduced to keep the arithmetic small
+    protected static final long HASH_MODULUS = 4_294_967_291L;
+
+    protected final ExpectedErrors errors = new ExpectedErrors();
+
+    /**
+     * Returns the statement that inserts the rows into the table.
+     *
+     * @param table
+     *            the table to insert into
+     * @param nrRows
+     *            the number of rows to insert
+     *
+     * @return the statement, or null if the table has no columns into which values can be inserted
+     */
+    public SQLQueryAdapter getQuery(T table, long nrRows) {
+        List<C> columns = table.getColumns().stream().filter(this::canInsertInto).collect(Collectors.toList());
+        if (columns.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(getInsertPrefix(table));
+        sb.append(" INTO ");
+        sb.append(table.getName());
+        sb.append("(");
+        sb.append(columns.stream().map(AbstractTableColumn::getName).collect(Collectors.joining(", ")));
+        sb.append(") SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            appendValue(sb, columns.get(i), nrRows);
+        }
+        sb.append(" FROM ");
+        sb.append(getRowSource(nrRows));
+        return new SQLQueryAdapter(sb.toString(), errors, true);
+    }
+
+    private void appendValue(StringBuilder sb, C column, long nrRows) {
+        String number;
+        if (mustBeUnique(column)) {
+            number = getRowNumber();
+        } else {
+            long domainSize = Math.min(Randomly.fromOptions(2L, 10L, 100L, 10_000L, nrRows), getMaxDomainSize(column));
+            number = "(" + hash(Randomly.getNotCachedInteger(0, Integer.MAX_VALUE)) + " % " + domainSize + " - "
+                    + domainSize / 2 + ")";
+        }
+        String value = toValue(column, number);
+        int nullPercentage = canBeNull(column) ? Randomly.fromOptions(0, 0, 1, 10, 50) : 0;
+        if (nullPercentage == 0) {
+            sb.append(value);
+        } else {
+            sb.append("CASE WHEN ");
+            sb.append(hash(Randomly.getNotCachedInteger(0, Integer.MAX_VALUE)));
+            sb.append(" % 100 < ");
+            sb.append(nullPercentage);
+            sb.append(" THEN NULL ELSE ");
+            sb.append(value);
+            sb.append(" END");
+        }
+    }
+
+    /**
+     * Returns the beginning of the statement up to the table name, for example, <code>INSERT OR IGNORE</code>.
+     *
+     * @param table
+     *            the table to insert into
+     *
+     * @return the beginning of the statement
+     */
+    protected abstract String getInsertPrefix(T table);
+
+    /**
+     * Returns the FROM clause that yields one row per row number.
+     *
+     * @param nrRows
+     *            the number of rows to insert
+     *
+     * @return the row source
+     */
+    protected abstract String getRowSource(long nrRows);
+
+    /**
+     * Returns the name of the row number in the {@link #getRowSource(long) row source}, which counts from zero.
+     *
+     * @return the row number expression
+     */
+    protected abstract String getRowNumber();
+
+    /**
+     * Returns an expression that maps the row number to a pseudo-random integer in [0, {@link #HASH_MODULUS}).
+     *
+     * @param salt
+     *            a number that selects one of several independent hash functions
+     *
+     * @return the hash expression
+     */
+    protected abstract String hash(long salt);
+
+    /**
+     * Converts an integer expression, which can be negative, to a value of the column's type.
+     *
+     * @param column
+     *            the column
+     * @param number
+     *            the integer expression
+     *
+     * @return the value expression
+     */
+    protected abstract String toValue(C column, String number);
+
+    protected abstract boolean canInsertInto(C column);
+
+    protected abstract boolean canBeNull(C column);
+
+    protected abstract boolean mustBeUnique(C column);
+
+    /**
+     * Returns the number of distinct values that the column can hold around zero, which limits the domain of the
+     * generated values so that they do not overflow.
+     *
+     * @param column
+     *            the column
+     *
+     * @return the maximum domain size
+     */
+    protected long getMaxDomainSize(C column) {
+        return Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,201 @@
+package sqlancer.common.log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A log file writer that moves the file I/O off the thread that logs. {@link #write(String)} only stores the record in
+ * a lock-free single-producer ring buffer. A background thread drains the ring buffers of all open writers in batches,
+ * so that many small records become a few large sequential writes, and periodically forces the written data to the
+ * disk.
+ *
+ * Consequently, {@link #flush()} does not wait for the data to be written. To write all records deterministically, for
+ * example, before reporting a bug, call {@link #sync()} or {@link #close()}. Records that are still buffered when the
+ * JVM exits are written by a shutdown hook.
+ *
+ * A writer must only be written to by one thread at a time, which is the case for the logs of a database.
+ */
+public final class AsyncLogWriter extends Writer {
+
+    static final int CAPACITY = 1 << 12;
+    private static final int MASK = CAPACITY - 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Set<AsyncLogWriter> OPEN_WRITERS = ConcurrentHashMap.newKeySet();
+    private static final Thread BACKGROUND_WRITER = createBackgroundWriter();
+
+    private final String[] records = new String[CAPACITY];
+    // the next record to be written to the file, only advanced by the thread that holds the lock of this writer
+    private final AtomicLong head = new AtomicLong();
+    // the next free slot, only advanced by the producer
+    private final AtomicLong tail = new AtomicLong();
+    private final FileOutputStream stream;
+    private final FileChannel channel;
+    private final Writer out;
+    private boolean unforcedWrites;
+    private long lastForceNanos = System.nanoTime();
+    private volatile boolean closed;
+
+    /**
+     * Opens a log file.
+     *
+     * @param file
+     *            the file to write to
+     * @param append
+     *            whether to append to, rather than overwrite, an existing file
+     *
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public AsyncLogWriter(File file, boolean append) throws IOException {
+        stream = new FileOutputStream(file, append);
+        channel = stream.getChannel();
+        out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        OPEN_WRITERS.add(this);
+    }
+
+    private static Thread createBackgroundWriter() {
+        Thread thread = new Thread(AsyncLogWriter::writeInBackground, "async-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (AsyncLogWriter writer : OPEN_WRITERS) {
+                try {
+                    writer.sync();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
+        return thread;
+    }
+
+    private static void writeInBackground() {
+        while (true) {
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+            long now = System.nanoTime();
+            for (AsyncLogWriter writer : OPEN_WRITERS) {
+                try {
+                    writer.drain(now);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void write(String str) {
+        if (closed) {
+            throw new IllegalStateException("the log writer was closed");
+        }
+        long t = tail.get();
+        while (t - head.get() == CAPACITY) {
+            // the background writer fell behind; wait for it rather than losing records
+            LockSupport.unpark(BACKGROUND_WRITER);
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS / 100);
+        }
+        records[(int) (t & MASK)] = str;
+        tail.lazySet(t + 1);
+        if (t - head.get() == CAPACITY / 2) {
+            LockSupport.unpark(BACKGROUND_WRITER);
+        }
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        write(new String(cbuf, off, len));
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        write(str.substring(off, off + len));
+    }
+
+    /**
+     * Hands the buffered records over to the background writer without waiting for them to be written.
+     */
+    @Override
+    public void flush() {
+        if (tail.get() != head.get()) {
+            LockSupport.unpark(BACKGROUND_WRITER);
+        }
+    }
+
+    /**
+     * Writes all records written so far to the file, that is, passes them to the operating system, on the calling
+     * thread.
+     *
+     * @throws IOException
+     *             if writing to the file fails
+     */
+    public synchronized void sync() throws IOException {
+        if (channel.isOpen()) {
+            writeRecords();
+        }
+    }
+
+    private synchronized void drain(long now) throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        writeRecords();
+        if (unforcedWrites && now - lastForceNanos >= FORCE_INTERVAL_NANOS) {
+            channel.force(false);
+            unforcedWrites = false;
+            lastForceNanos = now;
+        }
+    }
+
+    private void writeRecords() throws IOException {
+        long h = head.get();
+        long t = tail.get();
+        if (h == t) {
+            return;
+        }
+        for (long i = h; i < t; i++) {
+            int index = (int) (i & MASK);
+            out.write(records[index]);
+            records[index] = null;
+            head.lazySet(i + 1);
+        }
+        out.flush();
+        unforcedWrites = true;
+    }
+
+    /**
+     * Writes all records, forces them to the disk, and closes the file.
+     *
+     * @throws IOException
+     *             if writing to or closing the file fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        OPEN_WRITERS.remove(this);
+        try {
+            writeRecords();
+            channel.force(false);
+        } finally {
+            out.close();
+            stream.close();
+        }
+    }
+
+}
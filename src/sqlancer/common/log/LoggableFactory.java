@@ -20,6 +20,20 @@ public abstract class LoggableFactory {
 
     public abstract Query<?> getQueryForStateToReproduce(String queryString);
 
+    /**
+     * Re-creates a statement of which only the query string was kept, for example, by a {@link StatementJournal}.
+     *
+     * @param queryString
+     *            the query string of the statement
+     * @param couldAffectSchema
+     *            whether the original statement could affect the schema
+     *
+     * @return a statement with the given query string
+     */
+    public Query<?> getQueryForStateToReproduce(String queryString, boolean couldAffectSchema) {
+        return getQueryForStateToReproduce(queryString);
+    }
+
     @Deprecated
     public abstract Query<?> commentOutQuery(Query<?> query);
 
@@ -27,6 +27,11 @@ public class SQLLoggableFactory extends LoggableFactory {
         return new SQLQueryAdapter(queryString);
     }
 
+    @Override
+    public SQLQueryAdapter getQueryForStateToReproduce(String queryString, boolean couldAffectSchema) {
+        return new SQLQueryAdapter(queryString, couldAffectSchema);
+    }
+
     @Override
     public SQLQueryAdapter commentOutQuery(Query<?> query) {
         String queryString = query.getLogString();
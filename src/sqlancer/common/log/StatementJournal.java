@@ -0,0 +1,263 @@
+package sqlancer.common.log;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import sqlancer.common.query.Query;
+
+/**
+ * An append-only list of the statements executed on a database, whose memory usage does not grow with the number of
+ * statements.
+ *
+ * Only the last (up to {@link #DEFAULT_SEGMENT_SIZE}) statements are kept as {@link Query} objects. Older statements
+ * are stored in segments, in which each distinct statement string is stored once, and which are compressed. When the
+ * compressed segments exceed {@link #DEFAULT_MAX_BYTES_IN_MEMORY}, the oldest ones are moved to a temporary file, which
+ * is deleted when the journal is garbage collected or the JVM exits.
+ *
+ * Reading a statement from a segment re-creates it by
+ * {@link LoggableFactory#getQueryForStateToReproduce(String, boolean)}, so it has the same query string and schema
+ * flag, but not the expected errors of the original statement. Iterating over the journal reads each segment once.
+ */
+public final class StatementJournal extends AbstractList<Query<?>> implements RandomAccess {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 1024;
+    public static final int DEFAULT_MAX_BYTES_IN_MEMORY = 1 << 20;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final LoggableFactory loggableFactory;
+    private final int segmentSize;
+    private final int maxBytesInMemory;
+    private final List<Segment> segments = new ArrayList<>();
+    private List<Query<?>> openSegment;
+    private int bytesInMemory;
+    // the index of the first segment that is still in memory
+    private int firstSegmentInMemory;
+    private SpillFile spillFile;
+    private int decodedSegmentIndex = -1;
+    private List<Query<?>> decodedSegment;
+
+    private static final class Segment {
+
+        private byte[] data;
+        private long offset;
+        private final int length;
+
+        Segment(List<Query<?>> statements) {
+            this.data = encode(statements);
+            this.length = data.length;
+        }
+
+    }
+
+    /**
+     * A temporary file to which segments are appended. It is a separate object, so that it can be closed, and thereby
+     * deleted, when the journal becomes unreachable.
+     */
+    private static final class SpillFile implements Runnable {
+
+        private final FileChannel channel;
+        private long size;
+
+        SpillFile() throws IOException {
+            channel = FileChannel.open(Files.createTempFile("sqlancer-statements", ".bin"), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        long append(byte[] data) throws IOException {
+            long offset = size;
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                size += channel.write(buffer, size);
+            }
+            return offset;
+        }
+
+        byte[] read(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("unexpected end of " + channel);
+                }
+            }
+            return buffer.array();
+        }
+
+        @Override
+        public void run() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+    }
+
+    public StatementJournal(LoggableFactory loggableFactory) {
+        this(loggableFactory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_BYTES_IN_MEMORY);
+    }
+
+    StatementJournal(LoggableFactory loggableFactory, int segmentSize, int maxBytesInMemory) {
+        this.loggableFactory = loggableFactory;
+        this.segmentSize = segmentSize;
+        this.maxBytesInMemory = maxBytesInMemory;
+        this.openSegment = new ArrayList<>(segmentSize);
+    }
+
+    @Override
+    public boolean add(Query<?> query) {
+        if (query == null) {
+            throw new IllegalArgumentException();
+        }
+        openSegment.add(query);
+        modCount++;
+        if (openSegment.size() == segmentSize) {
+            closeSegment();
+        }
+        return true;
+    }
+
+    @Override
+    public Query<?> get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index + " of " + size());
+        }
+        int segmentIndex = index / segmentSize;
+        if (segmentIndex == segments.size()) {
+            return openSegment.get(index % segmentSize);
+        }
+        if (segmentIndex != decodedSegmentIndex) {
+            decodedSegment = decode(read(segments.get(segmentIndex)));
+            decodedSegmentIndex = segmentIndex;
+        }
+        return decodedSegment.get(index % segmentSize);
+    }
+
+    @Override
+    public int size() {
+        return segments.size() * segmentSize + openSegment.size();
+    }
+
+    /**
+     * Returns the number of bytes of the compressed segments that are in memory, which does not include the statements
+     * of the open segment.
+     *
+     * @return the size of the compressed segments in memory
+     */
+    int getBytesInMemory() {
+        return bytesInMemory;
+    }
+
+    private void closeSegment() {
+        Segment segment = new Segment(openSegment);
+        segments.add(segment);
+        bytesInMemory += segment.length;
+        openSegment = new ArrayList<>(segmentSize);
+        try {
+            while (bytesInMemory > maxBytesInMemory) {
+                spill(segments.get(firstSegmentInMemory++));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void spill(Segment segment) throws IOException {
+        if (spillFile == null) {
+            spillFile = new SpillFile();
+            CLEANER.register(this, spillFile);
+        }
+        segment.offset = spillFile.append(segment.data);
+        segment.data = null;
+        bytesInMemory -= segment.length;
+    }
+
+    private byte[] read(Segment segment) {
+        if (segment.data != null) {
+            return segment.data;
+        }
+        try {
+            return spillFile.read(segment.offset, segment.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] encode(List<Query<?>> statements) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] stringIds = new int[statements.size()];
+        for (int i = 0; i < statements.size(); i++) {
+            String queryString = statements.get(i).getQueryString();
+            Integer id = ids.get(queryString);
+            if (id == null) {
+                id = strings.size();
+                ids.put(queryString, id);
+                strings.add(queryString);
+            }
+            stringIds[i] = id;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf8.length);
+                out.write(utf8);
+            }
+            out.writeInt(statements.size());
+            for (int i = 0; i < statements.size(); i++) {
+                out.writeInt(stringIds[i]);
+                out.writeBoolean(statements.get(i).couldAffectSchema());
+            }
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<Query<?>> decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            String[] strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[in.readInt()];
+                in.readFully(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+            int nrStatements = in.readInt();
+            List<Query<?>> statements = new ArrayList<>(nrStatements);
+            for (int i = 0; i < nrStatements; i++) {
+                String queryString = strings[in.readInt()];
+                boolean couldAffectSchema = in.readBoolean();
+                statements.add(loggableFactory.getQueryForStateToReproduce(queryString, couldAffectSchema));
+            }
+            return statements;
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+}
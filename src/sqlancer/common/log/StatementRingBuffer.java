@@ -0,0 +1,79 @@
+package sqlancer.common.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last statements executed on a database in memory, so that they can be written to a log file only when
+ * something goes wrong. Adding a statement neither allocates nor performs I/O.
+ *
+ * The statements are added by a single worker thread, but can be read by any thread, for example, to log the statements
+ * of a worker that hangs when the run times out.
+ */
+public final class StatementRingBuffer {
+
+    private final AtomicReferenceArray<String> statements;
+    // the number of the statement in each slot, or -1 while the slot is being replaced
+    private final AtomicLongArray statementNumbers;
+    private final AtomicLong nrStatements = new AtomicLong();
+
+    public StatementRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(String.valueOf(capacity));
+        }
+        statements = new AtomicReferenceArray<>(capacity);
+        statementNumbers = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Adds a statement, replacing the oldest statement if the buffer is full. Must only be called by a single thread.
+     *
+     * @param statement
+     *            the statement to add
+     */
+    public void add(String statement) {
+        long n = nrStatements.get();
+        int slot = (int) (n % statements.length());
+        statementNumbers.lazySet(slot, -1);
+        statements.lazySet(slot, statement);
+        statementNumbers.lazySet(slot, n);
+        nrStatements.lazySet(n + 1);
+    }
+
+    /**
+     * Returns the number of statements added so far, including the ones that were replaced.
+     *
+     * @return the number of added statements
+     */
+    public long getNrStatements() {
+        return nrStatements.get();
+    }
+
+    /**
+     * Returns the statements in the buffer, oldest first. Statements that the worker replaces while they are copied are
+     * omitted.
+     *
+     * @return the statements that were added last
+     */
+    public List<String> getStatements() {
+        int capacity = statements.length();
+        long end = nrStatements.get();
+        long start = Math.max(0, end - capacity);
+        List<String> result = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            int slot = (int) (i % capacity);
+            String statement = statements.get(slot);
+            if (statementNumbers.get(slot) == i) {
+                result.add(statement);
+            } else {
+                // replaced by a newer statement, so all statements copied so far are older than the oldest one left
+                result.clear();
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,86 @@
+package sqlancer.common.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies in nanoseconds with power-of-two buckets. Recording a value only increments
+ * striped counters, so that many threads can record concurrently without contending on a single cache line. Percentiles
+ * are approximated by the upper bound of the bucket that contains them, which is at most twice the exact value.
+ */
+public final class LatencyHistogram {
+
+    // bucket i counts the values v with 64 - Long.numberOfLeadingZeros(v) == i, that is, 2^(i-1) <= v < 2^i
+    private static final int NR_BUCKETS = Long.SIZE + 1;
+
+    private final LongAdder[] buckets = new LongAdder[NR_BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Approximates a percentile of the recorded values.
+     *
+     * @param quantile
+     *            the quantile between 0 and 1, for example, 0.99 for the 99th percentile
+     *
+     * @return an upper bound of the percentile, or 0 if no value was recorded
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException(Double.toString(quantile));
+        }
+        long[] counts = new long[NR_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            long bucketCount = buckets[i].sum();
+            counts[i] = bucketCount;
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < NR_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upperBound = i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, getMax());
+            }
+        }
+        return getMax();
+    }
+
+}
@@ -0,0 +1,161 @@
+package sqlancer.common.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Collects the execution statistics of all workers. The counters are striped ({@link LongAdder}), since they are
+ * updated by every thread for every statement, while they are only read by the progress monitor and JMX clients.
+ *
+ * Statement counts and latencies are additionally broken down by DBMS, test oracle and {@link StatementKind}, see
+ * {@link #getScope(String, String)}.
+ */
+public final class MetricsRegistry implements MetricsRegistryMXBean {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private static final String DOMAIN = "sqlancer";
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder databases = new LongAdder();
+    private final LongAdder successfulStatements = new LongAdder();
+    private final LongAdder unsuccessfulStatements = new LongAdder();
+    private final LatencyHistogram statementLatency = new LatencyHistogram();
+    private final ConcurrentMap<String, MetricsScope> scopes = new ConcurrentHashMap<>();
+    private volatile MBeanServer mbeanServer;
+
+    /**
+     * Returns the registry to which all workers of this process report.
+     *
+     * @return the process-wide registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the metrics of a DBMS and test oracle, creating them if necessary.
+     *
+     * @param dbms
+     *            the name of the DBMS
+     * @param oracle
+     *            the name of the test oracle(s)
+     *
+     * @return the scope to which the statements are reported
+     */
+    public MetricsScope getScope(String dbms, String oracle) {
+        return scopes.computeIfAbsent(dbms + '/' + oracle, k -> {
+            MetricsScope scope = new MetricsScope(this, dbms, oracle);
+            registerMBeans(scope);
+            return scope;
+        });
+    }
+
+    public List<MetricsScope> getScopes() {
+        return new ArrayList<>(scopes.values());
+    }
+
+    void recordStatement(boolean success, long nanos) {
+        if (success) {
+            successfulStatements.increment();
+        } else {
+            unsuccessfulStatements.increment();
+        }
+        statementLatency.record(nanos);
+    }
+
+    public void incrementQueries() {
+        queries.increment();
+    }
+
+    public void incrementDatabases() {
+        databases.increment();
+    }
+
+    /**
+     * Counts a successful statement that is not recorded through a {@link MetricsScope}.
+     */
+    public void incrementSuccessfulStatements() {
+        successfulStatements.increment();
+    }
+
+    @Override
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    @Override
+    public long getDatabases() {
+        return databases.sum();
+    }
+
+    @Override
+    public long getSuccessfulStatements() {
+        return successfulStatements.sum();
+    }
+
+    @Override
+    public long getUnsuccessfulStatements() {
+        return unsuccessfulStatements.sum();
+    }
+
+    public LatencyHistogram getStatementLatency() {
+        return statementLatency;
+    }
+
+    @Override
+    public double getStatementLatencyMeanNanos() {
+        return statementLatency.getMean();
+    }
+
+    @Override
+    public long getStatementLatencyP99Nanos() {
+        return statementLatency.getPercentile(0.99);
+    }
+
+    /**
+     * Exposes the registry and all its scopes as MXBeans in the <code>sqlancer</code> domain of the platform MBean
+     * server. Scopes created later are registered when they are created.
+     */
+    public synchronized void registerMBeans() {
+        if (mbeanServer != null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        register(server, this, DOMAIN + ":type=Progress");
+        mbeanServer = server;
+        for (MetricsScope scope : scopes.values()) {
+            registerMBeans(scope);
+        }
+    }
+
+    private synchronized void registerMBeans(MetricsScope scope) {
+        MBeanServer server = mbeanServer;
+        if (server == null) {
+            return;
+        }
+        for (StatementKind kind : StatementKind.values()) {
+            register(server, scope.getStatements(kind), String.format("%s:type=Statements,dbms=%s,oracle=%s,kind=%s",
+                    DOMAIN, ObjectName.quote(scope.getDbms()), ObjectName.quote(scope.getOracle()), kind));
+        }
+    }
+
+    private static void register(MBeanServer server, Object mbean, String name) {
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package sqlancer.common.metrics;
+
+/**
+ * The JMX view of the overall progress of SQLancer.
+ */
+public interface MetricsRegistryMXBean {
+
+    long getQueries();
+
+    long getDatabases();
+
+    long getSuccessfulStatements();
+
+    long getUnsuccessfulStatements();
+
+    double getStatementLatencyMeanNanos();
+
+    long getStatementLatencyP99Nanos();
+
+}
@@ -0,0 +1,177 @@
+package sqlancer.common.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single DBMS and test oracle. Workers look up their scope once per database, so that recording a
+ * statement neither allocates nor accesses a shared map.
+ */
+public final class MetricsScope {
+
+    private final MetricsRegistry registry;
+    private final String dbms;
+    private final String oracle;
+    private final StatementMetrics[] statements = new StatementMetrics[StatementKind.values().length];
+    private final LatencyHistogram checks = new LatencyHistogram();
+    private final LatencyHistogram schemaRefreshes = new LatencyHistogram();
+    private final LatencyHistogram schemaDeltas = new LatencyHistogram();
+    private final ConcurrentMap<String, LongAdder> expectedErrors = new ConcurrentHashMap<>();
+    private final LongAdder cachedQueryResults = new LongAdder();
+    private final LongAdder uncachedQueryResults = new LongAdder();
+    private final LongAdder reductions = new LongAdder();
+    private final LongAdder reducerSteps = new LongAdder();
+    private final LongAdder reducedStatements = new LongAdder();
+
+    MetricsScope(MetricsRegistry registry, String dbms, String oracle) {
+        this.registry = registry;
+        this.dbms = dbms;
+        this.oracle = oracle;
+        for (int i = 0; i < statements.length; i++) {
+            statements[i] = new StatementMetrics();
+        }
+    }
+
+    /**
+     * Records an executed statement.
+     *
+     * @param kind
+     *            the kind of the statement
+     * @param success
+     *            whether the DBMS executed the statement without an error
+     * @param nanos
+     *            the execution time of the statement
+     */
+    public void recordStatement(StatementKind kind, boolean success, long nanos) {
+        statements[kind.ordinal()].record(success, nanos);
+        registry.recordStatement(success, nanos);
+    }
+
+    /**
+     * Records a single invocation of the test oracle, regardless of whether it succeeded.
+     *
+     * @param nanos
+     *            the time spent in the oracle's check
+     */
+    public void recordCheck(long nanos) {
+        checks.record(nanos);
+    }
+
+    public void recordSchemaRefresh(long nanos) {
+        schemaRefreshes.record(nanos);
+    }
+
+    /**
+     * Records an update of the schema that applied the change of an executed statement instead of reading the whole
+     * schema.
+     *
+     * @param nanos
+     *            the time spent updating the schema
+     */
+    public void recordSchemaDelta(long nanos) {
+        schemaDeltas.record(nanos);
+    }
+
+    /**
+     * Counts an error that the DBMS reported and that was expected.
+     *
+     * @param signature
+     *            the expected error (i.e., substring or regular expression) that matched the error message, which keeps
+     *            the number of distinct signatures bounded
+     */
+    public void recordExpectedError(String signature) {
+        LongAdder counter = expectedErrors.get(signature);
+        if (counter == null) {
+            counter = expectedErrors.computeIfAbsent(signature, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Records a lookup of a query's result in the {@link sqlancer.QueryResultCache}.
+     *
+     * @param hit
+     *            whether the result was cached, so that the query was not executed
+     */
+    public void recordQueryResultCacheLookup(boolean hit) {
+        if (hit) {
+            cachedQueryResults.increment();
+        } else {
+            uncachedQueryResults.increment();
+        }
+    }
+
+    public void recordReductionStart() {
+        reductions.increment();
+    }
+
+    /**
+     * Records a single attempt of the reducer to remove statements.
+     *
+     * @param removedStatements
+     *            the number of statements removed by the attempt, or 0 if the bug was no longer triggered
+     */
+    public void recordReducerStep(int removedStatements) {
+        reducerSteps.increment();
+        reducedStatements.add(removedStatements);
+    }
+
+    public StatementMetrics getStatements(StatementKind kind) {
+        return statements[kind.ordinal()];
+    }
+
+    public LatencyHistogram getChecks() {
+        return checks;
+    }
+
+    public LatencyHistogram getSchemaRefreshes() {
+        return schemaRefreshes;
+    }
+
+    public LatencyHistogram getSchemaDeltas() {
+        return schemaDeltas;
+    }
+
+    /**
+     * Returns the number of expected errors for each signature passed to {@link #recordExpectedError(String)}.
+     *
+     * @return a sorted snapshot of the counters
+     */
+    public Map<String, Long> getExpectedErrors() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        expectedErrors.forEach((signature, counter) -> snapshot.put(signature, counter.sum()));
+        return snapshot;
+    }
+
+    public long getCachedQueryResults() {
+        return cachedQueryResults.sum();
+    }
+
+    public long getUncachedQueryResults() {
+        return uncachedQueryResults.sum();
+    }
+
+    public long getReductions() {
+        return reductions.sum();
+    }
+
+    public long getReducerSteps() {
+        return reducerSteps.sum();
+    }
+
+    public long getReducedStatements() {
+        return reducedStatements.sum();
+    }
+
+    public String getDbms() {
+        return dbms;
+    }
+
+    public String getOracle() {
+        return oracle;
+    }
+
+}
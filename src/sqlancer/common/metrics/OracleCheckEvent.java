@@ -0,0 +1,34 @@
+package sqlancer.common.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for a single invocation of a test oracle's <code>check()</code>.
+ */
+@Name("sqlancer.OracleCheck")
+@Label("Oracle Check")
+@Category("SQLancer")
+@Description("A single check of a test oracle")
+@StackTrace(false)
+public class OracleCheckEvent extends Event {
+
+    public static final String PASSED = "passed";
+    public static final String IGNORED = "ignored";
+    public static final String FAILED = "failed";
+
+    @Label("DBMS")
+    public String dbms;
+
+    @Label("Oracle")
+    public String oracle;
+
+    @Label("Outcome")
+    @Description("Whether the check passed, was ignored (e.g., because of an expected error), or failed")
+    public String outcome;
+
+}
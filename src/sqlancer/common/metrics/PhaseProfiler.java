@@ -0,0 +1,255 @@
+package sqlancer.common.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Breaks down the time spent by the workers into {@link Phase}s, aggregated per test oracle. Call sites mark a phase
+ * with
+ *
+ * <pre>
+ * PhaseProfiler.enter(Phase.RENDERING);
+ * try {
+ *     ...
+ * } finally {
+ *     PhaseProfiler.exit();
+ * }
+ * </pre>
+ *
+ * Phases nest, and the time of a nested phase is only attributed to the nested phase, so that the times of all phases
+ * add up to the profiled time. Each thread tracks its phases in a thread-local stack and only adds to striped counters
+ * when a phase ends. When the profiler is disabled, which is the default, {@link #enter(Phase)} and {@link #exit()}
+ * return after reading a single field.
+ */
+public final class PhaseProfiler {
+
+    /**
+     * The name under which the phases outside of test oracle checks, for example, while generating the database, are
+     * reported.
+     */
+    public static final String NO_ORACLE = "(database generation)";
+
+    private static final ConcurrentMap<String, PhaseStatistics> STATISTICS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<PhaseProfiler> CURRENT = ThreadLocal.withInitial(PhaseProfiler::new);
+    private static volatile boolean enabled;
+
+    private Phase[] phases = new Phase[8];
+    private int depth;
+    // the number of open phases nested in a phase that absorbs them
+    private int absorbedDepth;
+    private long startNanos;
+    private String oracle = NO_ORACLE;
+    private PhaseStatistics statistics = getStatistics(NO_ORACLE);
+
+    public enum Phase {
+
+        /**
+         * Building the ASTs of the queries of a test oracle.
+         */
+        GENERATION(false),
+        /**
+         * Converting ASTs to query strings.
+         */
+        RENDERING(false),
+        /**
+         * Executing statements over JDBC, until the DBMS returns the first result.
+         */
+        EXECUTION(false),
+        /**
+         * Fetching and converting result sets in {@code ComparatorHelper}.
+         */
+        MATERIALIZATION(false),
+        /**
+         * Reading the schema of the database under test, including the statements executed for it.
+         */
+        SCHEMA_REFRESH(true),
+        /**
+         * Counting the rows of a table, including the statement executed for it.
+         */
+        ROW_COUNT(true),
+        /**
+         * The remaining time of test oracle checks, for example, comparing results.
+         */
+        CHECK(false);
+
+        private final boolean absorbsNestedPhases;
+
+        Phase(boolean absorbsNestedPhases) {
+            this.absorbsNestedPhases = absorbsNestedPhases;
+        }
+
+    }
+
+    private static final class PhaseStatistics {
+
+        private final LongAdder[] nanos = new LongAdder[Phase.values().length];
+        private final LongAdder[] counts = new LongAdder[Phase.values().length];
+
+        PhaseStatistics() {
+            for (int i = 0; i < nanos.length; i++) {
+                nanos[i] = new LongAdder();
+                counts[i] = new LongAdder();
+            }
+        }
+
+    }
+
+    private PhaseProfiler() {
+    }
+
+    public static void setEnabled(boolean enabled) {
+        PhaseProfiler.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a phase on the current thread, which must be ended by {@link #exit()}.
+     *
+     * @param phase
+     *            the phase that starts
+     */
+    public static void enter(Phase phase) {
+        if (enabled) {
+            CURRENT.get().push(phase);
+        }
+    }
+
+    /**
+     * Ends the phase started last by {@link #enter(Phase)} on the current thread.
+     */
+    public static void exit() {
+        if (enabled) {
+            CURRENT.get().pop();
+        }
+    }
+
+    /**
+     * Sets the test oracle to which the phases of the current thread are attributed. A phase that is running is
+     * attributed to the oracle that is set when it is interrupted by a nested phase or ends, so that a wrapper such as
+     * {@code CompositeTestOracle} can switch to the oracle it delegates to after its caller started the check.
+     *
+     * @param oracle
+     *            the name of the test oracle, or {@link #NO_ORACLE}
+     *
+     * @return the previous test oracle, so that it can be restored after a nested oracle
+     */
+    public static String setOracle(String oracle) {
+        if (!enabled) {
+            return NO_ORACLE;
+        }
+        return CURRENT.get().switchOracle(oracle);
+    }
+
+    /**
+     * Returns the test oracle to which the phases of the current thread are attributed, so that another thread that
+     * works on behalf of it can attribute its phases to the same oracle.
+     *
+     * @return the name of the test oracle, or {@link #NO_ORACLE}
+     */
+    public static String getOracle() {
+        if (!enabled) {
+            return NO_ORACLE;
+        }
+        return CURRENT.get().oracle;
+    }
+
+    private static PhaseStatistics getStatistics(String oracle) {
+        return STATISTICS.computeIfAbsent(oracle, k -> new PhaseStatistics());
+    }
+
+    private void push(Phase phase) {
+        long now = System.nanoTime();
+        if (depth != 0) {
+            if (phases[depth - 1].absorbsNestedPhases) {
+                absorbedDepth++;
+                return;
+            }
+            statistics.nanos[phases[depth - 1].ordinal()].add(now - startNanos);
+        }
+        if (depth == phases.length) {
+            phases = Arrays.copyOf(phases, depth * 2);
+        }
+        phases[depth++] = phase;
+        statistics.counts[phase.ordinal()].increment();
+        startNanos = now;
+    }
+
+    private void pop() {
+        if (absorbedDepth != 0) {
+            absorbedDepth--;
+            return;
+        }
+        if (depth == 0) {
+            // the profiler was enabled while the phase was running
+            return;
+        }
+        long now = System.nanoTime();
+        statistics.nanos[phases[--depth].ordinal()].add(now - startNanos);
+        startNanos = now;
+    }
+
+    private String switchOracle(String newOracle) {
+        String previousOracle = oracle;
+        oracle = newOracle;
+        statistics = getStatistics(newOracle);
+        return previousOracle;
+    }
+
+    /**
+     * Returns the total time spent in each phase, per test oracle.
+     *
+     * @return the nanoseconds per phase for each oracle name, sorted by the name
+     */
+    public static Map<String, long[]> getNanos() {
+        Map<String, long[]> result = new TreeMap<>();
+        STATISTICS.forEach((name, statistics) -> {
+            long[] nanos = new long[Phase.values().length];
+            for (int i = 0; i < nanos.length; i++) {
+                nanos[i] = statistics.nanos[i].sum();
+            }
+            result.put(name, nanos);
+        });
+        return result;
+    }
+
+    /**
+     * Formats the time breakdown for the summary that is printed on exit.
+     *
+     * @return a table with one section per test oracle
+     */
+    public static String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : getNanos().entrySet()) {
+            long[] nanos = entry.getValue();
+            long total = Arrays.stream(nanos).sum();
+            if (total == 0) {
+                continue;
+            }
+            sb.append(String.format("%s (%.1f s)%n", entry.getKey(), total / 1e9));
+            PhaseStatistics statistics = STATISTICS.get(entry.getKey());
+            for (Phase phase : Phase.values()) {
+                long phaseNanos = nanos[phase.ordinal()];
+                if (phaseNanos == 0) {
+                    continue;
+                }
+                long count = statistics.counts[phase.ordinal()].sum();
+                sb.append(String.format("  %-16s %9.1f s %5.1f%% %,12d spans %,10d ns/span%n", phase, phaseNanos / 1e9,
+                        100.0 * phaseNanos / total, count, count == 0 ? 0 : phaseNanos / count));
+            }
+        }
+        return sb.toString();
+    }
+
+    static void reset() {
+        STATISTICS.clear();
+        CURRENT.remove();
+    }
+
+}
@@ -0,0 +1,250 @@
+package sqlancer.common.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves the metrics of a {@link MetricsRegistry} in the Prometheus text exposition format on
+ * <code>http://host:port/metrics</code>, using the HTTP server of the JDK.
+ *
+ * Throughput is exported as counters (e.g., <code>sqlancer_queries_total</code>), from which Prometheus computes the
+ * queries and databases per second with <code>rate()</code>. Latencies are exported as summaries with the quantiles
+ * {@link #QUANTILES}.
+ */
+public final class PrometheusExporter implements AutoCloseable {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PrometheusExporter(MetricsRegistry registry, HttpServer server) {
+        this.registry = registry;
+        this.server = server;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts serving the metrics on all network interfaces.
+     *
+     * @param registry
+     *            the registry whose metrics are exported
+     * @param port
+     *            the port to listen on, or 0 to pick a free port
+     *
+     * @return the running exporter
+     *
+     * @throws IOException
+     *             if the port cannot be bound
+     */
+    public static PrometheusExporter start(MetricsRegistry registry, int port) throws IOException {
+        PrometheusExporter exporter = new PrometheusExporter(registry,
+                HttpServer.create(new InetSocketAddress(port), 0));
+        exporter.server.start();
+        return exporter;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape(registry).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Renders the current values of all metrics.
+     *
+     * @param registry
+     *            the registry to render
+     *
+     * @return the metrics in the Prometheus text format
+     */
+    static String scrape(MetricsRegistry registry) {
+        StringBuilder sb = new StringBuilder();
+        List<MetricsScope> scopes = registry.getScopes();
+        scopes.sort((a, b) -> (a.getDbms() + '/' + a.getOracle()).compareTo(b.getDbms() + '/' + b.getOracle()));
+
+        header(sb, "sqlancer_queries_total", "counter",
+                "The number of test oracle checks that were not ignored; rate() yields the queries per second.");
+        sample(sb, "sqlancer_queries_total", "", registry.getQueries());
+        header(sb, "sqlancer_databases_total", "counter",
+                "The number of generated databases; rate() yields the databases per second.");
+        sample(sb, "sqlancer_databases_total", "", registry.getDatabases());
+
+        header(sb, "sqlancer_statements_total", "counter", "The number of executed statements.");
+        for (MetricsScope scope : scopes) {
+            for (StatementKind kind : StatementKind.values()) {
+                StatementMetrics statements = scope.getStatements(kind);
+                sample(sb, "sqlancer_statements_total", labels(scope, "kind", kind.name(), "outcome", "success"),
+                        statements.getSuccessfulStatements());
+                sample(sb, "sqlancer_statements_total", labels(scope, "kind", kind.name(), "outcome", "error"),
+                        statements.getUnsuccessfulStatements());
+            }
+        }
+        header(sb, "sqlancer_statement_duration_seconds", "summary", "The execution time of statements.");
+        for (MetricsScope scope : scopes) {
+            for (StatementKind kind : StatementKind.values()) {
+                summary(sb, "sqlancer_statement_duration_seconds", labels(scope, "kind", kind.name()),
+                        scope.getStatements(kind).getLatency());
+            }
+        }
+
+        header(sb, "sqlancer_check_duration_seconds", "summary",
+                "The time spent in a single check of the test oracle, including ignored and failed checks.");
+        for (MetricsScope scope : scopes) {
+            summary(sb, "sqlancer_check_duration_seconds", labels(scope), scope.getChecks());
+        }
+
+        header(sb, "sqlancer_expected_errors_total", "counter",
+                "The number of expected errors, by the expected error that matched the error message.");
+        for (MetricsScope scope : scopes) {
+            for (Map.Entry<String, Long> entry : scope.getExpectedErrors().entrySet()) {
+                sample(sb, "sqlancer_expected_errors_total", labels(scope, "signature", entry.getKey()),
+                        entry.getValue());
+            }
+        }
+
+        header(sb, "sqlancer_schema_refresh_duration_seconds", "summary",
+                "The time spent reading the schema of the database under test.");
+        for (MetricsScope scope : scopes) {
+            summary(sb, "sqlancer_schema_refresh_duration_seconds", labels(scope), scope.getSchemaRefreshes());
+        }
+        header(sb, "sqlancer_schema_delta_duration_seconds", "summary",
+                "The time spent applying the changes of executed statements to the schema instead of reading it.");
+        for (MetricsScope scope : scopes) {
+            summary(sb, "sqlancer_schema_delta_duration_seconds", labels(scope), scope.getSchemaDeltas());
+        }
+
+        header(sb, "sqlancer_query_result_cache_lookups_total", "counter",
+                "The number of query results that the test oracles looked up in the query result cache, by whether they were cached.");
+        for (MetricsScope scope : scopes) {
+            sample(sb, "sqlancer_query_result_cache_lookups_total", labels(scope, "outcome", "hit"),
+                    scope.getCachedQueryResults());
+            sample(sb, "sqlancer_query_result_cache_lookups_total", labels(scope, "outcome", "miss"),
+                    scope.getUncachedQueryResults());
+        }
+
+        header(sb, "sqlancer_reductions_total", "counter", "The number of bug-inducing test cases being reduced.");
+        for (MetricsScope scope : scopes) {
+            sample(sb, "sqlancer_reductions_total", labels(scope), scope.getReductions());
+        }
+        header(sb, "sqlancer_reducer_steps_total", "counter",
+                "The number of attempts of the reducer to remove statements.");
+        for (MetricsScope scope : scopes) {
+            sample(sb, "sqlancer_reducer_steps_total", labels(scope), scope.getReducerSteps());
+        }
+        header(sb, "sqlancer_reducer_removed_statements_total", "counter",
+                "The number of statements removed by the reducer.");
+        for (MetricsScope scope : scopes) {
+            sample(sb, "sqlancer_reducer_removed_statements_total", labels(scope), scope.getReducedStatements());
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels, LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            sample(sb, name, labels + ",quantile=\"" + quantile + '"',
+                    histogram.getPercentile(quantile) / NANOS_PER_SECOND);
+        }
+        sample(sb, name + "_sum", labels, histogram.getSum() / NANOS_PER_SECOND);
+        sample(sb, name + "_count", labels, histogram.getCount());
+    }
+
+    private static String labels(MetricsScope scope, String... additionalLabels) {
+        StringBuilder sb = new StringBuilder();
+        label(sb, "dbms", scope.getDbms());
+        label(sb, "oracle", scope.getOracle());
+        for (int i = 0; i < additionalLabels.length; i += 2) {
+            label(sb, additionalLabels[i], additionalLabels[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    private static void label(StringBuilder sb, String name, String value) {
+        if (sb.length() != 0) {
+            sb.append(',');
+        }
+        sb.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            default:
+                sb.append(c);
+                break;
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Stops the HTTP server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,35 @@
+package sqlancer.common.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for an attempt of the statement reducer to remove statements from a bug-inducing test
+ * case.
+ */
+@Name("sqlancer.ReducerStep")
+@Label("Reducer Step")
+@Category("SQLancer")
+@Description("An attempt to remove statements from a bug-inducing test case")
+@StackTrace(false)
+public class ReducerStepEvent extends Event {
+
+    @Label("DBMS")
+    public String dbms;
+
+    @Label("Statements")
+    @Description("The number of statements before the step")
+    public int statements;
+
+    @Label("Candidate Statements")
+    @Description("The number of statements that were tested")
+    public int candidateStatements;
+
+    @Label("Bug Still Triggers")
+    public boolean bugStillTriggers;
+
+}
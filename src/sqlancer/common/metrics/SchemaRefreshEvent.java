@@ -0,0 +1,34 @@
+package sqlancer.common.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for reading the schema of the database under test in
+ * {@link sqlancer.GlobalState#updateSchema()}.
+ */
+@Name("sqlancer.SchemaRefresh")
+@Label("Schema Refresh")
+@Category("SQLancer")
+@Description("Reading the schema of the database under test")
+@StackTrace(false)
+public class SchemaRefreshEvent extends Event {
+
+    @Label("DBMS")
+    public String dbms;
+
+    @Label("Database")
+    public String database;
+
+    @Label("Tables")
+    public int tables;
+
+    @Label("Incremental")
+    @Description("Whether the change of the executed statement was applied instead of reading the whole schema")
+    public boolean incremental;
+
+}
@@ -0,0 +1,32 @@
+package sqlancer.common.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for a statement executed by {@link sqlancer.GlobalState#executeStatement}. Like the
+ * other events of SQLancer, it is only committed while a recording with the event enabled is running, for example,
+ * started with <code>-XX:StartFlightRecording</code>; otherwise, emitting it costs a single check.
+ */
+@Name("sqlancer.StatementExecution")
+@Label("Statement Execution")
+@Category("SQLancer")
+@Description("A statement executed on the database under test")
+@StackTrace(false)
+public class StatementExecutionEvent extends Event {
+
+    @Label("DBMS")
+    public String dbms;
+
+    @Label("Statement Kind")
+    public String kind;
+
+    @Label("Expected Error")
+    @Description("Whether the DBMS reported an error that was expected")
+    public boolean expectedError;
+
+}
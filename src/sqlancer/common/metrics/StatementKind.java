@@ -0,0 +1,50 @@
+package sqlancer.common.metrics;
+
+/**
+ * A coarse classification of statements by their leading keyword, which is used to break down the statement metrics.
+ */
+public enum StatementKind {
+
+    DDL, DML, SELECT, OTHER;
+
+    private static final String[] DDL_KEYWORDS = { "CREATE", "ALTER", "DROP", "RENAME", "TRUNCATE", "COMMENT" };
+    private static final String[] DML_KEYWORDS = { "INSERT", "UPDATE", "DELETE", "REPLACE", "UPSERT", "MERGE", "COPY" };
+    private static final String[] SELECT_KEYWORDS = { "SELECT", "WITH", "VALUES", "TABLE", "SHOW", "EXPLAIN",
+            "DESCRIBE" };
+
+    /**
+     * Classifies a statement without allocating, since it is called for every executed statement.
+     *
+     * @param query
+     *            the statement string
+     *
+     * @return the kind of the statement
+     */
+    public static StatementKind classify(String query) {
+        int start = 0;
+        while (start < query.length() && (Character.isWhitespace(query.charAt(start)) || query.charAt(start) == '(')) {
+            start++;
+        }
+        if (startsWithAnyKeyword(query, start, SELECT_KEYWORDS)) {
+            return SELECT;
+        } else if (startsWithAnyKeyword(query, start, DML_KEYWORDS)) {
+            return DML;
+        } else if (startsWithAnyKeyword(query, start, DDL_KEYWORDS)) {
+            return DDL;
+        } else {
+            return OTHER;
+        }
+    }
+
+    private static boolean startsWithAnyKeyword(String query, int start, String... keywords) {
+        for (String keyword : keywords) {
+            int end = start + keyword.length();
+            if (query.regionMatches(true, start, keyword, 0, keyword.length())
+                    && (end == query.length() || !Character.isLetterOrDigit(query.charAt(end)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,57 @@
+package sqlancer.common.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and latencies of the statements of a single {@link StatementKind} executed for a DBMS and test oracle.
+ */
+public final class StatementMetrics implements StatementMetricsMXBean {
+
+    private final LongAdder successful = new LongAdder();
+    private final LongAdder unsuccessful = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    void record(boolean success, long nanos) {
+        if (success) {
+            successful.increment();
+        } else {
+            unsuccessful.increment();
+        }
+        latency.record(nanos);
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getSuccessfulStatements() {
+        return successful.sum();
+    }
+
+    @Override
+    public long getUnsuccessfulStatements() {
+        return unsuccessful.sum();
+    }
+
+    @Override
+    public double getLatencyMeanNanos() {
+        return latency.getMean();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return latency.getPercentile(0.5);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return latency.getPercentile(0.99);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return latency.getMax();
+    }
+
+}
@@ -0,0 +1,20 @@
+package sqlancer.common.metrics;
+
+/**
+ * The JMX view of the statements of a single {@link StatementKind} executed for a DBMS and test oracle.
+ */
+public interface StatementMetricsMXBean {
+
+    long getSuccessfulStatements();
+
+    long getUnsuccessfulStatements();
+
+    double getLatencyMeanNanos();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyMaxNanos();
+
+}
@@ -14,6 +14,8 @@ import sqlancer.common.ast.newast.Expression;
 import sqlancer.common.ast.newast.Join;
 import sqlancer.common.ast.newast.Select;
 import sqlancer.common.gen.CERTGenerator;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
@@ -47,35 +49,22 @@ public class CERTOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>, E
 
     @Override
     public void check() throws SQLException {
-        S schema = state.getSchema();
-        AbstractTables<T, C> targetTables = TestOracleUtils.getRandomTableNonEmptyTables(schema);
-        gen = gen.setTablesAndColumns(targetTables);
-
-        List<E> fetchColumns = gen.generateFetchColumns(false);
-
-        Z select = gen.generateSelect();
-        select.setFetchColumns(fetchColumns);
-        select.setJoinClauses(gen.getRandomJoinClauses());
-        select.setFromList(gen.getTableRefs());
-
-        if (Randomly.getBoolean()) {
-            select.setWhereClause(gen.generateBooleanExpression());
-        }
-        if (Randomly.getBoolean()) {
-            select.setGroupByClause(fetchColumns);
-            if (Randomly.getBoolean()) {
-                select.setHavingClause(gen.generateBooleanExpression());
-            }
-        }
+        Z select = generateSelect();
 
         List<String> queryPlan1Sequences = new ArrayList<>();
         List<String> queryPlan2Sequences = new ArrayList<>();
 
-        String queryString1 = gen.generateExplainQuery(select);
+        String queryString1 = render(select);
         long rowCount1 = getRow(state, queryString1, queryPlan1Sequences);
 
-        boolean increase = gen.mutate(select);
-        String queryString2 = gen.generateExplainQuery(select);
+        boolean increase;
+        PhaseProfiler.enter(Phase.GENERATION);
+        try {
+            increase = gen.mutate(select);
+        } finally {
+            PhaseProfiler.exit();
+        }
+        String queryString2 = render(select);
         long rowCount2 = getRow(state, queryString2, queryPlan2Sequences);
 
         if (DBMSCommon.editDistance(queryPlan1Sequences, queryPlan2Sequences) > 1) {
@@ -89,6 +78,44 @@ public class CERTOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>, E
         }
     }
 
+    private Z generateSelect() {
+        PhaseProfiler.enter(Phase.GENERATION);
+        try {
+            S schema = state.getSchema();
+            AbstractTables<T, C> targetTables = TestOracleUtils.getRandomTableNonEmptyTables(schema);
+            gen = gen.setTablesAndColumns(targetTables);
+
+            List<E> fetchColumns = gen.generateFetchColumns(false);
+
+            Z select = gen.generateSelect();
+            select.setFetchColumns(fetchColumns);
+            select.setJoinClauses(gen.getRandomJoinClauses());
+            select.setFromList(gen.getTableRefs());
+
+            if (Randomly.getBoolean()) {
+                select.setWhereClause(gen.generateBooleanExpression());
+            }
+            if (Randomly.getBoolean()) {
+                select.setGroupByClause(fetchColumns);
+                if (Randomly.getBoolean()) {
+                    select.setHavingClause(gen.generateBooleanExpression());
+                }
+            }
+            return select;
+        } finally {
+            PhaseProfiler.exit();
+        }
+    }
+
+    private String render(Z select) {
+        PhaseProfiler.enter(Phase.RENDERING);
+        try {
+            return gen.generateExplainQuery(select);
+        } finally {
+            PhaseProfiler.exit();
+        }
+    }
+
     private Long getRow(SQLGlobalState<?, ?> globalState, String explainQuery, List<String> queryPlanSequences)
             throws AssertionError, SQLException {
         Optional<Long> row = Optional.empty();
@@ -3,6 +3,7 @@ package sqlancer.common.oracle;
 import java.util.List;
 
 import sqlancer.GlobalState;
+import sqlancer.common.metrics.PhaseProfiler;
 
 public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements TestOracle<G> {
 
@@ -18,8 +19,10 @@ public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements Test
 
     @Override
     public void check() throws Exception {
+        TestOracle<G> oracle = oracles.get(i);
+        PhaseProfiler.setOracle(oracle.getClass().getSimpleName());
         try {
-            oracles.get(i).check();
+            oracle.check();
             iLast = i;
             boolean lastOracleIndex = i == oracles.size() - 1;
             if (!lastOracleIndex) {
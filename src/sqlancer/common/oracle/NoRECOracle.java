@@ -12,6 +12,8 @@ import sqlancer.common.ast.newast.Expression;
 import sqlancer.common.ast.newast.Join;
 import sqlancer.common.ast.newast.Select;
 import sqlancer.common.gen.NoRECGenerator;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
@@ -21,7 +23,7 @@ import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
 
 public class NoRECOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>, E extends Expression<C>, S extends AbstractSchema<?, T>, T extends AbstractTable<C, ?, ?>, C extends AbstractTableColumn<?, ?>, G extends SQLGlobalState<?, S>>
-        implements TestOracle<G> {
+        implements PipelinedTestOracle<G, NoRECOracle.NoRECQueries> {
 
     private final G state;
 
@@ -56,30 +58,71 @@ public class NoRECOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>,
         this.reproducer = null;
     }
 
+    /**
+     * The rendered queries of a single check.
+     */
+    public static final class NoRECQueries {
+        private final String optimizedQueryString;
+        private final String unoptimizedQueryString;
+        private final boolean shouldUseAggregate;
+
+        NoRECQueries(String optimizedQueryString, String unoptimizedQueryString, boolean shouldUseAggregate) {
+            this.optimizedQueryString = optimizedQueryString;
+            this.unoptimizedQueryString = unoptimizedQueryString;
+            this.shouldUseAggregate = shouldUseAggregate;
+        }
+    }
+
     @Override
     public void check() throws SQLException {
         reproducer = null;
-        S schema = state.getSchema();
-        AbstractTables<T, C> targetTables = TestOracleUtils.getRandomTableNonEmptyTables(schema);
-        gen = gen.setTablesAndColumns(targetTables);
-
-        Z select = gen.generateSelect();
-        select.setJoinClauses(gen.getRandomJoinClauses());
-        select.setFromList(gen.getTableRefs());
+        checkBundle(generateBundle());
+    }
 
-        E randomWhereCondition = gen.generateBooleanExpression();
+    @Override
+    public NoRECQueries generateBundle() {
+        PhaseProfiler.enter(Phase.GENERATION);
+        try {
+            S schema = state.getSchema();
+            AbstractTables<T, C> targetTables = TestOracleUtils.getRandomTableNonEmptyTables(schema);
+            gen = gen.setTablesAndColumns(targetTables);
+
+            Z select = gen.generateSelect();
+            select.setJoinClauses(gen.getRandomJoinClauses());
+            select.setFromList(gen.getTableRefs());
+
+            E randomWhereCondition = gen.generateBooleanExpression();
+
+            boolean shouldUseAggregate = Randomly.getBoolean();
+            String optimizedQueryString;
+            String unoptimizedQueryString;
+            PhaseProfiler.enter(Phase.RENDERING);
+            try {
+                optimizedQueryString = gen.generateOptimizedQueryString(select, randomWhereCondition,
+                        shouldUseAggregate);
+                unoptimizedQueryString = gen.generateUnoptimizedQueryString(select, randomWhereCondition);
+            } finally {
+                PhaseProfiler.exit();
+            }
+            return new NoRECQueries(optimizedQueryString, unoptimizedQueryString, shouldUseAggregate);
+        } finally {
+            PhaseProfiler.exit();
+        }
+    }
 
-        boolean shouldUseAggregate = Randomly.getBoolean();
-        String optimizedQueryString = gen.generateOptimizedQueryString(select, randomWhereCondition,
-                shouldUseAggregate);
+    @Override
+    public void checkBundle(NoRECQueries queries) throws SQLException {
+        reproducer = null;
+        String optimizedQueryString = queries.optimizedQueryString;
+        String unoptimizedQueryString = queries.unoptimizedQueryString;
+        boolean shouldUseAggregate = queries.shouldUseAggregate;
         lastQueryString = optimizedQueryString;
         if (state.getOptions().logEachSelect()) {
             state.getLogger().writeCurrent(optimizedQueryString);
-        }
-
-        String unoptimizedQueryString = gen.generateUnoptimizedQueryString(select, randomWhereCondition);
-        if (state.getOptions().logEachSelect()) {
             state.getLogger().writeCurrent(unoptimizedQueryString);
+        } else if (state.getLogger().isLoggingOnFailure()) {
+            state.getLogger().logStatementOnFailure(optimizedQueryString);
+            state.getLogger().logStatementOnFailure(unoptimizedQueryString);
         }
 
         int optimizedCount = shouldUseAggregate ? extractCounts(optimizedQueryString, errors, state)
@@ -0,0 +1,155 @@
+package sqlancer.common.oracle;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+
+import sqlancer.GlobalState;
+import sqlancer.Randomly;
+import sqlancer.Reproducer;
+import sqlancer.common.metrics.PhaseProfiler;
+
+/**
+ * Runs the generation stage of a {@link PipelinedTestOracle} on a separate thread, which fills a bounded queue with
+ * query bundles, while {@link #check()} executes them. Generating queries thus overlaps with waiting for the DBMS.
+ *
+ * The generator thread uses its own instance of the oracle, whose expression generators it creates with its own random
+ * number generator and node interner (see {@link GlobalState#setGenerationThread(Randomly)}), so that it does not share
+ * any of them with the thread that executes the queries. The generated queries thus differ from those of the
+ * non-pipelined oracle for the same seed. Bundles that were generated before the schema changed (see
+ * {@link GlobalState#getSchemaVersion()}) are discarded.
+ *
+ * @param <G>
+ *            the global state
+ * @param <B>
+ *            the bundle of rendered queries
+ */
+public final class OraclePipeline<G extends GlobalState<?, ?, ?>, B> implements TestOracle<G>, AutoCloseable {
+
+    private final PipelinedTestOracle<G, B> oracle;
+    private final G globalState;
+    private final BlockingQueue<Bundle<B>> queue;
+    private final Thread generator;
+    private boolean generationFailed;
+
+    private static final class Bundle<B> {
+
+        private final long schemaVersion;
+        private final B queries;
+        private final Throwable error;
+
+        Bundle(long schemaVersion, B queries, Throwable error) {
+            this.schemaVersion = schemaVersion;
+            this.queries = queries;
+            this.error = error;
+        }
+
+    }
+
+    /**
+     * Starts the generator thread.
+     *
+     * @param oracle
+     *            the oracle that executes and checks the generated queries
+     * @param generationOracle
+     *            creates the oracle that generates the queries, which is called on the generator thread and must not
+     *            execute statements
+     * @param globalState
+     *            the global state
+     * @param capacity
+     *            the maximum number of bundles that are generated ahead
+     */
+    public OraclePipeline(PipelinedTestOracle<G, B> oracle, Callable<PipelinedTestOracle<G, B>> generationOracle,
+            G globalState, int capacity) {
+        this.oracle = oracle;
+        this.globalState = globalState;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        // read the schema on this thread, since the generator must not execute statements
+        globalState.getSchema();
+        long seed = Randomly.getNonCachedInteger();
+        this.generator = new Thread(() -> generate(generationOracle, seed),
+                Thread.currentThread().getName() + "-generator");
+        generator.setDaemon(true);
+        generator.start();
+    }
+
+    private void generate(Callable<PipelinedTestOracle<G, B>> generationOracle, long seed) {
+        globalState.setGenerationThread(new Randomly(seed));
+        try {
+            PhaseProfiler.setOracle(oracle.getClass().getSimpleName());
+            PipelinedTestOracle<G, B> generatingOracle = null;
+            Throwable creationError = null;
+            try {
+                generatingOracle = generationOracle.call();
+            } catch (Exception | Error e) {
+                // rethrown by every call of check()
+                creationError = e;
+            }
+            long internedSchemaVersion = globalState.getSchemaVersion();
+            while (!Thread.currentThread().isInterrupted()) {
+                long schemaVersion = globalState.getSchemaVersion();
+                Bundle<B> bundle;
+                if (creationError != null) {
+                    bundle = new Bundle<>(schemaVersion, null, creationError);
+                } else {
+                    try {
+                        if (schemaVersion != internedSchemaVersion) {
+                            // the interner of this thread is not cleared by GlobalState#setSchema
+                            globalState.getNodeInterner().clear();
+                            internedSchemaVersion = schemaVersion;
+                        }
+                        bundle = new Bundle<>(schemaVersion, generatingOracle.generateBundle(), null);
+                    } catch (Exception | Error e) {
+                        // e.g., an IgnoreMeException, which is rethrown by the corresponding call of check()
+                        bundle = new Bundle<>(schemaVersion, null, e);
+                    }
+                }
+                try {
+                    queue.put(bundle);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        } finally {
+            globalState.clearGenerationThread();
+        }
+    }
+
+    @Override
+    public void check() throws Exception {
+        Bundle<B> bundle;
+        do {
+            bundle = queue.take();
+        } while (bundle.schemaVersion != globalState.getSchemaVersion());
+        generationFailed = bundle.error != null;
+        if (bundle.error instanceof Exception) {
+            throw (Exception) bundle.error;
+        } else if (bundle.error != null) {
+            throw (Error) bundle.error;
+        }
+        oracle.checkBundle(bundle.queries);
+    }
+
+    @Override
+    public Reproducer<G> getLastReproducer() {
+        return generationFailed ? null : oracle.getLastReproducer();
+    }
+
+    @Override
+    public String getLastQueryString() {
+        return oracle.getLastQueryString();
+    }
+
+    /**
+     * Stops the generator thread.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the generator thread to finish
+     */
+    @Override
+    public void close() throws InterruptedException {
+        generator.interrupt();
+        generator.join();
+    }
+
+}
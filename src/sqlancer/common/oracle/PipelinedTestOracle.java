@@ -0,0 +1,45 @@
+package sqlancer.common.oracle;
+
+import sqlancer.GlobalState;
+
+/**
+ * A test oracle whose {@link #check()} can be split into a generation stage, which builds and renders all queries of a
+ * single check without accessing the DBMS, and an execution stage, which executes and compares them. This allows an
+ * {@link OraclePipeline} to generate the next queries while the DBMS is executing the current ones.
+ *
+ * @param <G>
+ *            the global state
+ * @param <B>
+ *            the bundle of rendered queries that is passed from the generation to the execution stage
+ */
+public interface PipelinedTestOracle<G extends GlobalState<?, ?, ?>, B> extends TestOracle<G> {
+
+    /**
+     * Generates the queries for a single check. An {@link OraclePipeline} calls this method on a separate thread and on
+     * a separate instance of the oracle, which is created by the same factory, so it must not execute statements or log
+     * to the state.
+     *
+     * @return the generated queries
+     *
+     * @throws Exception
+     *             if generating the queries fails
+     */
+    B generateBundle() throws Exception;
+
+    /**
+     * Executes the queries generated by {@link #generateBundle()} and checks the results.
+     *
+     * @param bundle
+     *            the generated queries
+     *
+     * @throws Exception
+     *             if executing the queries fails or the oracle detects a bug
+     */
+    void checkBundle(B bundle) throws Exception;
+
+    @Override
+    default void check() throws Exception {
+        checkBundle(generateBundle());
+    }
+
+}
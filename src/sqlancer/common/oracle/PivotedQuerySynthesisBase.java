@@ -6,6 +6,8 @@ import java.util.List;
 import sqlancer.GlobalState;
 import sqlancer.IgnoreMeException;
 import sqlancer.SQLancerDBConnection;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
@@ -36,11 +38,24 @@ public abstract class PivotedQuerySynthesisBase<S extends GlobalState<?, ?, C>,
     @Override
     public final void check() throws Exception {
         rectifiedPredicates.clear();
-        Query<C> pivotRowQuery = getRectifiedQuery();
+        Query<C> pivotRowQuery;
+        // the DBMS-specific implementations render the queries while generating them
+        PhaseProfiler.enter(Phase.GENERATION);
+        try {
+            pivotRowQuery = getRectifiedQuery();
+        } finally {
+            PhaseProfiler.exit();
+        }
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(pivotRowQuery.getQueryString());
         }
-        Query<C> isContainedQuery = getContainmentCheckQuery(pivotRowQuery);
+        Query<C> isContainedQuery;
+        PhaseProfiler.enter(Phase.GENERATION);
+        try {
+            isContainedQuery = getContainmentCheckQuery(pivotRowQuery);
+        } finally {
+            PhaseProfiler.exit();
+        }
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(isContainedQuery.getQueryString());
         }
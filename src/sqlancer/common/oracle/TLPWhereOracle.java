@@ -7,11 +7,14 @@ import java.util.List;
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
 import sqlancer.Reproducer;
+import sqlancer.ResultSetFingerprint;
 import sqlancer.SQLGlobalState;
 import sqlancer.common.ast.newast.Expression;
 import sqlancer.common.ast.newast.Join;
 import sqlancer.common.ast.newast.Select;
 import sqlancer.common.gen.TLPWhereGenerator;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
@@ -19,7 +22,7 @@ import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
 
 public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C>, E extends Expression<C>, S extends AbstractSchema<?, T>, T extends AbstractTable<C, ?, ?>, C extends AbstractTableColumn<?, ?>, G extends SQLGlobalState<?, S>>
-        implements TestOracle<G> {
+        implements PipelinedTestOracle<G, TLPWhereOracle.TLPWhereQueries> {
 
     private final G state;
 
@@ -34,11 +37,11 @@ public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C
         final String secondQueryString;
         final String thirdQueryString;
         final String originalQueryString;
-        final List<String> resultSet;
+        final ResultSetFingerprint resultSet;
         final boolean orderBy;
 
         TLPWhereReproducer(String firstQueryString, String secondQueryString, String thirdQueryString,
-                String originalQueryString, List<String> resultSet, boolean orderBy) {
+                String originalQueryString, ResultSetFingerprint resultSet, boolean orderBy) {
             this.firstQueryString = firstQueryString;
             this.secondQueryString = secondQueryString;
             this.thirdQueryString = thirdQueryString;
@@ -51,10 +54,11 @@ public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C
         public boolean bugStillTriggers(G globalState) {
             try {
                 List<String> combinedString1 = new ArrayList<>();
-                List<String> secondResultSet1 = ComparatorHelper.getCombinedResultSet(firstQueryString,
-                        secondQueryString, thirdQueryString, combinedString1, !orderBy, globalState, errors);
+                ResultSetFingerprint secondResultSet1 = ComparatorHelper.getCombinedResultSetFingerprint(
+                        firstQueryString, secondQueryString, thirdQueryString, combinedString1, !orderBy, globalState,
+                        errors);
                 ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet1, originalQueryString,
-                        combinedString1, globalState);
+                        combinedString1, globalState, errors);
             } catch (AssertionError triggeredError) {
                 return true;
             } catch (SQLException ignored) {
@@ -72,49 +76,102 @@ public class TLPWhereOracle<Z extends Select<J, E, T, C>, J extends Join<E, T, C
         this.errors = expectedErrors;
     }
 
+    /**
+     * The rendered queries of a single check.
+     */
+    public static final class TLPWhereQueries {
+        private final String originalQueryString;
+        private final String firstQueryString;
+        private final String secondQueryString;
+        private final String thirdQueryString;
+        private final boolean orderBy;
+
+        TLPWhereQueries(String originalQueryString, String firstQueryString, String secondQueryString,
+                String thirdQueryString, boolean orderBy) {
+            this.originalQueryString = originalQueryString;
+            this.firstQueryString = firstQueryString;
+            this.secondQueryString = secondQueryString;
+            this.thirdQueryString = thirdQueryString;
+            this.orderBy = orderBy;
+        }
+    }
+
     @Override
     public void check() throws SQLException {
         reproducer = null;
-        S s = state.getSchema();
-        AbstractTables<T, C> targetTables = TestOracleUtils.getRandomTableNonEmptyTables(s);
-        gen = gen.setTablesAndColumns(targetTables);
-
-        Select<J, E, T, C> select = gen.generateSelect();
-
-        boolean shouldCreateDummy = true;
-        select.setFetchColumns(gen.generateFetchColumns(shouldCreateDummy));
-        select.setJoinClauses(gen.getRandomJoinClauses());
-        select.setFromList(gen.getTableRefs());
-        select.setWhereClause(null);
+        checkBundle(generateBundle());
+    }
 
-        String originalQueryString = select.asString();
-        generatedQueryString = originalQueryString;
-        List<String> firstResultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors,
-                state);
+    @Override
+    public TLPWhereQueries generateBundle() {
+        PhaseProfiler.enter(Phase.GENERATION);
+        try {
+            S s = state.getSchema();
+            AbstractTables<T, C> targetTables = TestOracleUtils.getRandomTableNonEmptyTables(s);
+            gen = gen.setTablesAndColumns(targetTables);
+
+            Select<J, E, T, C> select = gen.generateSelect();
+
+            boolean shouldCreateDummy = true;
+            select.setFetchColumns(gen.generateFetchColumns(shouldCreateDummy));
+            select.setJoinClauses(gen.getRandomJoinClauses());
+            select.setFromList(gen.getTableRefs());
+            select.setWhereClause(null);
+
+            String originalQueryString = render(select);
+
+            boolean orderBy = Randomly.getBooleanWithSmallProbability();
+            if (orderBy) {
+                select.setOrderByClauses(gen.generateOrderBys());
+            }
 
-        boolean orderBy = Randomly.getBooleanWithSmallProbability();
-        if (orderBy) {
-            select.setOrderByClauses(gen.generateOrderBys());
+            TestOracleUtils.PredicateVariants<E, C> predicates = TestOracleUtils.initializeTernaryPredicateVariants(gen,
+                    gen.generateBooleanExpression());
+            select.setWhereClause(predicates.predicate);
+            String firstQueryString = render(select);
+            select.setWhereClause(predicates.negatedPredicate);
+            String secondQueryString = render(select);
+            select.setWhereClause(predicates.isNullPredicate);
+            String thirdQueryString = render(select);
+            return new TLPWhereQueries(originalQueryString, firstQueryString, secondQueryString, thirdQueryString,
+                    orderBy);
+        } finally {
+            PhaseProfiler.exit();
         }
+    }
 
-        TestOracleUtils.PredicateVariants<E, C> predicates = TestOracleUtils.initializeTernaryPredicateVariants(gen,
-                gen.generateBooleanExpression());
-        select.setWhereClause(predicates.predicate);
-        String firstQueryString = select.asString();
-        select.setWhereClause(predicates.negatedPredicate);
-        String secondQueryString = select.asString();
-        select.setWhereClause(predicates.isNullPredicate);
-        String thirdQueryString = select.asString();
-
-        List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, !orderBy, state, errors);
+    private String render(Select<J, E, T, C> select) {
+        PhaseProfiler.enter(Phase.RENDERING);
+        try {
+            return select.asString();
+        } finally {
+            PhaseProfiler.exit();
+        }
+    }
 
-        ComparatorHelper.assumeResultSetsAreEqual(firstResultSet, secondResultSet, originalQueryString, combinedString,
+    @Override
+    public void checkBundle(TLPWhereQueries queries) throws SQLException {
+        reproducer = null;
+        generatedQueryString = queries.originalQueryString;
+        List<String> combinedString = ComparatorHelper.getCombinedQueries(queries.firstQueryString,
+                queries.secondQueryString, queries.thirdQueryString, !queries.orderBy);
+        // the original query is executed together with the combined ones, concurrently if there is a connection group
+        List<String> queryStrings = new ArrayList<>();
+        queryStrings.add(queries.originalQueryString);
+        queryStrings.addAll(combinedString);
+        List<ResultSetFingerprint> fingerprints = ComparatorHelper.getResultSetFingerprints(queryStrings, errors,
                 state);
+        ResultSetFingerprint firstResultSet = fingerprints.get(0);
+        ResultSetFingerprint secondResultSet = new ResultSetFingerprint();
+        for (ResultSetFingerprint fingerprint : fingerprints.subList(1, fingerprints.size())) {
+            secondResultSet.addAll(fingerprint);
+        }
+
+        ComparatorHelper.assumeResultSetsAreEqual(firstResultSet, secondResultSet, queries.originalQueryString,
+                combinedString, state, errors);
 
-        reproducer = new TLPWhereReproducer(firstQueryString, secondQueryString, thirdQueryString, originalQueryString,
-                firstResultSet, orderBy);
+        reproducer = new TLPWhereReproducer(queries.firstQueryString, queries.secondQueryString,
+                queries.thirdQueryString, queries.originalQueryString, firstResultSet, queries.orderBy);
     }
 
     @Override
@@ -85,20 +85,34 @@ public class ExpectedErrors {
      * @return whether the error message contains any of the substrings specified as expected errors
      */
     public boolean errorIsExpected(String error) {
+        return getMatchingError(error) != null;
+    }
+
+    /**
+     * Returns the expected error that the error message matches. Unlike the error message, which might contain values
+     * or identifiers, the result can be used to group errors.
+     *
+     * @param error
+     *            the error message
+     *
+     * @return the substring or regular expression that matches the error message, or <code>null</code> if the error is
+     *         not expected
+     */
+    public String getMatchingError(String error) {
         if (error == null) {
             throw new IllegalArgumentException();
         }
         for (String s : this.errors) {
             if (error.contains(s)) {
-                return true;
+                return s;
             }
         }
         for (Pattern p : this.regexes) {
             if (p.matcher(error).find()) {
-                return true;
+                return p.pattern();
             }
         }
-        return false;
+        return null;
     }
 
     public static class ExpectedErrorsBuilder {
@@ -0,0 +1,259 @@
+package sqlancer.common.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Combines consecutive INSERT statements that only differ in their rows into a single multi-row INSERT, so that
+ * populating a database takes fewer statements, schema updates, and, for ClickHouse, parts.
+ *
+ * Only statements of the form <code>INSERT ... VALUES (...), ...;</code> without a trailing clause, such as ON CONFLICT
+ * or RETURNING, are combined, and only if everything before their rows is the same, which implies that they insert into
+ * the same table. If the combined statement fails, the caller executes the original statements one by one, so that each
+ * error is checked against the expected errors of the statement that caused it, and only the statements that were
+ * actually executed are logged. This assumes that a failing INSERT does not insert any of its rows, so SQLite's OR
+ * FAIL, which keeps the rows inserted before the failing one, and OR ROLLBACK, which ends the transaction, are not
+ * combined.
+ */
+public final class InsertBatch {
+
+    /**
+     * The expected error that is recorded when a combined statement fails.
+     */
+    public static final String COMBINED_INSERT_FAILED = "combined INSERT failed";
+
+    private static final Pattern NON_ATOMIC_INSERT = Pattern.compile("^\\s*INSERT\\s+OR\\s+(FAIL|ROLLBACK)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final int maxSize;
+    private final List<SQLQueryAdapter> inserts = new ArrayList<>();
+    private final List<String> rows = new ArrayList<>();
+    private String prefix;
+
+    // the error of a combined statement is not checked, since the original statements are executed and checked instead
+    private static final class CombinedInsert extends SQLQueryAdapter {
+
+        CombinedInsert(String query, boolean couldAffectSchema) {
+            super(query, new ExpectedErrors(), couldAffectSchema, false);
+        }
+
+        @Override
+        public String checkException(Exception e) {
+            return COMBINED_INSERT_FAILED;
+        }
+
+    }
+
+    public InsertBatch(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(String.valueOf(maxSize));
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Adds a statement to the batch if it is an INSERT that can be combined with the statements in the batch.
+     *
+     * @param query
+     *            the statement to add
+     *
+     * @return false if the statement cannot be combined with the statements in the batch, in which case they must be
+     *         executed and the batch cleared before the statement is executed or added again
+     */
+    public boolean add(SQLQueryAdapter query) {
+        if (isFull()) {
+            return false;
+        }
+        String statement = query.getUnterminatedQueryString();
+        int rowsStart = getRowsStart(statement);
+        if (rowsStart == -1) {
+            return false;
+        }
+        String statementPrefix = statement.substring(0, rowsStart);
+        if (prefix != null && !prefix.equals(statementPrefix)) {
+            return false;
+        }
+        prefix = statementPrefix;
+        inserts.add(query);
+        rows.add(statement.substring(rowsStart).trim());
+        return true;
+    }
+
+    /**
+     * Returns whether a statement could be added to an empty batch.
+     *
+     * @param query
+     *            the statement
+     *
+     * @return whether the statement is an INSERT that can be combined with others
+     */
+    public static boolean canBeCombined(SQLQueryAdapter query) {
+        return getRowsStart(query.getUnterminatedQueryString()) != -1;
+    }
+
+    public boolean isEmpty() {
+        return inserts.isEmpty();
+    }
+
+    public boolean isFull() {
+        return inserts.size() == maxSize;
+    }
+
+    public int size() {
+        return inserts.size();
+    }
+
+    /**
+     * Returns a single INSERT statement that inserts the rows of all statements in the batch in their order.
+     *
+     * @return the combined statement
+     */
+    public SQLQueryAdapter combine() {
+        if (inserts.isEmpty()) {
+            throw new IllegalStateException();
+        }
+        StringBuilder sb = new StringBuilder(prefix);
+        sb.append(' ');
+        boolean couldAffectSchema = false;
+        for (int i = 0; i < inserts.size(); i++) {
+            if (i != 0) {
+                sb.append(", ");
+            }
+            sb.append(rows.get(i));
+            couldAffectSchema |= inserts.get(i).couldAffectSchema();
+        }
+        sb.append(';');
+        return new CombinedInsert(sb.toString(), couldAffectSchema);
+    }
+
+    /**
+     * Removes all statements from the batch.
+     *
+     * @return the removed statements in the order in which they were added
+     */
+    public List<SQLQueryAdapter> take() {
+        List<SQLQueryAdapter> result = new ArrayList<>(inserts);
+        inserts.clear();
+        rows.clear();
+        prefix = null;
+        return result;
+    }
+
+    // returns the index after the VALUES keyword of an INSERT statement whose remainder consists only of parenthesized
+    // rows, or -1 if the statement is not such an INSERT
+    private static int getRowsStart(String statement) {
+        // whether a backslash escapes a quote depends on the DBMS, so the end of a string literal would be ambiguous
+        if (statement.indexOf('\\') != -1) {
+            return -1;
+        }
+        if (!statement.regionMatches(true, skipWhitespace(statement, 0), "INSERT", 0, "INSERT".length())
+                || NON_ATOMIC_INSERT.matcher(statement).find()) {
+            return -1;
+        }
+        int depth = 0;
+        int i = 0;
+        while (i < statement.length()) {
+            char c = statement.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = findClosingQuote(statement, i);
+                if (i == -1) {
+                    return -1;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && isKeyword(statement, i, "VALUES")) {
+                int rowsStart = i + "VALUES".length();
+                return isRowList(statement, rowsStart) ? rowsStart : -1;
+            } else if (c == ';' || startsComment(statement, i)) {
+                return -1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    private static boolean isRowList(String statement, int start) {
+        int i = skipWhitespace(statement, start);
+        while (true) {
+            if (i >= statement.length() || statement.charAt(i) != '(') {
+                return false;
+            }
+            int depth = 0;
+            do {
+                char c = statement.charAt(i);
+                if (c == '\'' || c == '"' || c == '`') {
+                    i = findClosingQuote(statement, i);
+                    if (i == -1) {
+                        return false;
+                    }
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == ';' || startsComment(statement, i)) {
+                    return false;
+                }
+                i++;
+            } while (depth != 0 && i < statement.length());
+            if (depth != 0) {
+                return false;
+            }
+            i = skipWhitespace(statement, i);
+            if (i == statement.length()) {
+                return true;
+            } else if (statement.charAt(i) != ',') {
+                return false;
+            }
+            i = skipWhitespace(statement, i + 1);
+        }
+    }
+
+    private static boolean startsComment(String statement, int i) {
+        if (i + 1 >= statement.length()) {
+            return false;
+        }
+        char c = statement.charAt(i);
+        char next = statement.charAt(i + 1);
+        return c == '-' && next == '-' || c == '/' && next == '*';
+    }
+
+    private static boolean isKeyword(String statement, int i, String keyword) {
+        int end = i + keyword.length();
+        return (i == 0 || !isIdentifierChar(statement.charAt(i - 1)))
+                && statement.regionMatches(true, i, keyword, 0, keyword.length())
+                && (end == statement.length() || !isIdentifierChar(statement.charAt(end)));
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    private static int skipWhitespace(String statement, int start) {
+        int i = start;
+        while (i < statement.length() && Character.isWhitespace(statement.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // returns the index of the quote that closes the one at start, skipping doubled quotes
+    private static int findClosingQuote(String statement, int start) {
+        char quote = statement.charAt(start);
+        int i = start + 1;
+        while (i < statement.length()) {
+            char c = statement.charAt(i);
+            if (c != quote) {
+                i++;
+            } else if (i + 1 < statement.length() && statement.charAt(i + 1) == quote) {
+                i += 2;
+            } else {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -60,6 +60,8 @@ public abstract class Query<C extends SQLancerDBConnection> implements Loggable
     private <G extends GlobalState<?, ?, C>> void logQueryString(G globalState) {
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(getQueryString());
+        } else if (globalState.getLogger().isLoggingOnFailure()) {
+            globalState.getLogger().logStatementOnFailure(getQueryString());
         }
     }
 
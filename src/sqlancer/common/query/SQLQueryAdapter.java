@@ -5,9 +5,12 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import sqlancer.ExecutionTimer;
 import sqlancer.GlobalState;
-import sqlancer.Main;
 import sqlancer.SQLConnection;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
+import sqlancer.common.metrics.StatementKind;
 
 public class SQLQueryAdapter extends Query<SQLConnection> {
     // SQLQueryAdapter 是一个继承自 Query<SQLConnection> 的类
@@ -119,31 +122,57 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
             // 如果 fills 参数为空，使用 Statement 来执行 SQL 查询
             s = globalState.getConnection().createStatement();
         }
+        boolean success = false;
+        StatementKind kind = StatementKind.classify(query);
+        ExecutionTimer timer = new ExecutionTimer().start();
+        PhaseProfiler.enter(Phase.EXECUTION);
         try {
-            if (fills.length > 0) {
-                // 如果 fills 非空，使用 PreparedStatement 执行
-                ((PreparedStatement) s).execute();
-            } else {
-                // 否则使用 Statement 执行普通的查询
-                s.execute(query);
+            try {
+                if (fills.length > 0) {
+                    // 如果 fills 非空，使用 PreparedStatement 执行
+                    ((PreparedStatement) s).execute();
+                } else {
+                    // 否则使用 Statement 执行普通的查询
+                    s.execute(query);
+                }
+                success = true;
+            } catch (Exception e) {
+                globalState.getMetrics().recordExpectedError(checkException(e));
+            } finally {
+                PhaseProfiler.exit();
+                // 也会被 oracle 直接调用，而不经过 GlobalState.executeStatement
+                globalState.invalidateQueryResults(this);
+                // 记录成功/失败计数和执行时间
+                globalState.getMetrics().recordStatement(kind, success, timer.end().getElapsedNanos());
             }
-            Main.nrSuccessfulActions.addAndGet(1); // 成功执行时增加成功计数
-            return true;
-        } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1); // 出错时增加失败计数
-            checkException(e);
-            return false;
+            // 在 catch 之外记录，这样记录行数时的异常不会被当作 DBMS 的错误
+            if (success && kind == StatementKind.DML) {
+                globalState.recordRowCountChange(this, s.getUpdateCount());
+            }
+            return success;
         } finally {
             s.close(); // 无论成功与否，最后都关闭 Statement
         }
     }
 
-    public void checkException(Exception e) throws AssertionError {
+    /**
+     * Checks that the exception, or one of its causes, is an expected error.
+     *
+     * @param e
+     *            the exception thrown when executing the query
+     *
+     * @return the expected error that matched, see {@link ExpectedErrors#getMatchingError(String)}
+     *
+     * @throws AssertionError
+     *             if the error is not expected
+     */
+    public String checkException(Exception e) throws AssertionError {
         Throwable ex = e;
 
         while (ex != null) {
-            if (expectedErrors.errorIsExpected(ex.getMessage())) {
-                return;
+            String signature = expectedErrors.getMatchingError(ex.getMessage());
+            if (signature != null) {
+                return signature;
             } else {
                 ex = ex.getCause();
             }
@@ -155,31 +184,63 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
     @Override
     public <G extends GlobalState<?, ?, SQLConnection>> SQLancerResultSet executeAndGet(G globalState, String... fills)
             throws SQLException {
+        return executeAndGet(globalState, globalState.getConnection(), fills);
+    }
+
+    /**
+     * Executes the query on a connection other than the one of the global state, such as one of its connection group.
+     *
+     * @param <G>
+     *            the global state type
+     * @param globalState
+     *            the global state, whose metrics are updated
+     * @param connection
+     *            the connection on which the query is executed
+     *
+     * @return the result set, or null if an expected error occurred
+     *
+     * @throws SQLException
+     *             if the statement cannot be created or closed
+     */
+    public <G extends GlobalState<?, ?, SQLConnection>> SQLancerResultSet executeAndGet(G globalState,
+            SQLConnection connection) throws SQLException {
+        return executeAndGet(globalState, connection, new String[0]);
+    }
+
+    private <G extends GlobalState<?, ?, SQLConnection>> SQLancerResultSet executeAndGet(G globalState,
+            SQLConnection connection, String... fills) throws SQLException {
         Statement s;
         if (fills.length > 0) {
-            s = globalState.getConnection().prepareStatement(fills[0]);
+            s = connection.prepareStatement(fills[0]);
             for (int i = 1; i < fills.length; i++) {
                 ((PreparedStatement) s).setString(i, fills[i]);
             }
         } else {
-            s = globalState.getConnection().createStatement();
+            s = connection.createStatement();
         }
         ResultSet result;
+        boolean success = false;
+        ExecutionTimer timer = new ExecutionTimer().start();
+        PhaseProfiler.enter(Phase.EXECUTION);
         try {
             if (fills.length > 0) {
                 result = ((PreparedStatement) s).executeQuery();
             } else {
                 result = s.executeQuery(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            success = true;
             if (result == null) {
                 return null;
             }
             return new SQLancerResultSet(result);
         } catch (Exception e) {
             s.close();
-            Main.nrUnsuccessfulActions.addAndGet(1);
-            checkException(e);
+            globalState.getMetrics().recordExpectedError(checkException(e));
+        } finally {
+            PhaseProfiler.exit();
+            globalState.invalidateQueryResults(this);
+            globalState.getMetrics().recordStatement(StatementKind.classify(query), success,
+                    timer.end().getElapsedNanos());
         }
         return null;
     }
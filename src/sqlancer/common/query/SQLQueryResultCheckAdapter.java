@@ -37,7 +37,7 @@ public class SQLQueryResultCheckAdapter extends SQLQueryAdapter {
             rsChecker.accept(rs);
             return true;
         } catch (Exception e) {
-            checkException(e);
+            globalState.getMetrics().recordExpectedError(checkException(e));
             return false;
         }
     }
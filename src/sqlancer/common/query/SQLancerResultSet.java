@@ -1,6 +1,7 @@
 package sqlancer.common.query;
 
 import java.io.Closeable;
+import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -56,6 +57,49 @@ public class SQLancerResultSet implements Closeable {
         return rs.getLong(i);
     }
 
+    public double getDouble(int i) throws SQLException {
+        return rs.getDouble(i);
+    }
+
+    public boolean getBoolean(int i) throws SQLException {
+        return rs.getBoolean(i);
+    }
+
+    public BigDecimal getBigDecimal(int i) throws SQLException {
+        return rs.getBigDecimal(i);
+    }
+
+    public byte[] getBytes(int i) throws SQLException {
+        return rs.getBytes(i);
+    }
+
+    public boolean wasNull() throws SQLException {
+        return rs.wasNull();
+    }
+
+    public int getColumnCount() throws SQLException {
+        return rs.getMetaData().getColumnCount();
+    }
+
+    /**
+     * Returns the JDBC type of a column, see {@link java.sql.Types}.
+     *
+     * @param i
+     *            the column index, starting from 1
+     *
+     * @return the type
+     *
+     * @throws SQLException
+     *             if the metadata cannot be read
+     */
+    public int getColumnType(int i) throws SQLException {
+        return rs.getMetaData().getColumnType(i);
+    }
+
+    public boolean isSigned(int i) throws SQLException {
+        return rs.getMetaData().isSigned(i);
+    }
+
     // 获取当前行第 i 列的 SQL 数据类型名称
     public String getType(int i) throws SQLException {
         return rs.getMetaData().getColumnTypeName(i);
@@ -1,9 +1,12 @@
 package sqlancer.common.schema;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import sqlancer.IgnoreMeException;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
 
@@ -16,9 +19,13 @@ public class AbstractRelationalTable<C extends AbstractTableColumn<?, ?>, I exte
 
     @Override
     public long getNrRows(G globalState) {
+        if (rowCount == NO_ROW_COUNT_AVAILABLE) {
+            countAllTables(globalState);
+        }
         if (rowCount == NO_ROW_COUNT_AVAILABLE) {
             // name 是继承 AbstractTable 的
             SQLQueryAdapter q = new SQLQueryAdapter("SELECT COUNT(*) FROM " + name);
+            PhaseProfiler.enter(Phase.ROW_COUNT);
             // executeAndGet(G globalState, String... fills)
             // 方法：执行查询，并返回结果集；fills为空，用Statement
             try (SQLancerResultSet query = q.executeAndGet(globalState)) {
@@ -27,15 +34,53 @@ public class AbstractRelationalTable<C extends AbstractTableColumn<?, ?>, I exte
                 }
                 // query对象有个ResultSet的成员变量，调用ResultSet的next方法
                 query.next();
-                rowCount = query.getLong(1);
+                setRowCount(query.getLong(1));
                 return rowCount;
             } catch (Throwable t) {
                 // an exception might be expected, for example, when invalid view is created
                 throw new IgnoreMeException();
+            } finally {
+                PhaseProfiler.exit();
             }
         } else {
             return rowCount;
         }
     }
 
+    // counts the rows of this table together with those of all other tables of the schema whose rows are not counted,
+    // using a single query, since the oracles usually need the counts of all tables; views are not included, since
+    // counting them might be expensive or fail, and if the query fails, each table is counted separately
+    private void countAllTables(G globalState) {
+        if (isView()) {
+            return;
+        }
+        List<AbstractRelationalTable<?, ?, ?>> tables = new ArrayList<>();
+        for (AbstractTable<?, ?, ?> table : globalState.getSchema().getDatabaseTables()) {
+            if (table instanceof AbstractRelationalTable && !table.isView() && !table.isRowCountAvailable()) {
+                tables.add((AbstractRelationalTable<?, ?, ?>) table);
+            }
+        }
+        if (tables.size() < 2 || !tables.contains(this)) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < tables.size(); i++) {
+            if (i != 0) {
+                sb.append(" UNION ALL ");
+            }
+            sb.append("SELECT ").append(i).append(", COUNT(*) FROM ").append(tables.get(i).getName());
+        }
+        SQLQueryAdapter q = new SQLQueryAdapter(sb.toString());
+        PhaseProfiler.enter(Phase.ROW_COUNT);
+        try (SQLancerResultSet rs = q.executeAndGet(globalState)) {
+            while (rs != null && rs.next()) {
+                tables.get(rs.getInt(1)).setRowCount(rs.getLong(2));
+            }
+        } catch (Throwable t) {
+            // counted separately
+        } finally {
+            PhaseProfiler.exit();
+        }
+    }
+
 }
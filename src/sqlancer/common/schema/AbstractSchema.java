@@ -1,6 +1,7 @@
 package sqlancer.common.schema;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -28,6 +29,28 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
         return sb.toString();
     }
 
+    /**
+     * Describes the tables and their columns independently of the order in which the tables were read, so that two
+     * schemas can be compared, for example, to check a schema that was updated incrementally against the database.
+     *
+     * @return a description that is equal for equivalent schemas
+     */
+    public String getCanonicalDescription() {
+        StringBuilder sb = new StringBuilder();
+        databaseTables.stream().sorted(Comparator.comparing(AbstractTable::getName)).forEach(t -> {
+            sb.append(t.isView() ? "view " : "table ").append(t.getName()).append('(');
+            for (int i = 0; i < t.getColumns().size(); i++) {
+                AbstractTableColumn<?, ?> c = t.getColumns().get(i);
+                if (i != 0) {
+                    sb.append(", ");
+                }
+                sb.append(c.getName()).append(' ').append(c.getType());
+            }
+            sb.append(")\n");
+        });
+        return sb.toString();
+    }
+
     public A getRandomTable() {
         return Randomly.fromList(getDatabaseTables());
     }
@@ -18,6 +18,8 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
     private final List<I> indexes;
     private final boolean isView;
     protected long rowCount = NO_ROW_COUNT_AVAILABLE;
+    // the last counted number of rows, adjusted by the rows that statements reported as inserted or deleted since
+    private long estimatedRowCount = NO_ROW_COUNT_AVAILABLE;
 
     protected AbstractTable(String name, List<C> columns, List<I> indexes, boolean isView) {
         this.name = name;
@@ -117,9 +119,59 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
 
     }
 
+    /**
+     * Forgets the number of rows, so that the next call of {@link #getNrRows} counts them again. The estimate of
+     * {@link #getEstimatedNrRows()} is kept.
+     */
     public void recomputeCount() {
         rowCount = NO_ROW_COUNT_AVAILABLE;
     }
 
+    public boolean isRowCountAvailable() {
+        return rowCount != NO_ROW_COUNT_AVAILABLE;
+    }
+
+    protected void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+        this.estimatedRowCount = rowCount;
+    }
+
+    /**
+     * Returns the number of rows if it is known, and otherwise an estimate based on the last count and the rows that
+     * statements reported as inserted or deleted since, without querying the database. Generators can use it, for
+     * example, to avoid joining several large tables.
+     *
+     * @return the (estimated) number of rows, or -1 if the table was never counted
+     */
+    public long getEstimatedNrRows() {
+        return rowCount == NO_ROW_COUNT_AVAILABLE ? estimatedRowCount : rowCount;
+    }
+
+    /**
+     * Sets the estimate, for example, to keep the estimate of a table after the schema was read again.
+     *
+     * @param estimatedRowCount
+     *            the estimated number of rows, or -1 if unknown
+     */
+    public void setEstimatedNrRows(long estimatedRowCount) {
+        this.estimatedRowCount = estimatedRowCount;
+    }
+
+    /**
+     * Records the number of rows that a statement reported as inserted (positive) or deleted (negative). The number of
+     * rows must be counted again, since the statement might have had other effects, such as replacing rows, but the
+     * estimate is adjusted.
+     *
+     * @param delta
+     *            the change in the number of rows
+     */
+    public void recordRowCountChange(long delta) {
+        long estimate = getEstimatedNrRows();
+        rowCount = NO_ROW_COUNT_AVAILABLE;
+        if (estimate != NO_ROW_COUNT_AVAILABLE) {
+            estimatedRowCount = Math.max(0, estimate + delta);
+        }
+    }
+
     public abstract long getNrRows(G globalState);
 }
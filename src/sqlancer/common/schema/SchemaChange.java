@@ -0,0 +1,330 @@
+package sqlancer.common.schema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The effect of an executed statement on the schema, as far as it can be determined from the statement string alone. It
+ * allows {@link sqlancer.GlobalState} to update the schema incrementally rather than to read it again from the database
+ * after each statement that could affect it.
+ *
+ * Only the shapes of statements that SQLancer generates are recognized. All other statements, including statements that
+ * contain comments, several statements, or qualified names, are {@link Kind#UNKNOWN}.
+ */
+public final class SchemaChange {
+
+    public enum Kind {
+        /**
+         * The statement only changes data, for example, an INSERT, UPDATE, or DELETE.
+         */
+        NONE, CREATE_TABLE, CREATE_VIEW, CREATE_INDEX, DROP_TABLE, DROP_VIEW, DROP_INDEX,
+        /**
+         * ALTER TABLE t RENAME TO u, where u is the {@link SchemaChange#getNewName() new name}.
+         */
+        RENAME_TABLE,
+        /**
+         * Any other ALTER TABLE statement, which changes the columns or constraints of a single table.
+         */
+        ALTER_TABLE,
+        /**
+         * The effect of the statement could not be determined, so the schema must be read again.
+         */
+        UNKNOWN;
+    }
+
+    private static final SchemaChange NONE = new SchemaChange(Kind.NONE, null, null, 0);
+    private static final SchemaChange UNKNOWN = new SchemaChange(Kind.UNKNOWN, null, null, 0);
+    private static final String[] DATA_KEYWORDS = { "INSERT", "REPLACE", "UPDATE", "DELETE", "REINDEX", "ANALYZE" };
+    // the recognized statements are decided by their first tokens, the remaining ones are only checked for a second
+    // statement
+    private static final int MAX_LEADING_TOKENS = 10;
+
+    private final Kind kind;
+    private final String name;
+    private final String newName;
+    // 1 if the statement inserts rows, -1 if it deletes them, and 0 otherwise
+    private final int rowCountSign;
+
+    private SchemaChange(Kind kind, String name, String newName) {
+        this(kind, name, newName, 0);
+    }
+
+    private SchemaChange(Kind kind, String name, String newName, int rowCountSign) {
+        this.kind = kind;
+        this.name = name;
+        this.newName = newName;
+        this.rowCountSign = rowCountSign;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the unquoted name of the created, dropped, or altered table, view, or index, or for {@link Kind#NONE}, of
+     * the table whose rows are inserted, updated, or deleted.
+     *
+     * @return the name, or null if it could not be determined
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getNewName() {
+        return newName;
+    }
+
+    /**
+     * Returns by how much the statement changed the number of rows of the {@link #getName() table}, assuming that it
+     * did not replace rows and that no triggers or foreign keys changed rows.
+     *
+     * @param updateCount
+     *            the number of rows that the DBMS reported as changed by the statement
+     *
+     * @return the change in the number of rows
+     */
+    public long getRowCountDelta(long updateCount) {
+        return rowCountSign * updateCount;
+    }
+
+    @Override
+    public String toString() {
+        if (newName != null) {
+            return kind + " " + name + " " + newName;
+        } else if (name != null) {
+            return kind + " " + name;
+        } else {
+            return kind.toString();
+        }
+    }
+
+    /**
+     * Determines the effect of a statement on the schema.
+     *
+     * @param statement
+     *            the statement string
+     *
+     * @return the change, which is {@link Kind#UNKNOWN} if it could not be determined
+     */
+    public static SchemaChange parse(String statement) {
+        List<String> tokens = tokenize(statement);
+        if (tokens == null || tokens.isEmpty()) {
+            return UNKNOWN;
+        }
+        String first = tokens.get(0);
+        for (String keyword : DATA_KEYWORDS) {
+            if (keyword.equalsIgnoreCase(first)) {
+                return parseData(tokens);
+            }
+        }
+        if ("CREATE".equalsIgnoreCase(first)) {
+            return parseCreate(tokens);
+        } else if ("DROP".equalsIgnoreCase(first)) {
+            return parseDrop(tokens);
+        } else if ("ALTER".equalsIgnoreCase(first)) {
+            return parseAlter(tokens);
+        } else {
+            return UNKNOWN;
+        }
+    }
+
+    private static SchemaChange parseData(List<String> tokens) {
+        int i = 1;
+        if (i + 1 < tokens.size() && "OR".equalsIgnoreCase(tokens.get(i))) {
+            // INSERT OR ROLLBACK rolls back the DDL statements of the current transaction if it fails
+            if ("ROLLBACK".equalsIgnoreCase(tokens.get(i + 1))) {
+                return UNKNOWN;
+            }
+            i += 2;
+        }
+        int rowCountSign;
+        switch (tokens.get(0).toUpperCase(Locale.ROOT)) {
+        case "INSERT":
+        case "REPLACE":
+            rowCountSign = 1;
+            i = skipKeywords(tokens, i, "INTO");
+            break;
+        case "DELETE":
+            rowCountSign = -1;
+            i = skipKeywords(tokens, i, "FROM");
+            break;
+        case "UPDATE":
+            rowCountSign = 0;
+            break;
+        default:
+            return NONE;
+        }
+        return new SchemaChange(Kind.NONE, getUnqualifiedName(tokens, i), null, rowCountSign);
+    }
+
+    private static SchemaChange parseCreate(List<String> tokens) {
+        int i = 1;
+        while (i < tokens.size() && isAnyKeyword(tokens.get(i), "TEMP", "TEMPORARY", "UNIQUE", "VIRTUAL")) {
+            i++;
+        }
+        if (i >= tokens.size()) {
+            return UNKNOWN;
+        }
+        Kind kind;
+        switch (tokens.get(i).toUpperCase(Locale.ROOT)) {
+        case "TABLE":
+            kind = Kind.CREATE_TABLE;
+            break;
+        case "VIEW":
+            kind = Kind.CREATE_VIEW;
+            break;
+        case "INDEX":
+            kind = Kind.CREATE_INDEX;
+            break;
+        default:
+            return UNKNOWN;
+        }
+        i = skipKeywords(tokens, i + 1, "IF", "NOT", "EXISTS");
+        String name = getUnqualifiedName(tokens, i);
+        return name == null ? UNKNOWN : new SchemaChange(kind, name, null);
+    }
+
+    private static SchemaChange parseDrop(List<String> tokens) {
+        if (tokens.size() < 3) {
+            return UNKNOWN;
+        }
+        Kind kind;
+        switch (tokens.get(1).toUpperCase(Locale.ROOT)) {
+        case "TABLE":
+            kind = Kind.DROP_TABLE;
+            break;
+        case "VIEW":
+            kind = Kind.DROP_VIEW;
+            break;
+        case "INDEX":
+            kind = Kind.DROP_INDEX;
+            break;
+        default:
+            return UNKNOWN;
+        }
+        int i = skipKeywords(tokens, 2, "IF", "EXISTS");
+        // a list of names or a trailing CASCADE could drop more than the named object
+        if (i != tokens.size() - 1) {
+            return UNKNOWN;
+        }
+        String name = getUnqualifiedName(tokens, i);
+        return name == null ? UNKNOWN : new SchemaChange(kind, name, null);
+    }
+
+    private static SchemaChange parseAlter(List<String> tokens) {
+        if (tokens.size() < 4 || !"TABLE".equalsIgnoreCase(tokens.get(1))) {
+            return UNKNOWN;
+        }
+        String name = getUnqualifiedName(tokens, 2);
+        if (name == null) {
+            return UNKNOWN;
+        }
+        if (tokens.size() == 6 && "RENAME".equalsIgnoreCase(tokens.get(3)) && "TO".equalsIgnoreCase(tokens.get(4))) {
+            String newName = getUnqualifiedName(tokens, 5);
+            return newName == null ? UNKNOWN : new SchemaChange(Kind.RENAME_TABLE, name, newName);
+        }
+        return new SchemaChange(Kind.ALTER_TABLE, name, null);
+    }
+
+    private static boolean isAnyKeyword(String token, String... keywords) {
+        for (String keyword : keywords) {
+            if (keyword.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int skipKeywords(List<String> tokens, int start, String... keywords) {
+        int i = start;
+        for (String keyword : keywords) {
+            if (i >= tokens.size() || !keyword.equalsIgnoreCase(tokens.get(i))) {
+                return start;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static String getUnqualifiedName(List<String> tokens, int i) {
+        if (i >= tokens.size() || i + 1 < tokens.size() && ".".equals(tokens.get(i + 1))) {
+            return null;
+        }
+        String name = tokens.get(i);
+        if (name.isEmpty() || !Character.isLetterOrDigit(name.charAt(0)) && name.charAt(0) != '_') {
+            return null;
+        }
+        return name;
+    }
+
+    // splits the leading tokens of a statement into words, unquoted identifiers, and single characters, and returns
+    // null if the statement contains a comment or a second statement
+    private static List<String> tokenize(String statement) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = statement.length();
+        boolean ended = false;
+        while (i < length) {
+            char c = statement.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (ended) {
+                return null;
+            }
+            int end;
+            if (c == '\'' || c == '"' || c == '`' || c == '[') {
+                int close = findClosingQuote(statement, i);
+                if (close == -1) {
+                    return null;
+                }
+                end = close + 1;
+                // string literals are not needed to recognize a statement
+                if (c != '\'' && tokens.size() < MAX_LEADING_TOKENS) {
+                    tokens.add(statement.substring(i + 1, close));
+                }
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$') {
+                end = i + 1;
+                while (end < length && (Character.isLetterOrDigit(statement.charAt(end)) || statement.charAt(end) == '_'
+                        || statement.charAt(end) == '$')) {
+                    end++;
+                }
+                if (tokens.size() < MAX_LEADING_TOKENS) {
+                    tokens.add(statement.substring(i, end));
+                }
+            } else if (c == '-' && i + 1 < length && statement.charAt(i + 1) == '-'
+                    || c == '/' && i + 1 < length && statement.charAt(i + 1) == '*') {
+                return null;
+            } else {
+                end = i + 1;
+                if (c == ';') {
+                    ended = true;
+                } else if (tokens.size() < MAX_LEADING_TOKENS) {
+                    tokens.add(String.valueOf(c));
+                }
+            }
+            i = end;
+        }
+        return tokens;
+    }
+
+    private static int findClosingQuote(String statement, int start) {
+        char open = statement.charAt(start);
+        char close = open == '[' ? ']' : open;
+        int i = start + 1;
+        while (i < statement.length()) {
+            if (statement.charAt(i) != close) {
+                i++;
+            } else if (close != ']' && i + 1 < statement.length() && statement.charAt(i + 1) == close) {
+                // an escaped quote, such as 'it''s'
+                i += 2;
+            } else {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
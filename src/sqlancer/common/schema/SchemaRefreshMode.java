@@ -0,0 +1,23 @@
+package sqlancer.common.schema;
+
+/**
+ * How {@link sqlancer.GlobalState} updates its schema after a statement that could affect it was executed.
+ */
+public enum SchemaRefreshMode {
+
+    /**
+     * Reads the whole schema from the database again.
+     */
+    FULL,
+    /**
+     * Applies the {@link SchemaChange} of the statement to the schema and only reads the affected tables, if the DBMS
+     * supports it. The whole schema is read when the change is unknown or ambiguous.
+     */
+    INCREMENTAL,
+    /**
+     * Like {@link #INCREMENTAL}, but additionally reads the whole schema and fails if it differs from the incrementally
+     * updated one, which is useful to test the incremental updates of a DBMS.
+     */
+    VERIFY;
+
+}
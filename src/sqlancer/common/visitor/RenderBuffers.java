@@ -0,0 +1,56 @@
+package sqlancer.common.visitor;
+
+/**
+ * Per-thread pool of the {@link StringBuilder}s into which the to-string visitors render queries, so that rendering a
+ * query does not allocate and repeatedly grow a new builder. Visitors nest, for example, when a subquery is rendered by
+ * a separate visitor, so each thread keeps a small stack of builders rather than a single one.
+ */
+public final class RenderBuffers {
+
+    private static final int MAX_POOLED_BUFFERS = 8;
+    // larger builders are dropped instead of being pooled, so that a single huge query does not pin its memory
+    private static final int MAX_POOLED_CAPACITY = 1 << 16;
+    private static final ThreadLocal<RenderBuffers> CURRENT = ThreadLocal.withInitial(RenderBuffers::new);
+
+    private final StringBuilder[] buffers = new StringBuilder[MAX_POOLED_BUFFERS];
+    private int size;
+
+    private RenderBuffers() {
+    }
+
+    /**
+     * Returns an empty builder that the caller owns until it passes it to {@link #release(StringBuilder)}.
+     *
+     * @return an empty builder
+     */
+    public static StringBuilder acquire() {
+        RenderBuffers pool = CURRENT.get();
+        if (pool.size == 0) {
+            return new StringBuilder(256);
+        }
+        StringBuilder sb = pool.buffers[--pool.size];
+        pool.buffers[pool.size] = null;
+        return sb;
+    }
+
+    /**
+     * Returns a builder to the pool of the current thread. The builder must not be used afterwards.
+     *
+     * @param sb
+     *            a builder obtained by {@link #acquire()}
+     */
+    public static void release(StringBuilder sb) {
+        RenderBuffers pool = CURRENT.get();
+        if (pool.size == MAX_POOLED_BUFFERS || sb.capacity() > MAX_POOLED_CAPACITY) {
+            return;
+        }
+        for (int i = 0; i < pool.size; i++) {
+            if (pool.buffers[i] == sb) {
+                throw new IllegalStateException("builder released twice");
+            }
+        }
+        sb.setLength(0);
+        pool.buffers[pool.size++] = sb;
+    }
+
+}
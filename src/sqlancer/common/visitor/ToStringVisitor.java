@@ -6,7 +6,8 @@ import sqlancer.common.visitor.UnaryOperation.OperatorKind;
 
 public abstract class ToStringVisitor<T> extends NodeVisitor<T> {
 
-    protected final StringBuilder sb = new StringBuilder();
+    protected final StringBuilder sb = RenderBuffers.acquire();
+    private String result;
 
     public void visit(BinaryOperation<T> op) {
         sb.append('(');
@@ -67,8 +68,18 @@ public abstract class ToStringVisitor<T> extends NodeVisitor<T> {
         }
     }
 
+    /**
+     * Returns the rendered string. The visitor must not be used to render further nodes afterwards, since its buffer is
+     * reused by other visitors.
+     *
+     * @return the rendered string
+     */
     public String get() {
-        return sb.toString();
+        if (result == null) {
+            result = sb.toString();
+            RenderBuffers.release(sb);
+        }
+        return result;
     }
 
 }
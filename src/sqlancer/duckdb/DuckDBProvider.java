@@ -3,9 +3,12 @@ package sqlancer.duckdb;
 import java.io.File;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.duckdb.DuckDBConnection;
+
 import com.google.auto.service.AutoService;
 
 import sqlancer.AbstractAction;
@@ -21,6 +24,8 @@ import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
+import sqlancer.duckdb.DuckDBSchema.DuckDBTable;
+import sqlancer.duckdb.gen.DuckDBBulkDataGenerator;
 import sqlancer.duckdb.gen.DuckDBDeleteGenerator;
 import sqlancer.duckdb.gen.DuckDBIndexGenerator;
 import sqlancer.duckdb.gen.DuckDBInsertGenerator;
@@ -107,6 +112,22 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
             return DuckDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        public boolean supportsPopulationTransactions() {
+            return true;
+        }
+
+        @Override
+        public boolean supportsConnectionGroup() {
+            return true;
+        }
+
+        @Override
+        protected SQLConnection openGroupConnection() throws SQLException {
+            // a new connection to the URL would open another in-memory database
+            return new SQLConnection(getConnection().unwrap(DuckDBConnection.class).duplicate());
+        }
+
     }
 
     @Override
@@ -130,6 +151,21 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
         se.executeStatements();
     }
 
+    @Override
+    public boolean supportsBulkData() {
+        return true;
+    }
+
+    @Override
+    protected void generateBulkData(DuckDBGlobalState globalState, long nrRows) throws Exception {
+        for (DuckDBTable table : globalState.getSchema().getDatabaseTablesWithoutViews()) {
+            SQLQueryAdapter query = new DuckDBBulkDataGenerator().getQuery(table, nrRows);
+            if (query != null) {
+                globalState.executeStatement(query);
+            }
+        }
+    }
+
     public void tryDeleteFile(String fname) {
         try {
             File f = new File(fname);
@@ -164,6 +200,62 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
         return new SQLConnection(conn);
     }
 
+    private static String getTemplatePath(DuckDBGlobalState template) {
+        File dir = new File("." + File.separator + "databases");
+        if (!dir.exists()) {
+            dir.mkdir();
+        }
+        return new File(dir, template.getDatabaseName() + "-template.duckdb").getAbsolutePath();
+    }
+
+    private static String getCurrentDatabase(Statement s) throws SQLException {
+        try (ResultSet rs = s.executeQuery("SELECT current_database()")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    @Override
+    public boolean saveTemplate(DuckDBGlobalState globalState) throws SQLException {
+        String templatePath = getTemplatePath(globalState);
+        tryDeleteDatabase(templatePath);
+        try (Statement s = globalState.getConnection().createStatement()) {
+            String database = getCurrentDatabase(s);
+            s.execute(String.format("ATTACH '%s' AS sqlancer_template", templatePath.replace("'", "''")));
+            try {
+                s.execute("COPY FROM DATABASE " + database + " TO sqlancer_template");
+            } finally {
+                s.execute("DETACH sqlancer_template");
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection cloneDatabase(DuckDBGlobalState template, DuckDBGlobalState globalState)
+            throws SQLException {
+        SQLConnection con = createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            String database = getCurrentDatabase(s);
+            s.execute(String.format("ATTACH '%s' AS sqlancer_template (READ_ONLY)",
+                    getTemplatePath(template).replace("'", "''")));
+            try {
+                s.execute("COPY FROM DATABASE sqlancer_template TO " + database);
+            } finally {
+                s.execute("DETACH sqlancer_template");
+            }
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public void dropTemplate(DuckDBGlobalState template) {
+        tryDeleteDatabase(getTemplatePath(template));
+    }
+
     @Override
     public String getDBMSName() {
         return "duckdb";
@@ -0,0 +1,94 @@
+package sqlancer.duckdb.gen;
+
+import sqlancer.common.gen.AbstractBulkDataGenerator;
+import sqlancer.duckdb.DuckDBErrors;
+import sqlancer.duckdb.DuckDBSchema.DuckDBColumn;
+import sqlancer.duckdb.DuckDBSchema.DuckDBTable;
+
+/**
+ * Loads many rows into a table with an INSERT that selects from the <code>range()</code> table function, which DuckDB
+ * evaluates vectorized, like its appender.
+ */
+public class DuckDBBulkDataGenerator extends AbstractBulkDataGenerator<DuckDBTable, DuckDBColumn> {
+
+    public DuckDBBulkDataGenerator() {
+        DuckDBErrors.addInsertErrors(errors);
+        DuckDBErrors.addExpressionErrors(errors);
+        errors.add("Constraint Error");
+        errors.add("Conversion Error");
+        errors.add("Out of Range Error");
+    }
+
+    @Override
+    protected String getInsertPrefix(DuckDBTable table) {
+        // rows with a duplicate primary key are skipped
+        return table.getColumns().stream().anyMatch(DuckDBColumn::isPrimaryKey) ? "INSERT OR IGNORE" : "INSERT";
+    }
+
+    @Override
+    protected String getRowSource(long nrRows) {
+        return "range(" + nrRows + ") AS bulk(i)";
+    }
+
+    @Override
+    protected String getRowNumber() {
+        return "i";
+    }
+
+    @Override
+    protected String hash(long salt) {
+        return "CAST(hash(i + " + salt + ") % " + HASH_MODULUS + " AS BIGINT)";
+    }
+
+    @Override
+    protected String toValue(DuckDBColumn column, String number) {
+        switch (column.getType().getPrimitiveDataType()) {
+        case FLOAT:
+            return "(" + number + " / 4.0)";
+        case VARCHAR:
+            return "('v' || " + number + ")";
+        case BOOLEAN:
+            return "(" + number + " % 2 = 0)";
+        case DATE:
+            return "(DATE '1970-01-01' + CAST(" + number + " AS INTEGER))";
+        case TIMESTAMP:
+            return "(TIMESTAMP '1970-01-01 00:00:00' + to_seconds(" + number + "))";
+        case NULL:
+            return "NULL";
+        default:
+            return number;
+        }
+    }
+
+    @Override
+    protected boolean canInsertInto(DuckDBColumn column) {
+        // the schema contains a rowid pseudo column for tables without a primary key
+        return !"rowid".equals(column.getName());
+    }
+
+    @Override
+    protected boolean canBeNull(DuckDBColumn column) {
+        return column.isNullable() && !column.isPrimaryKey();
+    }
+
+    @Override
+    protected boolean mustBeUnique(DuckDBColumn column) {
+        return column.isPrimaryKey();
+    }
+
+    @Override
+    protected long getMaxDomainSize(DuckDBColumn column) {
+        switch (column.getType().getPrimitiveDataType()) {
+        case INT:
+            int size = column.getType().getSize();
+            return size == 8 ? Long.MAX_VALUE : 1L << 8 * size;
+        case DATE:
+        case TIMESTAMP:
+            // about 2700 years around 1970
+            return 1_000_000;
+        default:
+            return Long.MAX_VALUE;
+        }
+    }
+
+}
@@ -3,6 +3,7 @@ package sqlancer.duckdb.gen;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import sqlancer.IgnoreMeException;
@@ -10,6 +11,9 @@ import sqlancer.Randomly;
 import sqlancer.common.ast.BinaryOperatorNode.Operator;
 import sqlancer.common.ast.newast.NewOrderingTerm.Ordering;
 import sqlancer.common.ast.newast.NewUnaryPostfixOperatorNode;
+import sqlancer.common.ast.newast.NodeInterner;
+import sqlancer.common.ast.newast.NodeInterner.BinaryNodeFactory;
+import sqlancer.common.ast.newast.NodeInterner.UnaryNodeFactory;
 import sqlancer.common.gen.NoRECGenerator;
 import sqlancer.common.gen.TLPWhereGenerator;
 import sqlancer.common.gen.UntypedExpressionGenerator;
@@ -39,11 +43,18 @@ public final class DuckDBExpressionGenerator extends UntypedExpressionGenerator<
         implements NoRECGenerator<DuckDBSelect, DuckDBJoin, DuckDBExpression, DuckDBTable, DuckDBColumn>,
         TLPWhereGenerator<DuckDBSelect, DuckDBJoin, DuckDBExpression, DuckDBTable, DuckDBColumn> {
 
+    private static final Function<DuckDBColumn, DuckDBExpression> COLUMN_REFERENCE = DuckDBColumnReference::new;
+    private static final UnaryNodeFactory<DuckDBExpression, DuckDBExpression> UNARY_PREFIX = sqlancer.duckdb.ast.DuckDBUnaryPrefixOperator::new;
+    private static final UnaryNodeFactory<DuckDBExpression, DuckDBExpression> UNARY_POSTFIX = sqlancer.duckdb.ast.DuckDBUnaryPostfixOperator::new;
+    private static final BinaryNodeFactory<DuckDBExpression, DuckDBExpression> BINARY = DuckDBBinaryOperator::new;
+
     private final DuckDBGlobalState globalState;
+    private final NodeInterner interner;
     private List<DuckDBTable> tables;
 
     public DuckDBExpressionGenerator(DuckDBGlobalState globalState) {
         this.globalState = globalState;
+        this.interner = globalState.getNodeInterner();
     }
 
     private enum Expression {
@@ -89,23 +100,20 @@ public final class DuckDBExpressionGenerator extends UntypedExpressionGenerator<
         Expression expr = Randomly.fromList(possibleOptions);
         switch (expr) {
         case COLLATE:
-            return new sqlancer.duckdb.ast.DuckDBUnaryPostfixOperator(generateExpression(depth + 1),
-                    DuckDBCollate.getRandom());
+            return interner.unary(generateExpression(depth + 1), DuckDBCollate.getRandom(), UNARY_POSTFIX);
         case UNARY_PREFIX:
-            return new sqlancer.duckdb.ast.DuckDBUnaryPrefixOperator(generateExpression(depth + 1),
-                    DuckDBUnaryPrefixOperator.getRandom());
+            return interner.unary(generateExpression(depth + 1), DuckDBUnaryPrefixOperator.getRandom(), UNARY_PREFIX);
         case UNARY_POSTFIX:
-            return new sqlancer.duckdb.ast.DuckDBUnaryPostfixOperator(generateExpression(depth + 1),
-                    DuckDBUnaryPostfixOperator.getRandom());
+            return interner.unary(generateExpression(depth + 1), DuckDBUnaryPostfixOperator.getRandom(), UNARY_POSTFIX);
         case BINARY_COMPARISON:
             Operator op = DuckDBBinaryComparisonOperator.getRandom();
-            return new DuckDBBinaryOperator(generateExpression(depth + 1), generateExpression(depth + 1), op);
+            return interner.binary(generateExpression(depth + 1), generateExpression(depth + 1), op, BINARY);
         case BINARY_LOGICAL:
             op = DuckDBBinaryLogicalOperator.getRandom();
-            return new DuckDBBinaryOperator(generateExpression(depth + 1), generateExpression(depth + 1), op);
+            return interner.binary(generateExpression(depth + 1), generateExpression(depth + 1), op, BINARY);
         case BINARY_ARITHMETIC:
-            return new DuckDBBinaryOperator(generateExpression(depth + 1), generateExpression(depth + 1),
-                    DuckDBBinaryArithmeticOperator.getRandom());
+            return interner.binary(generateExpression(depth + 1), generateExpression(depth + 1),
+                    DuckDBBinaryArithmeticOperator.getRandom(), BINARY);
         case CAST:
             return new DuckDBCastOperation(generateExpression(depth + 1),
                     DuckDBCompositeDataType.getRandomWithoutNull());
@@ -133,7 +141,7 @@ public final class DuckDBExpressionGenerator extends UntypedExpressionGenerator<
     @Override
     protected DuckDBExpression generateColumn() {
         DuckDBColumn column = Randomly.fromList(columns);
-        return new DuckDBColumnReference(column);
+        return interner.columnReference(column, COLUMN_REFERENCE);
     }
 
     @Override
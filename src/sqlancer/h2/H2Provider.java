@@ -74,6 +74,11 @@ public class H2Provider extends SQLProviderAdapter<H2GlobalState, H2Options> {
             return H2Schema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        public boolean supportsPopulationTransactions() {
+            return true;
+        }
+
     }
 
     @Override
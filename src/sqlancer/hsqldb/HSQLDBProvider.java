@@ -106,5 +106,10 @@ public class HSQLDBProvider extends SQLProviderAdapter<HSQLDBProvider.HSQLDBGlob
             return HSQLDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        public boolean supportsPopulationTransactions() {
+            return true;
+        }
+
     }
 }
@@ -41,11 +41,6 @@ public final class MaterializeToStringVisitor extends ToStringVisitor<Materializ
         sb.append(constant.getTextRepresentation());
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(MaterializePostfixOperation op) {
         sb.append("(");
@@ -127,11 +127,6 @@ public class MySQLToStringVisitor extends ToStringVisitor<MySQLExpression> imple
         sb.append(constant.getTextRepresentation());
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(MySQLColumnReference column) {
         sb.append(column.getColumn().getFullQualifiedName());
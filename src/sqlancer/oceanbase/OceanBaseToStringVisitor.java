@@ -126,11 +126,6 @@ public class OceanBaseToStringVisitor extends ToStringVisitor<OceanBaseExpressio
         sb.append(constant.getTextRepresentation());
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(OceanBaseColumnReference column) {
         if (column.getColumn().getType() == OceanBaseDataType.FLOAT || column.getColumn().isZeroFill()) {
@@ -43,11 +43,6 @@ public final class PostgresToStringVisitor extends ToStringVisitor<PostgresExpre
         sb.append(constant.getTextRepresentation());
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(PostgresColumnReference column) {
         sb.append(column.getColumn().getFullQualifiedName());
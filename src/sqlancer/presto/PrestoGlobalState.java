@@ -1,7 +1,10 @@
 package sqlancer.presto;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
+import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 
 public class PrestoGlobalState extends SQLGlobalState<PrestoOptions, PrestoSchema> {
@@ -10,4 +13,21 @@ public class PrestoGlobalState extends SQLGlobalState<PrestoOptions, PrestoSchem
     protected PrestoSchema readSchema() throws SQLException {
         return PrestoSchema.fromConnection(getConnection(), getDatabaseName());
     }
+
+    @Override
+    public boolean supportsConnectionGroup() {
+        return true;
+    }
+
+    @Override
+    protected SQLConnection openGroupConnection() throws SQLException {
+        Connection con = PrestoProvider.connect(this);
+        try (Statement s = con.createStatement()) {
+            s.execute("USE " + getDbmsSpecificOptions().catalog + "." + getDatabaseName());
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return new SQLConnection(con);
+    }
 }
@@ -72,6 +72,19 @@ public class PrestoProvider extends SQLProviderAdapter<PrestoGlobalState, Presto
 
     @Override
     public SQLConnection createDatabase(PrestoGlobalState globalState) throws SQLException {
+        String catalogName = globalState.getDbmsSpecificOptions().catalog;
+        String databaseName = globalState.getDatabaseName();
+        Connection con = connect(globalState);
+        List<String> schemaNames = getSchemaNames(con, catalogName, databaseName);
+        dropExistingTables(con, catalogName, databaseName, schemaNames);
+        dropSchema(globalState, con, catalogName, databaseName);
+        createSchema(globalState, con, catalogName, databaseName);
+        useSchema(globalState, con, catalogName, databaseName);
+        return new SQLConnection(con);
+
+    }
+
+    static Connection connect(PrestoGlobalState globalState) throws SQLException {
         String username = globalState.getOptions().getUserName();
         String password = globalState.getOptions().getPassword();
         boolean useSSl = true;
@@ -89,16 +102,8 @@ public class PrestoProvider extends SQLProviderAdapter<PrestoGlobalState, Presto
             port = PrestoOptions.DEFAULT_PORT;
         }
         String catalogName = globalState.getDbmsSpecificOptions().catalog;
-        String databaseName = globalState.getDatabaseName();
         String url = String.format("jdbc:presto://%s:%d/%s?SSL=%b", host, port, catalogName, useSSl);
-        Connection con = DriverManager.getConnection(url, username, password);
-        List<String> schemaNames = getSchemaNames(con, catalogName, databaseName);
-        dropExistingTables(con, catalogName, databaseName, schemaNames);
-        dropSchema(globalState, con, catalogName, databaseName);
-        createSchema(globalState, con, catalogName, databaseName);
-        useSchema(globalState, con, catalogName, databaseName);
-        return new SQLConnection(con);
-
+        return DriverManager.getConnection(url, username, password);
     }
 
     private static void useSchema(PrestoGlobalState globalState, Connection con, String catalogName,
@@ -3,6 +3,7 @@ package sqlancer.sqlite3;
 import java.sql.SQLException;
 
 import sqlancer.SQLGlobalState;
+import sqlancer.common.schema.SchemaChange;
 import sqlancer.sqlite3.schema.SQLite3Schema;
 
 public class SQLite3GlobalState extends SQLGlobalState<SQLite3Options, SQLite3Schema> {
@@ -12,4 +13,24 @@ public class SQLite3GlobalState extends SQLGlobalState<SQLite3Options, SQLite3Sc
         return SQLite3Schema.fromConnection(this);
     }
 
+    @Override
+    public boolean supportsPopulationTransactions() {
+        return true;
+    }
+
+    @Override
+    public boolean hasDynamicallyTypedResults() {
+        return true;
+    }
+
+    @Override
+    protected SQLite3Schema applySchemaChange(SQLite3Schema current, SchemaChange change, boolean success)
+            throws SQLException {
+        if (!success) {
+            // SQLite executes DDL statements atomically
+            return current;
+        }
+        return current.applyChange(this, change);
+    }
+
 }
@@ -3,7 +3,9 @@ package sqlancer.sqlite3;
 import java.io.File;
 import java.io.IOException;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +22,7 @@ import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.common.query.SQLancerResultSet;
@@ -39,6 +42,7 @@ import sqlancer.sqlite3.gen.ddl.SQLite3DropTableGenerator;
 import sqlancer.sqlite3.gen.ddl.SQLite3IndexGenerator;
 import sqlancer.sqlite3.gen.ddl.SQLite3TableGenerator;
 import sqlancer.sqlite3.gen.ddl.SQLite3ViewGenerator;
+import sqlancer.sqlite3.gen.dml.SQLite3BulkDataGenerator;
 import sqlancer.sqlite3.gen.dml.SQLite3DeleteGenerator;
 import sqlancer.sqlite3.gen.dml.SQLite3InsertGenerator;
 import sqlancer.sqlite3.gen.dml.SQLite3StatTableGenerator;
@@ -222,6 +226,21 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         }
     }
 
+    @Override
+    public boolean supportsBulkData() {
+        return true;
+    }
+
+    @Override
+    protected void generateBulkData(SQLite3GlobalState globalState, long nrRows) throws Exception {
+        for (SQLite3Table table : globalState.getSchema().getDatabaseTablesWithoutViewsWithoutVirtualTables()) {
+            SQLQueryAdapter query = new SQLite3BulkDataGenerator().getQuery(table, nrRows);
+            if (query != null) {
+                globalState.executeStatement(query);
+            }
+        }
+    }
+
     private void checkTablesForGeneratedColumnLoops(SQLite3GlobalState globalState) throws Exception {
         for (SQLite3Table table : globalState.getSchema().getDatabaseTables()) {
             SQLQueryAdapter q = new SQLQueryAdapter("SELECT * FROM " + table.getName(),
@@ -285,11 +304,7 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
 
     @Override
     public SQLConnection createDatabase(SQLite3GlobalState globalState) throws SQLException {
-        File dir = new File("." + File.separator + "databases");
-        if (!dir.exists()) {
-            dir.mkdir();
-        }
-        File dataBase = new File(dir, globalState.getDatabaseName() + ".db");
+        File dataBase = getDatabaseFile(globalState.getDatabaseName() + ".db");
         if (dataBase.exists() && ((SQLite3GlobalState) globalState).getDbmsSpecificOptions().deleteIfExists) {
             dataBase.delete();
         }
@@ -297,6 +312,61 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         return new SQLConnection(DriverManager.getConnection(url));
     }
 
+    private static File getDatabaseFile(String fileName) {
+        File dir = new File("." + File.separator + "databases");
+        if (!dir.exists()) {
+            dir.mkdir();
+        }
+        return new File(dir, fileName);
+    }
+
+    private static String getTemplatePath(SQLite3GlobalState template) {
+        return getDatabaseFile(template.getDatabaseName() + "-template.db").getAbsolutePath();
+    }
+
+    @Override
+    public boolean saveTemplate(SQLite3GlobalState globalState) throws SQLException {
+        try (Statement s = globalState.getConnection().createStatement()) {
+            // TEMP tables, views, and triggers are not stored in the database file
+            try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM sqlite_temp_master")) {
+                if (!rs.next() || rs.getInt(1) != 0) {
+                    return false;
+                }
+            }
+            s.execute(String.format("backup to '%s'", getTemplatePath(globalState).replace("'", "''")));
+        }
+        return true;
+    }
+
+    @Override
+    public SQLConnection cloneDatabase(SQLite3GlobalState template, SQLite3GlobalState globalState)
+            throws SQLException {
+        SQLConnection con = createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            s.execute(String.format("restore from '%s'", getTemplatePath(template).replace("'", "''")));
+            // PRAGMAs such as cache_size or case_sensitive_like are connection settings that are not restored
+            for (Query<?> q : template.getState().getStatements()) {
+                String statement = q.getQueryString();
+                if (statement.regionMatches(true, 0, "PRAGMA", 0, "PRAGMA".length())) {
+                    try {
+                        s.execute(statement);
+                    } catch (SQLException ignored) {
+                        // the PRAGMA also failed when generating the template
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public void dropTemplate(SQLite3GlobalState template) {
+        new File(getTemplatePath(template)).delete();
+    }
+
     @Override
     public String getDBMSName() {
         return "sqlite3";
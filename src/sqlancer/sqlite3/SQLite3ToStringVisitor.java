@@ -328,11 +328,6 @@ public class SQLite3ToStringVisitor extends ToStringVisitor<SQLite3Expression> i
         }
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(SQLite3Function func) {
         sb.append(func.getFunc());
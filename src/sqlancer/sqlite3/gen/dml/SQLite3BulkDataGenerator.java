@@ -0,0 +1,72 @@
+package sqlancer.sqlite3.gen.dml;
+
+import sqlancer.common.gen.AbstractBulkDataGenerator;
+import sqlancer.sqlite3.SQLite3Errors;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Column;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
+
+/**
+ * Loads many rows into a table with an INSERT OR IGNORE that selects from a recursive common table expression, so that
+ * rows that violate a constraint are skipped rather than failing the whole statement.
+ */
+public class SQLite3BulkDataGenerator extends AbstractBulkDataGenerator<SQLite3Table, SQLite3Column> {
+
+    public SQLite3BulkDataGenerator() {
+        SQLite3Errors.addInsertUpdateErrors(errors);
+        SQLite3Errors.addInsertNowErrors(errors);
+        SQLite3Errors.addExpectedExpressionErrors(errors);
+        errors.add("[SQLITE_FULL]");
+    }
+
+    @Override
+    protected String getInsertPrefix(SQLite3Table table) {
+        return "INSERT OR IGNORE";
+    }
+
+    @Override
+    protected String getRowSource(long nrRows) {
+        return "(WITH RECURSIVE bulk(i) AS (SELECT 0 UNION ALL SELECT i + 1 FROM bulk WHERE i < " + (nrRows - 1)
+                + ") SELECT i FROM bulk)";
+    }
+
+    @Override
+    protected String getRowNumber() {
+        return "i";
+    }
+
+    @Override
+    protected String hash(long salt) {
+        // SQLite has no hash function, so the row numbers are scrambled by a multiplicative hash
+        return "((i + " + salt + ") * 2654435761 % " + HASH_MODULUS + ")";
+    }
+
+    @Override
+    protected String toValue(SQLite3Column column, String number) {
+        switch (column.getType()) {
+        case REAL:
+            return "(" + number + " / 4.0)";
+        case TEXT:
+            return "('v' || " + number + ")";
+        case BINARY:
+            return "CAST(('b' || " + number + ") AS BLOB)";
+        default:
+            return number;
+        }
+    }
+
+    @Override
+    protected boolean canInsertInto(SQLite3Column column) {
+        return !column.isGenerated();
+    }
+
+    @Override
+    protected boolean canBeNull(SQLite3Column column) {
+        return !column.isPrimaryKey();
+    }
+
+    @Override
+    protected boolean mustBeUnique(SQLite3Column column) {
+        return column.isOnlyPrimaryKey();
+    }
+
+}
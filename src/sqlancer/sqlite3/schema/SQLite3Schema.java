@@ -19,6 +19,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.SchemaChange;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.sqlite3.SQLite3GlobalState;
 import sqlancer.sqlite3.ast.SQLite3Constant;
@@ -258,6 +259,11 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
         this.indexNames = indexNames;
     }
 
+    @Override
+    public String getCanonicalDescription() {
+        return super.getCanonicalDescription() + "indexes " + indexNames.stream().sorted().collect(Collectors.toList());
+    }
+
     @Override
     public String toString() {
         StringBuffer sb = new StringBuffer();
@@ -270,7 +276,6 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
 
     public static SQLite3Schema fromConnection(SQLite3GlobalState globalState) throws SQLException {
         List<SQLite3Table> databaseTables = new ArrayList<>();
-        List<String> indexNames = new ArrayList<>();
         SQLConnection con = globalState.getConnection();
 
         try (Statement s = con.createStatement()) {
@@ -278,49 +283,150 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                     + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table' UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' GROUP BY name;")) {
                 while (rs.next()) {
                     String tableName = rs.getString("name");
-                    String tableType = rs.getString("category");
-                    boolean isReadOnly;
                     if (databaseTables.stream().anyMatch(t -> t.getName().contentEquals(tableName))) {
                         continue;
                     }
-                    String sqlString = rs.getString("sql") == null ? "" : rs.getString("sql").toLowerCase();
-                    if (tableName.startsWith("sqlite_") || tableType.equals("index") || tableType.equals("trigger")
-                            || tableName.endsWith("_idx") || tableName.endsWith("_docsize")
-                            || tableName.endsWith("_content") || tableName.endsWith("_data")
-                            || tableName.endsWith("_config") || tableName.endsWith("_segdir")
-                            || tableName.endsWith("_stat") || tableName.endsWith("_segments")
-                            || tableName.contains("_")) {
-                        continue; // TODO
-                    } else if (sqlString.contains("using dbstat")) {
-                        isReadOnly = true;
-                    } else if (sqlString.contains("content=''")) {
-                        isReadOnly = true;
-                    } else {
-                        isReadOnly = false;
-                    }
-                    boolean withoutRowid = sqlString.contains("without rowid");
-                    boolean isView = tableType.contentEquals("view");
-                    boolean isVirtual = sqlString.contains("virtual");
-                    boolean isDbStatsTable = sqlString.contains("using dbstat");
-                    List<SQLite3Column> databaseColumns = getTableColumns(con, tableName, sqlString, isView,
-                            isDbStatsTable);
-                    SQLite3Table t = new SQLite3Table(tableName, databaseColumns,
-                            tableType.contentEquals("temp_table") ? TableKind.TEMP : TableKind.MAIN, withoutRowid,
-                            isView, isVirtual, isReadOnly);
-                    if (isRowIdTable(withoutRowid, isView, isVirtual)) {
-                        String rowId = Randomly.fromList(ROWID_STRINGS);
-                        SQLite3Column rowid = new SQLite3Column(rowId, SQLite3DataType.INT, true, null, true);
-                        t.addRowid(rowid);
-                        rowid.setTable(t);
-                    }
-                    for (SQLite3Column c : databaseColumns) {
-                        c.setTable(t);
+                    SQLite3Table t = readTable(con, tableName, rs.getString("category"), rs.getString("sql"));
+                    if (t != null) {
+                        databaseTables.add(t);
                     }
-                    databaseTables.add(t);
                 }
             } catch (SQLException e) {
                 // ignore
             }
+        }
+
+        return new SQLite3Schema(databaseTables, readIndexNames(con));
+    }
+
+    /**
+     * Applies the change of a successfully executed statement to this schema, and only reads the tables that it
+     * affected from the database.
+     *
+     * @param globalState
+     *            the state whose connection is used to read the affected tables
+     * @param change
+     *            the change of the statement
+     *
+     * @return the updated schema, this schema if the statement did not change it, or null if the whole schema must be
+     *         read again
+     *
+     * @throws SQLException
+     *             if reading an affected table fails
+     */
+    public SQLite3Schema applyChange(SQLite3GlobalState globalState, SchemaChange change) throws SQLException {
+        SQLConnection con = globalState.getConnection();
+        String name = change.getName();
+        switch (change.getKind()) {
+        case NONE:
+            return this;
+        case CREATE_TABLE:
+        case CREATE_VIEW:
+            return withTable(con, name, name);
+        case ALTER_TABLE:
+        case RENAME_TABLE:
+        case DROP_TABLE:
+            // SQLite rewrites the views that refer to a renamed table or column, and a view that refers to a dropped
+            // table or column can no longer be read
+            if (!getViews().isEmpty()) {
+                return null;
+            }
+            SQLite3Schema schema = withTable(con, name,
+                    change.getKind() == SchemaChange.Kind.RENAME_TABLE ? change.getNewName() : name);
+            if (schema == null || change.getKind() != SchemaChange.Kind.DROP_TABLE) {
+                return schema;
+            }
+            // the indexes of the table were dropped with it
+            return new SQLite3Schema(new ArrayList<>(schema.getDatabaseTables()), readIndexNames(con));
+        case DROP_VIEW:
+            if (getViews().stream().anyMatch(v -> !v.getName().equalsIgnoreCase(name))) {
+                return null;
+            }
+            return withTable(con, name, name);
+        case CREATE_INDEX:
+            if (indexNames.contains(name)) {
+                return this;
+            }
+            List<String> createdIndexNames = new ArrayList<>(indexNames);
+            createdIndexNames.add(name);
+            return new SQLite3Schema(new ArrayList<>(getDatabaseTables()), createdIndexNames);
+        case DROP_INDEX:
+            List<String> remainingIndexNames = new ArrayList<>(indexNames);
+            remainingIndexNames.removeIf(n -> n.equalsIgnoreCase(name));
+            return new SQLite3Schema(new ArrayList<>(getDatabaseTables()), remainingIndexNames);
+        default:
+            return null;
+        }
+    }
+
+    // replaces the table with the given name by the one with the (possibly same) new name in the database; reading the
+    // table again rather than only removing it also handles a dropped temporary table that hid a table of the same name
+    private SQLite3Schema withTable(SQLConnection con, String name, String newName) throws SQLException {
+        List<SQLite3Table> tables = new ArrayList<>(getDatabaseTables());
+        tables.removeIf(t -> t.getName().equalsIgnoreCase(name) || t.getName().equalsIgnoreCase(newName));
+        String quotedName = "'" + newName.replace("'", "''") + "'";
+        SQLite3Table table = null;
+        try (Statement s = con.createStatement()) {
+            try (ResultSet rs = s.executeQuery("SELECT name, type as category, sql FROM sqlite_master WHERE name = "
+                    + quotedName + " UNION SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master "
+                    + "WHERE type='table' AND name = " + quotedName
+                    + " UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' AND name = "
+                    + quotedName)) {
+                int nrRows = 0;
+                while (rs.next()) {
+                    if (nrRows++ != 0) {
+                        // a temporary table hides a table of the same name
+                        return null;
+                    }
+                    table = readTable(con, rs.getString("name"), rs.getString("category"), rs.getString("sql"));
+                }
+            }
+        }
+        if (table != null) {
+            tables.add(table);
+        }
+        return new SQLite3Schema(tables, indexNames);
+    }
+
+    private static SQLite3Table readTable(SQLConnection con, String tableName, String tableType, String sql)
+            throws SQLException {
+        boolean isReadOnly;
+        String sqlString = sql == null ? "" : sql.toLowerCase();
+        if (tableName.startsWith("sqlite_") || tableType.equals("index") || tableType.equals("trigger")
+                || tableName.endsWith("_idx") || tableName.endsWith("_docsize") || tableName.endsWith("_content")
+                || tableName.endsWith("_data") || tableName.endsWith("_config") || tableName.endsWith("_segdir")
+                || tableName.endsWith("_stat") || tableName.endsWith("_segments") || tableName.contains("_")) {
+            return null; // TODO
+        } else if (sqlString.contains("using dbstat")) {
+            isReadOnly = true;
+        } else if (sqlString.contains("content=''")) {
+            isReadOnly = true;
+        } else {
+            isReadOnly = false;
+        }
+        boolean withoutRowid = sqlString.contains("without rowid");
+        boolean isView = tableType.contentEquals("view");
+        boolean isVirtual = sqlString.contains("virtual");
+        boolean isDbStatsTable = sqlString.contains("using dbstat");
+        List<SQLite3Column> databaseColumns = getTableColumns(con, tableName, sqlString, isView, isDbStatsTable);
+        SQLite3Table t = new SQLite3Table(tableName, databaseColumns,
+                tableType.contentEquals("temp_table") ? TableKind.TEMP : TableKind.MAIN, withoutRowid, isView,
+                isVirtual, isReadOnly);
+        if (isRowIdTable(withoutRowid, isView, isVirtual)) {
+            String rowId = Randomly.fromList(ROWID_STRINGS);
+            SQLite3Column rowid = new SQLite3Column(rowId, SQLite3DataType.INT, true, null, true);
+            t.addRowid(rowid);
+            rowid.setTable(t);
+        }
+        for (SQLite3Column c : databaseColumns) {
+            c.setTable(t);
+        }
+        return t;
+    }
+
+    private static List<String> readIndexNames(SQLConnection con) throws SQLException {
+        List<String> indexNames = new ArrayList<>();
+        try (Statement s = con.createStatement()) {
             try (ResultSet rs = s.executeQuery(
                     "SELECT name FROM SQLite_master WHERE type = 'index' UNION SELECT name FROM sqlite_temp_master WHERE type='index'")) {
                 while (rs.next()) {
@@ -336,8 +442,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                 }
             }
         }
-
-        return new SQLite3Schema(databaseTables, indexNames);
+        return indexNames;
     }
 
     // https://www.sqlite.org/rowidtable.html
@@ -373,8 +478,11 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                     } else {
                         collate = SQLite3CollateSequence.BINARY;
                     }
-                    databaseColumns.add(new SQLite3Column(columnName, columnType,
-                            columnTypeString.contentEquals("INTEGER"), isPrimaryKey, collate));
+                    SQLite3Column column = new SQLite3Column(columnName, columnType,
+                            columnTypeString.contentEquals("INTEGER"), isPrimaryKey, collate);
+                    // table_xinfo marks virtual and stored generated columns as hidden 2 and 3
+                    column.generated = columnRs.getInt("hidden") >= 2;
+                    databaseColumns.add(column);
                 }
             }
         } catch (SQLException e) {
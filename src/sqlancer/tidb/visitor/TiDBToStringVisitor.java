@@ -27,10 +27,6 @@ public class TiDBToStringVisitor extends ToStringVisitor<TiDBExpression> impleme
         sb.append(c.toString());
     }
 
-    public String getString() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(TiDBColumnReference c) {
         if (c.getColumn().getTable() == null) {
@@ -63,7 +63,7 @@ public interface TiDBVisitor {
     static String asString(TiDBExpression expr) {
         TiDBToStringVisitor v = new TiDBToStringVisitor();
         v.visit(expr);
-        return v.getString();
+        return v.get();
     }
 
 }
@@ -33,11 +33,6 @@ public final class YSQLToStringVisitor extends ToStringVisitor<YSQLExpression> i
         YSQLVisitor.super.visit(expr);
     }
 
-    @Override
-    public String get() {
-        return sb.toString();
-    }
-
     @Override
     public void visit(YSQLConstant constant) {
         sb.append(constant.getTextRepresentation());
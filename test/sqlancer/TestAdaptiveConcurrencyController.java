@@ -0,0 +1,93 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TestAdaptiveConcurrencyController {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long MILLISECOND = 1_000_000L;
+
+    private long time;
+    private long successful;
+    private long unsuccessful;
+    private long timed;
+    private long latency;
+
+    private int step(AdaptiveConcurrencyController controller, long nrSuccessful, long nrUnsuccessful,
+            long averageLatency) {
+        time += SECOND;
+        successful += nrSuccessful;
+        unsuccessful += nrUnsuccessful;
+        timed += nrSuccessful + nrUnsuccessful;
+        latency += (nrSuccessful + nrUnsuccessful) * averageLatency;
+        return controller.adjust(time, successful, unsuccessful, timed, latency);
+    }
+
+    private AdaptiveConcurrencyController createController(ConcurrencyLimiter limiter, int max) {
+        AdaptiveConcurrencyController controller = new AdaptiveConcurrencyController(limiter, 1, max);
+        time = System.nanoTime();
+        controller.adjust(time, 0, 0, 0, 0);
+        return controller;
+    }
+
+    @Test
+    public void testStartsAtHalfOfMaximum() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(16);
+        createController(limiter, 16);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    public void testAdditiveIncreaseUpToMaximum() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(4);
+        AdaptiveConcurrencyController controller = createController(limiter, 4);
+        assertEquals(3, step(controller, 1000, 100, MILLISECOND));
+        assertEquals(4, step(controller, 1200, 120, MILLISECOND));
+        assertEquals(4, step(controller, 1200, 120, MILLISECOND));
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    public void testNoFeedbackKeepsLimit() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(8);
+        AdaptiveConcurrencyController controller = createController(limiter, 8);
+        assertEquals(4, step(controller, 0, 0, 0));
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseOnLatency() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(16);
+        AdaptiveConcurrencyController controller = createController(limiter, 16);
+        assertEquals(9, step(controller, 1000, 0, MILLISECOND));
+        assertEquals(6, step(controller, 1000, 0, 10 * MILLISECOND));
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseOnErrors() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(16);
+        AdaptiveConcurrencyController controller = createController(limiter, 16);
+        assertEquals(9, step(controller, 1000, 100, MILLISECOND));
+        assertEquals(6, step(controller, 1000, 1000, MILLISECOND));
+    }
+
+    @Test
+    public void testMultiplicativeDecreaseWhenIncreaseDoesNotPay() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(16);
+        AdaptiveConcurrencyController controller = createController(limiter, 16);
+        assertEquals(9, step(controller, 1000, 0, MILLISECOND));
+        assertEquals(6, step(controller, 500, 0, MILLISECOND));
+        assertEquals(7, step(controller, 500, 0, MILLISECOND));
+    }
+
+    @Test
+    public void testLimitNeverBelowMinimum() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(2);
+        AdaptiveConcurrencyController controller = createController(limiter, 2);
+        assertEquals(2, step(controller, 1000, 0, MILLISECOND));
+        assertEquals(1, step(controller, 1000, 0, 10 * MILLISECOND));
+        assertEquals(1, step(controller, 1000, 0, 100 * MILLISECOND));
+    }
+
+}
@@ -1,5 +1,7 @@
 package sqlancer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
 
 import java.sql.SQLException;
@@ -60,6 +62,25 @@ public class TestComparatorHelper {
         });
     }
 
+    @Test
+    public void testAssumeResultSetsAreEqualWithUnequalDuplicateCounts() {
+        List<String> r1 = Arrays.asList("a", "a", "b");
+        List<String> r2 = Arrays.asList("a", "b", "b");
+        // NullPointerException is raised instead of AssertionError, see above
+        assertThrowsExactly(NullPointerException.class, () -> {
+            ComparatorHelper.assumeResultSetsAreEqual(r1, r2, "", Arrays.asList(""), state);
+        });
+    }
+
+    @Test
+    public void testRemoveTrailingZeros() {
+        for (String value : Arrays.asList("1.0", "1.000", "1.05", "10", "100", "0.0", ".0", "1.", "", "0", "1.0\n",
+                "1.0\r\n", "1.0\n\n", "1.00\u2028", "a.0b.00", "-0.0", "1e10", "1.0E10")) {
+            assertEquals(value.replaceAll("[\\.]0+$", ""), ComparatorHelper.removeTrailingZeros(value), value);
+        }
+        assertNull(ComparatorHelper.removeTrailingZeros(null));
+    }
+
     @Test
     public void testAssumeResultSetsAreEqualWithCanonicalizationRule() {
         List<String> r1 = Arrays.asList("a", "b", "c");
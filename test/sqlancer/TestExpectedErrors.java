@@ -3,7 +3,9 @@ package sqlancer;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -156,4 +158,13 @@ public class TestExpectedErrors {
         assertTrue(errors.errorIsExpected("c"));
         assertFalse(errors.errorIsExpected("aa"));
     }
+
+    @Test
+    public void testGetMatchingError() {
+        ExpectedErrors errors = ExpectedErrors.newErrors().with("UNIQUE constraint failed")
+                .withRegexString("no such column: c\\d+").build();
+        assertEquals("UNIQUE constraint failed", errors.getMatchingError("UNIQUE constraint failed: t0.c0"));
+        assertEquals("no such column: c\\d+", errors.getMatchingError("no such column: c42"));
+        assertNull(errors.getMatchingError("database disk image is malformed"));
+    }
 }
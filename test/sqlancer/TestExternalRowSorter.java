@@ -0,0 +1,77 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TestExternalRowSorter {
+
+    @Test
+    public void testInMemory() {
+        try (ExternalRowSorter sorter = new ExternalRowSorter(1 << 20)) {
+            List<ResultRow> rows = addRandomRows(sorter, 1000, 10);
+            assertFalse(sorter.hasSpilled());
+            assertSorted(rows, sorter);
+        }
+    }
+
+    @Test
+    public void testSpilled() {
+        try (ExternalRowSorter sorter = new ExternalRowSorter(1000)) {
+            List<ResultRow> rows = addRandomRows(sorter, 10000, 10);
+            assertTrue(sorter.hasSpilled());
+            assertEquals(10000, sorter.size());
+            assertSorted(rows, sorter);
+        }
+    }
+
+    @Test
+    public void testSpilledRowLargerThanBuffer() {
+        try (ExternalRowSorter sorter = new ExternalRowSorter(1000)) {
+            List<ResultRow> rows = addRandomRows(sorter, 100, 100_000);
+            assertTrue(sorter.hasSpilled());
+            assertSorted(rows, sorter);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        try (ExternalRowSorter sorter = new ExternalRowSorter(1000)) {
+            assertFalse(sorter.sorted().hasNext());
+        }
+    }
+
+    private static List<ResultRow> addRandomRows(ExternalRowSorter sorter, int count, int maxLength) {
+        Random random = new Random(0);
+        List<ResultRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // few distinct rows, so that there are duplicates across the runs
+            byte[] data = String.valueOf(random.nextInt(count / 4 + 1)).repeat(1 + random.nextInt(maxLength))
+                    .getBytes(StandardCharsets.US_ASCII);
+            ResultRow row = new ResultRow(data, data.length);
+            rows.add(row);
+            sorter.add(row);
+        }
+        return rows;
+    }
+
+    private static void assertSorted(List<ResultRow> rows, ExternalRowSorter sorter) {
+        List<ResultRow> expected = new ArrayList<>(rows);
+        Collections.sort(expected);
+        List<ResultRow> actual = new ArrayList<>();
+        for (Iterator<ResultRow> iterator = sorter.sorted(); iterator.hasNext();) {
+            actual.add(iterator.next());
+        }
+        assertEquals(expected, actual);
+    }
+
+}
@@ -0,0 +1,161 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.SQLQueryAdapter;
+
+public class TestPopulationTransaction {
+
+    @Test
+    public void testCommitsWhenFull() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            execute(connection, "CREATE TABLE t0(c0 INT)");
+            PopulationTransaction transaction = new PopulationTransaction(new SQLConnection(connection), 3);
+            execute(transaction, connection, "INSERT INTO t0 VALUES (1)");
+            execute(transaction, connection, "INSERT INTO t0 VALUES (2)");
+            assertFalse(connection.getAutoCommit());
+            execute(transaction, connection, "INSERT INTO t0 VALUES (3)");
+            assertTrue(connection.getAutoCommit());
+            assertEquals(List.of(1, 2, 3), getValues(connection, "SELECT c0 FROM t0 ORDER BY c0"));
+        }
+    }
+
+    @Test
+    public void testOtherStatementCommits() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            execute(connection, "CREATE TABLE t0(c0 INT)");
+            PopulationTransaction transaction = new PopulationTransaction(new SQLConnection(connection), 10);
+            execute(transaction, connection, "INSERT INTO t0 VALUES (1)");
+            assertFalse(connection.getAutoCommit());
+            execute(transaction, connection, "CREATE INDEX i0 ON t0(c0)");
+            assertTrue(connection.getAutoCommit());
+            execute(transaction, connection, "INSERT OR FAIL INTO t0 VALUES (2)");
+            assertTrue(connection.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void testFailingStatementSQLite() throws SQLException {
+        assertFailingStatementIsUndone("jdbc:sqlite::memory:");
+    }
+
+    @Test
+    public void testFailingStatementDuckDB() throws SQLException {
+        // DuckDB does not support savepoints and aborts the transaction
+        assertFailingStatementIsUndone("jdbc:duckdb:");
+    }
+
+    @Test
+    public void testFailingStatementH2() throws SQLException {
+        assertFailingStatementIsUndone("jdbc:h2:mem:");
+    }
+
+    @Test
+    public void testFailingStatementHSQLDB() throws SQLException {
+        // HSQLDB removes a savepoint when rolling back to it
+        assertFailingStatementIsUndone("jdbc:hsqldb:mem:populationtransaction");
+    }
+
+    private static void assertFailingStatementIsUndone(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url)) {
+            execute(connection, "CREATE TABLE t0(c0 INT PRIMARY KEY)");
+            PopulationTransaction transaction = new PopulationTransaction(new SQLConnection(connection), 10);
+            assertTrue(execute(transaction, connection, "INSERT INTO t0 VALUES (1)"));
+            assertTrue(execute(transaction, connection, "INSERT INTO t0 VALUES (2)"));
+            assertFalse(execute(transaction, connection, "INSERT INTO t0 VALUES (3), (1)"));
+            assertTrue(execute(transaction, connection, "UPDATE t0 SET c0 = c0 + 10"));
+            transaction.close();
+            assertTrue(connection.getAutoCommit());
+            assertEquals(List.of(11, 12), getValues(connection, "SELECT c0 FROM t0 ORDER BY c0"));
+        }
+    }
+
+    @Test
+    public void testExplicitTransaction() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            execute(connection, "CREATE TABLE t0(c0 INT)");
+            PopulationTransaction transaction = new PopulationTransaction(new SQLConnection(connection), 10);
+            execute(transaction, connection, "BEGIN TRANSACTION;");
+            execute(transaction, connection, "INSERT INTO t0 VALUES (1)");
+            assertTrue(connection.getAutoCommit());
+            execute(transaction, connection, "ROLLBACK TRANSACTION;");
+            execute(transaction, connection, "INSERT INTO t0 VALUES (2)");
+            assertFalse(connection.getAutoCommit());
+            transaction.close();
+            assertEquals(List.of(2), getValues(connection, "SELECT c0 FROM t0"));
+        }
+    }
+
+    @Test
+    public void testFailingCommit() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            execute(connection, "PRAGMA foreign_keys = ON");
+            execute(connection, "CREATE TABLE t0(c0 INT PRIMARY KEY)");
+            execute(connection, "CREATE TABLE t1(c0 INT REFERENCES t0(c0) DEFERRABLE INITIALLY DEFERRED)");
+            PopulationTransaction transaction = new PopulationTransaction(new SQLConnection(connection), 10);
+            // the foreign key is only checked by the commit, while it fails the statement in autocommit mode
+            assertTrue(execute(transaction, connection, "INSERT INTO t1 VALUES (2)"));
+            assertTrue(execute(transaction, connection, "INSERT INTO t0 VALUES (1)"));
+            transaction.close();
+            assertTrue(connection.getAutoCommit());
+            assertEquals(List.of(), getValues(connection, "SELECT c0 FROM t1"));
+            assertEquals(List.of(1), getValues(connection, "SELECT c0 FROM t0"));
+        }
+    }
+
+    @Test
+    public void testStatementEndsTransaction() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            execute(connection, "CREATE TABLE t0(c0 INT UNIQUE ON CONFLICT ROLLBACK)");
+            PopulationTransaction transaction = new PopulationTransaction(new SQLConnection(connection), 10);
+            assertTrue(execute(transaction, connection, "INSERT INTO t0 VALUES (1)"));
+            // rolls back the whole transaction, but only the statement in autocommit mode
+            assertFalse(execute(transaction, connection, "INSERT INTO t0 VALUES (1)"));
+            assertTrue(connection.getAutoCommit());
+            assertTrue(execute(transaction, connection, "INSERT INTO t0 VALUES (2)"));
+            transaction.close();
+            assertEquals(List.of(1, 2), getValues(connection, "SELECT c0 FROM t0 ORDER BY c0"));
+        }
+    }
+
+    private static boolean execute(PopulationTransaction transaction, Connection connection, String statement)
+            throws SQLException {
+        SQLQueryAdapter query = new SQLQueryAdapter(statement);
+        transaction.begin(query);
+        boolean success = execute(connection, statement);
+        transaction.end(query, success);
+        return success;
+    }
+
+    private static boolean execute(Connection connection, String statement) {
+        try (Statement s = connection.createStatement()) {
+            s.execute(statement);
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static List<Integer> getValues(Connection connection, String query) throws SQLException {
+        List<Integer> values = new ArrayList<>();
+        try (Statement s = connection.createStatement(); ResultSet rs = s.executeQuery(query)) {
+            while (rs.next()) {
+                values.add(rs.getInt(1));
+            }
+        }
+        return values;
+    }
+
+}
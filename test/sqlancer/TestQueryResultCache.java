@@ -0,0 +1,105 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.h2.H2Options;
+import sqlancer.h2.H2Schema;
+
+public class TestQueryResultCache {
+
+    private static final Object KIND = new Object();
+    private static final Object OTHER_KIND = new Object();
+
+    @Test
+    public void testNormalize() {
+        assertEquals("SELECT * FROM t0 WHERE c0", QueryResultCache.normalize(" SELECT *\n FROM  t0\tWHERE c0;"));
+        assertEquals("SELECT 'a  b' FROM \"t 0\"", QueryResultCache.normalize("SELECT  'a  b' FROM \"t 0\" ;"));
+        assertEquals("SELECT ';'", QueryResultCache.normalize("SELECT ';'"));
+        assertEquals("", QueryResultCache.normalize(" ; "));
+    }
+
+    @Test
+    public void testGet() {
+        QueryResultCache cache = new QueryResultCache(1 << 20);
+        Object result = new Object();
+        cache.put(KIND, "SELECT 1;", result, 0);
+        assertSame(result, cache.get(KIND, "SELECT  1"));
+        assertNull(cache.get(OTHER_KIND, "SELECT 1"));
+        assertNull(cache.get(KIND, "SELECT 2"));
+        cache.clear();
+        assertNull(cache.get(KIND, "SELECT 1"));
+    }
+
+    @Test
+    public void testQueriesThatChangeTheDatabase() {
+        assertTrue(QueryResultCache.mightChangeDatabase("WITH x AS (SELECT 1) INSERT INTO t0 SELECT * FROM x"));
+        assertTrue(QueryResultCache.mightChangeDatabase("SELECT c0 INTO t1 FROM t0"));
+        assertTrue(QueryResultCache.mightChangeDatabase("SELECT nextval('s0')"));
+        assertFalse(QueryResultCache.mightChangeDatabase("SELECT t0.c0 FROM t0 WHERE (t0.c0) > 1"));
+        QueryResultCache cache = new QueryResultCache(1 << 20);
+        cache.put(KIND, "SELECT setval('s0', 1)", 1, 0);
+        assertNull(cache.get(KIND, "SELECT setval('s0', 1)"));
+    }
+
+    @Test
+    public void testEviction() {
+        QueryResultCache cache = new QueryResultCache(10_000);
+        for (int i = 0; i < 10; i++) {
+            cache.put(KIND, "SELECT " + i, i, 1000);
+            // keeps the first result recently used
+            assertEquals(0, cache.get(KIND, "SELECT 0"));
+        }
+        assertEquals(8, cache.size());
+        assertNull(cache.get(KIND, "SELECT 1"));
+        assertEquals(9, cache.get(KIND, "SELECT 9"));
+        // a result that exceeds the limit on its own is not cached
+        cache.put(KIND, "SELECT 10", 10, 10_000);
+        assertNull(cache.get(KIND, "SELECT 10"));
+    }
+
+    @Test
+    public void testClearedForNewConnection() throws SQLException {
+        // like the reducers, which create a database for each candidate and reuse the global state
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--query-result-cache-mb", "1");
+        SQLGlobalState<H2Options, H2Schema> state = new SQLGlobalState<H2Options, H2Schema>() {
+
+            @Override
+            protected H2Schema readSchema() throws SQLException {
+                return H2Schema.fromConnection(getConnection(), getDatabaseName());
+            }
+
+            @Override
+            public MainOptions getOptions() {
+                return options;
+            }
+        };
+        try (SQLConnection first = new SQLConnection(DriverManager.getConnection("jdbc:h2:mem:"));
+                SQLConnection second = new SQLConnection(DriverManager.getConnection("jdbc:h2:mem:"))) {
+            state.setConnection(first);
+            QueryResultCache cache = state.getQueryResultCache();
+            cache.put(KIND, "SELECT * FROM t0", 1, 0);
+            assertEquals(1, cache.get(KIND, "SELECT * FROM t0"));
+            state.setConnection(second);
+            assertNull(cache.get(KIND, "SELECT * FROM t0"));
+        }
+    }
+
+    @Test
+    public void testNone() {
+        QueryResultCache.NONE.put(KIND, "SELECT 1", 1, 0);
+        assertNull(QueryResultCache.NONE.get(KIND, "SELECT 1"));
+    }
+
+}
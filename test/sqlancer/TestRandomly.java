@@ -10,12 +10,15 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
+import sqlancer.Randomly.RandomNumberGenerator;
+
 public class TestRandomly {
 
     private static final int NR_MIN_RUNS = 100000;
@@ -223,6 +226,24 @@ public class TestRandomly {
         }
     }
 
+    @Test
+    public void testGeneratorSeed() {
+        for (RandomNumberGenerator generator : RandomNumberGenerator.values()) {
+            Random r1 = generator.create(123);
+            Random r2 = generator.create(123);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(r1.nextLong(), r2.nextLong());
+                int bounded = r1.nextInt(10);
+                assertEquals(bounded, r2.nextInt(10));
+                assertTrue(bounded >= 0 && bounded < 10);
+                double d = r1.nextDouble();
+                assertEquals(d, r2.nextDouble());
+                assertTrue(d >= 0 && d < 1);
+            }
+            assertNotEquals(generator.create(123).nextLong(), generator.create(124).nextLong());
+        }
+    }
+
     private List<String> getRandomValueList(Randomly r) {
         List<String> values = new ArrayList<>();
         for (int i = 0; i < 1000; i++) {
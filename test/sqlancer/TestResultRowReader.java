@@ -0,0 +1,97 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.SQLancerResultSet;
+
+public class TestResultRowReader {
+
+    @Test
+    public void testAllColumns() throws SQLException {
+        List<ResultRow> rows = getRows("jdbc:sqlite::memory:", true, "SELECT 1, 'a', NULL UNION ALL SELECT 1, 'b', 2");
+        assertEquals(2, rows.size());
+        assertNotEquals(rows.get(0), rows.get(1));
+        assertEquals("(1, a, null)", rows.get(0).toString());
+        assertEquals("(1, b, 2)", rows.get(1).toString());
+    }
+
+    @Test
+    public void testSingleColumn() throws SQLException {
+        assertEquals("abc", getRows("jdbc:sqlite::memory:", true, "SELECT 'abc'").get(0).toString());
+    }
+
+    @Test
+    public void testDynamicTypes() throws SQLException {
+        // SQLite reports the type of the value in each row
+        List<ResultRow> rows = getRows("jdbc:sqlite::memory:", true,
+                "SELECT 1 UNION ALL SELECT 'a' UNION ALL SELECT 1.5 UNION ALL SELECT x'ff' UNION ALL SELECT NULL");
+        assertEquals("[1, a, 1.5, x'ff', null]", rows.toString());
+    }
+
+    @Test
+    public void testNullAndString() throws SQLException {
+        List<ResultRow> rows = getRows("jdbc:sqlite::memory:", true,
+                "SELECT NULL UNION ALL SELECT 'null' UNION ALL SELECT ''");
+        assertNotEquals(rows.get(0), rows.get(1));
+        assertNotEquals(rows.get(0), rows.get(2));
+    }
+
+    @Test
+    public void testIntegralValues() throws SQLException {
+        // like the strings from which trailing zeros are removed
+        List<ResultRow> rows = getRows("jdbc:h2:mem:", false,
+                "SELECT * FROM (VALUES (CAST(1 AS INT), CAST(1.0 AS DOUBLE), CAST(1.00 AS DECIMAL(4, 2)), "
+                        + "CAST(-0.0 AS DOUBLE)))");
+        assertEquals("(1, 1, 1, 0)", rows.get(0).toString());
+    }
+
+    @Test
+    public void testFloatingPointRounding() throws SQLException {
+        List<ResultRow> rows = getRows("jdbc:duckdb:", false,
+                "SELECT 0.1::DOUBLE + 0.2::DOUBLE UNION ALL SELECT 0.3::DOUBLE UNION ALL SELECT 0.3000001::DOUBLE");
+        assertEquals(rows.get(0), rows.get(1));
+        assertNotEquals(rows.get(1), rows.get(2));
+    }
+
+    @Test
+    public void testDecimal() throws SQLException {
+        List<ResultRow> rows = getRows("jdbc:duckdb:", false,
+                "SELECT 1.50::DECIMAL(4, 2) UNION ALL SELECT 1.5::DECIMAL(4, 2) UNION ALL SELECT NULL::DECIMAL(4, 2)");
+        assertEquals(rows.get(0), rows.get(1));
+        assertEquals("[1.5, 1.5, null]", rows.toString());
+    }
+
+    @Test
+    public void testUnsignedBigint() throws SQLException {
+        List<ResultRow> rows = getRows("jdbc:duckdb:", false, "SELECT 18446744073709551615::UBIGINT, -1::BIGINT");
+        assertEquals("(18446744073709551615, -1)", rows.get(0).toString());
+    }
+
+    @Test
+    public void testNonAsciiString() throws SQLException {
+        assertEquals("ä€", getRows("jdbc:duckdb:", false, "SELECT 'ä€'").get(0).toString());
+    }
+
+    private static List<ResultRow> getRows(String url, boolean dynamicallyTyped, String query) throws SQLException {
+        List<ResultRow> rows = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url); Statement s = connection.createStatement();
+                SQLancerResultSet result = new SQLancerResultSet(s.executeQuery(query))) {
+            ResultRowReader reader = new ResultRowReader(result, dynamicallyTyped);
+            while (reader.next()) {
+                rows.add(reader.getRow());
+            }
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,56 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TestResultSetFingerprint {
+
+    private static ResultSetFingerprint of(String... values) {
+        ResultSetFingerprint fingerprint = new ResultSetFingerprint();
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            fingerprint.add(Arrays.copyOf(bytes, bytes.length + 3), bytes.length);
+        }
+        return fingerprint;
+    }
+
+    @Test
+    public void testOrderIndependent() {
+        assertEquals(of("a", "b", "", "c"), of("c", "", "a", "b"));
+    }
+
+    @Test
+    public void testDuplicateCounts() {
+        assertNotEquals(of("a", "a", "b"), of("a", "b", "b"));
+        assertNotEquals(of("a", "a"), of("a"));
+    }
+
+    @Test
+    public void testLength() {
+        assertNotEquals(of(""), of("\0"));
+        assertNotEquals(of("a"), of("a\0"));
+    }
+
+    @Test
+    public void testCollidingStringHashCodes() {
+        // "Aa" and "BB" have the same String.hashCode()
+        assertNotEquals(of("Aa"), of("BB"));
+    }
+
+    @Test
+    public void testAddAll() {
+        List<String> values = Arrays.asList("1", "2", "2", "");
+        ResultSetFingerprint combined = of("1");
+        combined.addAll(of("2", "2"));
+        combined.addAll(of(""));
+        assertEquals(of(values.toArray(new String[0])), combined);
+        assertEquals(4, combined.getCount());
+    }
+
+}
@@ -0,0 +1,125 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.duckdb.DuckDBConnection;
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.metrics.PhaseProfiler;
+import sqlancer.common.metrics.PhaseProfiler.Phase;
+
+public class TestSQLConnectionGroup {
+
+    @Test
+    public void testResultsInOrder() throws SQLException {
+        try (SQLConnection connection = new SQLConnection(DriverManager.getConnection("jdbc:duckdb:"));
+                SQLConnectionGroup group = createGroup(connection, 2)) {
+            try (Statement s = connection.createStatement()) {
+                s.execute("CREATE TABLE t0 AS SELECT * FROM range(100) t(c0)");
+            }
+            List<SQLConnectionGroup.Task<Long>> tasks = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                String query = "SELECT COUNT(*) FROM t0 WHERE c0 < " + i * 10;
+                tasks.add(c -> {
+                    try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery(query)) {
+                        rs.next();
+                        return rs.getLong(1);
+                    }
+                });
+            }
+            assertEquals(List.of(0L, 10L, 20L, 30L, 40L), group.executeAll(tasks));
+        }
+    }
+
+    @Test
+    public void testConcurrent() throws SQLException {
+        try (SQLConnection connection = new SQLConnection(DriverManager.getConnection("jdbc:duckdb:"));
+                SQLConnectionGroup group = createGroup(connection, 3)) {
+            // each task waits until all of them have started
+            CountDownLatch latch = new CountDownLatch(3);
+            List<SQLConnectionGroup.Task<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                tasks.add(c -> {
+                    latch.countDown();
+                    try {
+                        return latch.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new AssertionError(e);
+                    }
+                });
+            }
+            assertEquals(List.of(true, true, true), group.executeAll(tasks));
+        }
+    }
+
+    @Test
+    public void testFirstFailureIsRethrown() throws SQLException {
+        try (SQLConnection connection = new SQLConnection(DriverManager.getConnection("jdbc:duckdb:"));
+                SQLConnectionGroup group = createGroup(connection, 2)) {
+            List<SQLConnectionGroup.Task<Integer>> tasks = new ArrayList<>();
+            tasks.add(c -> 1);
+            tasks.add(c -> {
+                throw new IgnoreMeException();
+            });
+            tasks.add(c -> {
+                throw new SQLException("later");
+            });
+            assertThrows(IgnoreMeException.class, () -> group.executeAll(tasks));
+            // all connections are idle again
+            assertEquals(List.of(1, 1), group.executeAll(List.<SQLConnectionGroup.Task<Integer>> of(c -> 1, c -> 1)));
+        }
+    }
+
+    @Test
+    public void testPhasesAttributedToOracle() throws SQLException {
+        PhaseProfiler.setEnabled(true);
+        long withoutOracle = getExecutionNanos(PhaseProfiler.NO_ORACLE);
+        String previousOracle = PhaseProfiler.setOracle("GroupOracle");
+        try (SQLConnection connection = new SQLConnection(DriverManager.getConnection("jdbc:duckdb:"));
+                SQLConnectionGroup group = createGroup(connection, 2)) {
+            List<SQLConnectionGroup.Task<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                tasks.add(c -> {
+                    PhaseProfiler.enter(Phase.EXECUTION);
+                    try (Statement s = c.createStatement(); ResultSet rs = s.executeQuery("SELECT 1")) {
+                        rs.next();
+                        return rs.getInt(1);
+                    } finally {
+                        PhaseProfiler.exit();
+                    }
+                });
+            }
+            group.executeAll(tasks);
+            assertTrue(getExecutionNanos("GroupOracle") > 0);
+            assertEquals(withoutOracle, getExecutionNanos(PhaseProfiler.NO_ORACLE));
+        } finally {
+            PhaseProfiler.setOracle(previousOracle);
+            PhaseProfiler.setEnabled(false);
+        }
+    }
+
+    private static long getExecutionNanos(String oracle) {
+        long[] nanos = PhaseProfiler.getNanos().get(oracle);
+        return nanos == null ? 0 : nanos[Phase.EXECUTION.ordinal()];
+    }
+
+    private static SQLConnectionGroup createGroup(SQLConnection connection, int size) throws SQLException {
+        List<SQLConnection> connections = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            connections.add(new SQLConnection(connection.unwrap(DuckDBConnection.class).duplicate()));
+        }
+        return new SQLConnectionGroup(connections);
+    }
+
+}
@@ -0,0 +1,133 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+
+public class TestStatementExecutor {
+
+    private static final ExpectedErrors ERRORS = ExpectedErrors.from("UNIQUE constraint failed");
+
+    private RecordingState state;
+
+    // executes the statements directly, without a query manager or logger
+    private static final class RecordingState extends SQLite3GlobalState {
+
+        private final Deque<SQLQueryAdapter> queries = new ArrayDeque<>();
+        private final List<String> executed = new ArrayList<>();
+
+        @Override
+        public boolean executeStatement(Query<SQLConnection> q, String... fills) throws Exception {
+            executed.add(q.getQueryString());
+            return q.execute(this, fills);
+        }
+
+    }
+
+    private enum Action implements AbstractAction<RecordingState> {
+        NEXT_QUERY;
+
+        @Override
+        public Query<?> getQuery(RecordingState state) {
+            return state.queries.removeFirst();
+        }
+
+        @Override
+        public boolean canBeRetried() {
+            return false;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        state = new RecordingState();
+        state.setConnection(new SQLConnection(DriverManager.getConnection("jdbc:sqlite::memory:")));
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--insert-batch-size", "3");
+        state.setMainOptions(options);
+        state.setDbmsSpecificOptions(new SQLite3Options());
+        state.setRandomly(new Randomly(0));
+        try (Statement s = state.getConnection().createStatement()) {
+            s.execute("CREATE TABLE t0(c0 INT PRIMARY KEY)");
+            s.execute("CREATE TABLE t1(c0)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        state.getConnection().close();
+    }
+
+    // returns the statements that were passed to the AfterQueryAction
+    private List<Query<?>> execute(String... statements) throws Exception {
+        for (String statement : statements) {
+            state.queries.add(new SQLQueryAdapter(statement, ERRORS, true));
+        }
+        List<Query<?>> notified = new ArrayList<>();
+        new StatementExecutor<>(state, Action.values(), (s, a) -> s.queries.size(), notified::add).executeStatements();
+        return notified;
+    }
+
+    private int count(String table) throws SQLException {
+        try (Statement s = state.getConnection().createStatement();
+                ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    public void testConsecutiveInsertsAreCombined() throws Exception {
+        List<Query<?>> notified = execute("INSERT INTO t0 VALUES (1)", "INSERT INTO t0 VALUES (2)",
+                "INSERT INTO t0 VALUES (3), (4)", "INSERT INTO t0 VALUES (5)", "INSERT INTO t1 VALUES (1)",
+                "DELETE FROM t1", "INSERT INTO t1 VALUES (2)");
+        assertEquals(List.of("INSERT INTO t0 VALUES (1), (2), (3), (4);", "INSERT INTO t0 VALUES (5);",
+                "INSERT INTO t1 VALUES (1);", "DELETE FROM t1;", "INSERT INTO t1 VALUES (2);"), state.executed);
+        assertEquals(5, notified.size());
+        assertEquals(5, count("t0"));
+        assertEquals(1, count("t1"));
+    }
+
+    @Test
+    public void testFailingCombinedInsertIsExecutedRowByRow() throws Exception {
+        List<Query<?>> notified = execute("INSERT INTO t0 VALUES (1)", "INSERT INTO t0 VALUES (1)",
+                "INSERT INTO t0 VALUES (2)");
+        assertEquals(List.of("INSERT INTO t0 VALUES (1), (1), (2);", "INSERT INTO t0 VALUES (1);",
+                "INSERT INTO t0 VALUES (1);", "INSERT INTO t0 VALUES (2);"), state.executed);
+        // the failed combined statement had no effect, so it is not passed on
+        assertEquals(3, notified.size());
+        assertEquals(2, count("t0"));
+    }
+
+    @Test
+    public void testUnexpectedErrorIsAttributedToItsStatement() {
+        state.queries.add(new SQLQueryAdapter("INSERT INTO t0 VALUES (1)", ERRORS, true));
+        state.queries.add(new SQLQueryAdapter("INSERT INTO t0 VALUES (1)", new ExpectedErrors(), true));
+        AssertionError error = assertThrows(AssertionError.class, () -> execute());
+        assertEquals("INSERT INTO t0 VALUES (1);", error.getMessage());
+        assertEquals(
+                List.of("INSERT INTO t0 VALUES (1), (1);", "INSERT INTO t0 VALUES (1);", "INSERT INTO t0 VALUES (1);"),
+                state.executed);
+    }
+
+}
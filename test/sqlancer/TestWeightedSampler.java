@@ -0,0 +1,68 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class TestWeightedSampler {
+
+    private static int linearFind(int[] weights, long value) {
+        long previousRange = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (value < previousRange + weights[i]) {
+                return i;
+            }
+            previousRange += weights[i];
+        }
+        throw new AssertionError(value);
+    }
+
+    @Test
+    public void testFindMatchesLinearScan() {
+        Randomly r = new Randomly(0);
+        for (int size = 1; size < 40; size++) {
+            int[] weights = new int[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = Randomly.getBooleanWithSmallProbability() ? 0 : r.getInteger(0, 20);
+            }
+            weights[size - 1]++;
+            WeightedSampler sampler = new WeightedSampler(weights);
+            while (sampler.getTotal() != 0) {
+                long value = r.getLong(0, sampler.getTotal());
+                int index = sampler.find(value);
+                assertEquals(linearFind(weights, value), index);
+                sampler.decrement(index);
+                weights[index]--;
+                assertEquals(weights[index], sampler.getWeight(index));
+            }
+        }
+    }
+
+    @Test
+    public void testSampleSkipsZeroWeights() {
+        WeightedSampler sampler = new WeightedSampler(new int[] { 0, 3, 0, 0, 2, 0 });
+        int[] counts = new int[sampler.size()];
+        Randomly r = new Randomly(1);
+        while (sampler.getTotal() != 0) {
+            int index = sampler.sample(r);
+            counts[index]++;
+            sampler.decrement(index);
+        }
+        assertEquals(3, counts[1]);
+        assertEquals(2, counts[4]);
+        assertEquals(5, counts[1] + counts[4]);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new WeightedSampler(new int[] { 1, -1 }));
+        WeightedSampler sampler = new WeightedSampler(new int[] { 1, 0 });
+        assertThrows(IllegalArgumentException.class, () -> sampler.decrement(1));
+        assertThrows(IllegalArgumentException.class, () -> sampler.find(1));
+        sampler.decrement(0);
+        assertThrows(IllegalStateException.class, () -> sampler.sample(new Randomly(0)));
+        assertThrows(IllegalStateException.class, () -> new WeightedSampler(new int[0]).sample(new Randomly(0)));
+    }
+
+}
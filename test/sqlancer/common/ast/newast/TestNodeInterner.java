@@ -0,0 +1,106 @@
+package sqlancer.common.ast.newast;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.common.ast.newast.NodeInterner.BinaryNodeFactory;
+import sqlancer.common.ast.newast.NodeInterner.UnaryNodeFactory;
+import sqlancer.duckdb.DuckDBOptions;
+import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
+import sqlancer.duckdb.DuckDBSchema.DuckDBColumn;
+import sqlancer.duckdb.DuckDBToStringVisitor;
+import sqlancer.duckdb.ast.DuckDBBinaryOperator;
+import sqlancer.duckdb.ast.DuckDBColumnReference;
+import sqlancer.duckdb.ast.DuckDBExpression;
+import sqlancer.duckdb.ast.DuckDBUnaryPrefixOperator;
+import sqlancer.duckdb.gen.DuckDBExpressionGenerator;
+import sqlancer.duckdb.gen.DuckDBExpressionGenerator.DuckDBBinaryComparisonOperator;
+import sqlancer.duckdb.gen.DuckDBExpressionGenerator.DuckDBBinaryLogicalOperator;
+
+public class TestNodeInterner {
+
+    private static final Function<DuckDBColumn, DuckDBExpression> COLUMN_REFERENCE = DuckDBColumnReference::new;
+    private static final UnaryNodeFactory<DuckDBExpression, DuckDBExpression> UNARY_PREFIX = DuckDBUnaryPrefixOperator::new;
+    private static final BinaryNodeFactory<DuckDBExpression, DuckDBExpression> BINARY = DuckDBBinaryOperator::new;
+
+    private final DuckDBColumn c0 = new DuckDBColumn("c0", null, false, false);
+    private final DuckDBColumn c1 = new DuckDBColumn("c1", null, false, false);
+
+    @Test
+    public void testStructurallyEqualNodesAreShared() {
+        NodeInterner interner = new NodeInterner(NodeInterner.DEFAULT_MAX_SIZE);
+        DuckDBExpression left = interner.columnReference(c0, COLUMN_REFERENCE);
+        assertSame(left, interner.columnReference(c0, COLUMN_REFERENCE));
+        DuckDBExpression right = interner.columnReference(c1, COLUMN_REFERENCE);
+        assertNotSame(left, right);
+
+        DuckDBExpression equals = interner.binary(left, right, DuckDBBinaryComparisonOperator.EQUALS, BINARY);
+        assertSame(equals, interner.binary(interner.columnReference(c0, COLUMN_REFERENCE),
+                interner.columnReference(c1, COLUMN_REFERENCE), DuckDBBinaryComparisonOperator.EQUALS, BINARY));
+        assertNotSame(equals, interner.binary(right, left, DuckDBBinaryComparisonOperator.EQUALS, BINARY));
+        assertNotSame(equals, interner.binary(left, right, DuckDBBinaryLogicalOperator.AND, BINARY));
+        DuckDBExpression not = interner.unary(equals, DuckDBExpressionGenerator.DuckDBUnaryPrefixOperator.NOT,
+                UNARY_PREFIX);
+        assertSame(not, interner.unary(equals, DuckDBExpressionGenerator.DuckDBUnaryPrefixOperator.NOT, UNARY_PREFIX));
+        assertEquals(5, interner.getNrHits());
+        assertEquals(6, interner.size());
+
+        interner.clear();
+        assertNotSame(left, interner.columnReference(c0, COLUMN_REFERENCE));
+    }
+
+    @Test
+    public void testBounded() {
+        NodeInterner interner = new NodeInterner(1);
+        DuckDBExpression first = interner.columnReference(c0, COLUMN_REFERENCE);
+        interner.columnReference(c1, COLUMN_REFERENCE);
+        assertEquals(1, interner.size());
+        assertNotSame(first, interner.columnReference(c0, COLUMN_REFERENCE));
+    }
+
+    @Test
+    public void testNone() {
+        assertNotSame(NodeInterner.NONE.columnReference(c0, COLUMN_REFERENCE),
+                NodeInterner.NONE.columnReference(c0, COLUMN_REFERENCE));
+        assertEquals(0, NodeInterner.NONE.size());
+    }
+
+    private static List<String> generateExpressions(boolean internExpressions, List<DuckDBColumn> columns) {
+        MainOptions options = new MainOptions();
+        JCommander.newBuilder().addObject(options).build().parse("--intern-expressions",
+                String.valueOf(internExpressions));
+        DuckDBGlobalState state = new DuckDBGlobalState();
+        state.setMainOptions(options);
+        state.setDbmsSpecificOptions(new DuckDBOptions());
+        state.setRandomly(new Randomly(0));
+        DuckDBExpressionGenerator gen = new DuckDBExpressionGenerator(state).setColumns(columns);
+        List<String> expressions = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            expressions.add(DuckDBToStringVisitor.asString(gen.generateExpression()));
+        }
+        if (internExpressions) {
+            assertTrue(state.getNodeInterner().getNrHits() > 0);
+        }
+        return expressions;
+    }
+
+    @Test
+    public void testGeneratorCreatesSameExpressions() {
+        List<DuckDBColumn> columns = Arrays.asList(c0, c1);
+        assertEquals(generateExpressions(false, columns), generateExpressions(true, columns));
+    }
+
+}
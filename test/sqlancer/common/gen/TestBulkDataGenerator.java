@@ -0,0 +1,87 @@
+package sqlancer.common.gen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.SQLConnection;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.gen.dml.SQLite3BulkDataGenerator;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
+
+public class TestBulkDataGenerator {
+
+    private static final int NR_ROWS = 10_000;
+
+    private SQLite3GlobalState state;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        state = new SQLite3GlobalState();
+        state.setConnection(new SQLConnection(DriverManager.getConnection("jdbc:sqlite::memory:")));
+        state.setMainOptions(MainOptions.DEFAULT_OPTIONS);
+        state.setDbmsSpecificOptions(new SQLite3Options());
+        state.setRandomly(new Randomly(0));
+        try (Statement s = state.getConnection().createStatement()) {
+            s.execute("CREATE TABLE t0(c0 INT PRIMARY KEY, c1 TEXT, c2 REAL, c3 BLOB, c4 AS (c0 + 1))");
+            s.execute("CREATE TABLE t1(c0 INT UNIQUE NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        state.getConnection().close();
+    }
+
+    private SQLQueryAdapter getQuery(String table, long seed) {
+        SQLite3Table t = state.getSchema().getDatabaseTable(table);
+        new Randomly(seed);
+        return new SQLite3BulkDataGenerator().getQuery(t, NR_ROWS);
+    }
+
+    private long queryLong(String query) throws SQLException {
+        try (Statement s = state.getConnection().createStatement(); ResultSet rs = s.executeQuery(query)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    public void testRowsAreInserted() throws Exception {
+        assertTrue(getQuery("t0", 0).execute(state));
+        assertEquals(NR_ROWS, queryLong("SELECT COUNT(*) FROM t0"));
+        // the primary key gets the row numbers, so no row is ignored
+        assertEquals(NR_ROWS, queryLong("SELECT COUNT(DISTINCT c0) FROM t0"));
+        assertEquals(NR_ROWS, queryLong("SELECT COUNT(*) FROM t0 WHERE c4 = c0 + 1"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM t0 WHERE c1 IS NOT NULL AND typeof(c1) <> 'text'"));
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM t0 WHERE c3 IS NOT NULL AND typeof(c3) <> 'blob'"));
+    }
+
+    @Test
+    public void testSameSeedGeneratesSameData() {
+        assertEquals(getQuery("t0", 1).getQueryString(), getQuery("t0", 1).getQueryString());
+        assertNotEquals(getQuery("t0", 1).getQueryString(), getQuery("t0", 2).getQueryString());
+    }
+
+    @Test
+    public void testConstraintViolationsAreIgnored() throws Exception {
+        assertTrue(getQuery("t1", 0).execute(state));
+        long count = queryLong("SELECT COUNT(*) FROM t1");
+        assertTrue(count > 0 && count <= NR_ROWS);
+        assertEquals(count, queryLong("SELECT COUNT(DISTINCT c0) FROM t1"));
+    }
+
+}
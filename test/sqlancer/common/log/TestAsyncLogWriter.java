@@ -0,0 +1,56 @@
+package sqlancer.common.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestAsyncLogWriter {
+
+    @TempDir
+    Path directory;
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSyncWritesAllRecords() throws IOException {
+        File file = directory.resolve("database0-cur.log").toFile();
+        StringBuilder expected = new StringBuilder();
+        try (AsyncLogWriter writer = new AsyncLogWriter(file, false)) {
+            // more records than fit into the ring buffer, so that the producer has to wait for the background writer
+            for (int i = 0; i < AsyncLogWriter.CAPACITY * 3; i++) {
+                String statement = "INSERT INTO t0 VALUES (" + i + ");\n";
+                writer.write(statement);
+                writer.flush();
+                expected.append(statement);
+            }
+            writer.write("SELECT * FROM t0;\n".toCharArray(), 0, 18);
+            expected.append("SELECT * FROM t0;\n");
+            writer.sync();
+            assertEquals(expected.toString(), read(file));
+        }
+        assertEquals(expected.toString(), read(file));
+    }
+
+    @Test
+    public void testCloseWritesAllRecords() throws IOException {
+        File file = directory.resolve("database1-cur.log").toFile();
+        AsyncLogWriter writer = new AsyncLogWriter(file, false);
+        writer.write("CREATE TABLE t0(c0);\n");
+        writer.append("SELECT c0 FROM t0;\n", 0, 10);
+        writer.close();
+        writer.close();
+        assertEquals("CREATE TABLE t0(c0);\nSELECT c0 ", read(file));
+        assertThrows(IllegalStateException.class, () -> writer.write("SELECT 1;\n"));
+    }
+
+}
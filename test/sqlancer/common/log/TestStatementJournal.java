@@ -0,0 +1,67 @@
+package sqlancer.common.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+
+public class TestStatementJournal {
+
+    private static List<Query<?>> createStatements(int nrStatements) {
+        List<Query<?>> statements = new ArrayList<>();
+        statements.add(new SQLQueryAdapter("CREATE TABLE t0(c0 INT)", true));
+        for (int i = 1; i < nrStatements; i++) {
+            statements.add(new SQLQueryAdapter(i % 3 == 0 ? "COMMIT" : "INSERT INTO t0 VALUES (" + i + ")"));
+        }
+        return statements;
+    }
+
+    @Test
+    public void testOpenSegment() {
+        StatementJournal journal = new StatementJournal(new SQLLoggableFactory(), 4, 1024);
+        List<Query<?>> statements = createStatements(3);
+        journal.addAll(statements);
+        assertEquals(3, journal.size());
+        for (int i = 0; i < statements.size(); i++) {
+            assertSame(statements.get(i), journal.get(i));
+        }
+        assertEquals(0, journal.getBytesInMemory());
+    }
+
+    @Test
+    public void testCompressedAndSpilledSegments() {
+        StatementJournal journal = new StatementJournal(new SQLLoggableFactory(), 16, 256);
+        List<Query<?>> statements = createStatements(1000);
+        journal.addAll(statements);
+        assertEquals(statements.size(), journal.size());
+        assertTrue(journal.getBytesInMemory() <= 256);
+
+        List<Query<?>> read = new ArrayList<>(journal);
+        for (int i = 0; i < statements.size(); i++) {
+            assertEquals(statements.get(i).getQueryString(), read.get(i).getQueryString());
+            assertEquals(statements.get(i).couldAffectSchema(), read.get(i).couldAffectSchema());
+        }
+        assertTrue(journal.get(0).couldAffectSchema());
+        assertFalse(journal.get(1).couldAffectSchema());
+        assertEquals("INSERT INTO t0 VALUES (998);", journal.get(998).getQueryString());
+        assertSame(statements.get(999), journal.get(999));
+    }
+
+    @Test
+    public void testInvalidIndex() {
+        StatementJournal journal = new StatementJournal(new SQLLoggableFactory(), 4, 1024);
+        journal.addAll(createStatements(5));
+        assertThrows(IndexOutOfBoundsException.class, () -> journal.get(5));
+        assertThrows(IllegalArgumentException.class, () -> journal.add(null));
+    }
+
+}
@@ -0,0 +1,60 @@
+package sqlancer.common.log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TestStatementRingBuffer {
+
+    @Test
+    public void testNotFull() {
+        StatementRingBuffer buffer = new StatementRingBuffer(4);
+        assertTrue(buffer.getStatements().isEmpty());
+        buffer.add("CREATE TABLE t0(c0);");
+        buffer.add("SELECT * FROM t0;");
+        assertEquals(2, buffer.getNrStatements());
+        assertEquals(Arrays.asList("CREATE TABLE t0(c0);", "SELECT * FROM t0;"), buffer.getStatements());
+    }
+
+    @Test
+    public void testKeepsLastStatements() {
+        StatementRingBuffer buffer = new StatementRingBuffer(3);
+        for (int i = 0; i < 10; i++) {
+            buffer.add("INSERT INTO t0 VALUES (" + i + ");");
+        }
+        assertEquals(10, buffer.getNrStatements());
+        assertEquals(
+                Arrays.asList("INSERT INTO t0 VALUES (7);", "INSERT INTO t0 VALUES (8);", "INSERT INTO t0 VALUES (9);"),
+                buffer.getStatements());
+    }
+
+    @Test
+    public void testConcurrentReader() throws InterruptedException {
+        StatementRingBuffer buffer = new StatementRingBuffer(16);
+        Thread worker = new Thread(() -> {
+            for (int i = 0; i < 1_000_000; i++) {
+                buffer.add(Integer.toString(i));
+            }
+        });
+        worker.start();
+        while (worker.isAlive()) {
+            List<String> statements = buffer.getStatements();
+            for (int i = 1; i < statements.size(); i++) {
+                assertEquals(Integer.parseInt(statements.get(i - 1)) + 1, Integer.parseInt(statements.get(i)));
+            }
+        }
+        worker.join();
+        assertEquals(16, buffer.getStatements().size());
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new StatementRingBuffer(0));
+    }
+
+}
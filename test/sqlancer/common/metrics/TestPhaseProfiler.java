@@ -0,0 +1,99 @@
+package sqlancer.common.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.metrics.PhaseProfiler.Phase;
+
+public class TestPhaseProfiler {
+
+    @BeforeEach
+    public void enable() {
+        PhaseProfiler.reset();
+        PhaseProfiler.setEnabled(true);
+    }
+
+    @AfterEach
+    public void disable() {
+        PhaseProfiler.setEnabled(false);
+        PhaseProfiler.reset();
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @Test
+    public void testNestedPhasesAreExclusive() {
+        PhaseProfiler.setOracle("TestOracle");
+        long start = System.nanoTime();
+        PhaseProfiler.enter(Phase.CHECK);
+        spin(1_000_000);
+        PhaseProfiler.enter(Phase.MATERIALIZATION);
+        PhaseProfiler.enter(Phase.EXECUTION);
+        spin(2_000_000);
+        PhaseProfiler.exit();
+        PhaseProfiler.exit();
+        PhaseProfiler.exit();
+        long elapsed = System.nanoTime() - start;
+        PhaseProfiler.setOracle(PhaseProfiler.NO_ORACLE);
+
+        long[] nanos = PhaseProfiler.getNanos().get("TestOracle");
+        assertTrue(nanos[Phase.CHECK.ordinal()] >= 1_000_000);
+        assertTrue(nanos[Phase.EXECUTION.ordinal()] >= 2_000_000);
+        assertTrue(nanos[Phase.CHECK.ordinal()] <= elapsed - nanos[Phase.EXECUTION.ordinal()]);
+        long total = 0;
+        for (long phaseNanos : nanos) {
+            total += phaseNanos;
+        }
+        assertTrue(total <= elapsed);
+    }
+
+    @Test
+    public void testAbsorbingPhase() {
+        PhaseProfiler.enter(Phase.SCHEMA_REFRESH);
+        PhaseProfiler.enter(Phase.EXECUTION);
+        spin(1_000_000);
+        PhaseProfiler.exit();
+        PhaseProfiler.exit();
+
+        long[] nanos = PhaseProfiler.getNanos().get(PhaseProfiler.NO_ORACLE);
+        assertEquals(0, nanos[Phase.EXECUTION.ordinal()]);
+        assertTrue(nanos[Phase.SCHEMA_REFRESH.ordinal()] >= 1_000_000);
+    }
+
+    @Test
+    public void testOracleSwitchedWithinPhase() {
+        String previous = PhaseProfiler.setOracle("CompositeTestOracle");
+        PhaseProfiler.enter(Phase.CHECK);
+        PhaseProfiler.setOracle("NoRECOracle");
+        PhaseProfiler.enter(Phase.GENERATION);
+        PhaseProfiler.exit();
+        PhaseProfiler.exit();
+        PhaseProfiler.setOracle(previous);
+
+        Map<String, long[]> nanos = PhaseProfiler.getNanos();
+        assertTrue(nanos.get("NoRECOracle")[Phase.CHECK.ordinal()] > 0);
+        assertEquals(0, nanos.get("CompositeTestOracle")[Phase.CHECK.ordinal()]);
+        assertFalse(PhaseProfiler.getSummary().contains("CompositeTestOracle"));
+    }
+
+    @Test
+    public void testDisabled() {
+        PhaseProfiler.setEnabled(false);
+        PhaseProfiler.enter(Phase.EXECUTION);
+        PhaseProfiler.exit();
+        assertTrue(PhaseProfiler.getNanos().isEmpty());
+    }
+
+}
@@ -0,0 +1,83 @@
+package sqlancer.common.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class TestPrometheusExporter {
+
+    private static MetricsRegistry createRegistry() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsScope scope = registry.getScope("sqlite3", "NoREC");
+        scope.recordStatement(StatementKind.SELECT, true, 2_000_000);
+        scope.recordStatement(StatementKind.DML, false, 1_000);
+        scope.recordExpectedError("UNIQUE constraint failed");
+        scope.recordExpectedError("no such \"column\"");
+        scope.recordCheck(5_000_000);
+        scope.recordSchemaRefresh(1_000_000);
+        scope.recordQueryResultCacheLookup(true);
+        scope.recordQueryResultCacheLookup(false);
+        scope.recordQueryResultCacheLookup(false);
+        scope.recordReductionStart();
+        scope.recordReducerStep(3);
+        scope.recordReducerStep(0);
+        registry.incrementQueries();
+        registry.incrementDatabases();
+        return registry;
+    }
+
+    @Test
+    public void testScrape() {
+        String metrics = PrometheusExporter.scrape(createRegistry());
+        assertTrue(metrics.contains("# TYPE sqlancer_queries_total counter\nsqlancer_queries_total 1\n"), metrics);
+        assertTrue(metrics.contains("sqlancer_databases_total 1\n"), metrics);
+        assertTrue(metrics.contains(
+                "sqlancer_statements_total{dbms=\"sqlite3\",oracle=\"NoREC\",kind=\"SELECT\",outcome=\"success\"} 1\n"),
+                metrics);
+        assertTrue(metrics.contains(
+                "sqlancer_statements_total{dbms=\"sqlite3\",oracle=\"NoREC\",kind=\"DML\",outcome=\"error\"} 1\n"),
+                metrics);
+        assertTrue(metrics.contains("sqlancer_check_duration_seconds_count{dbms=\"sqlite3\",oracle=\"NoREC\"} 1\n"),
+                metrics);
+        assertTrue(metrics.contains(
+                "sqlancer_expected_errors_total{dbms=\"sqlite3\",oracle=\"NoREC\",signature=\"no such \\\"column\\\"\"} 1\n"),
+                metrics);
+        assertTrue(metrics.contains("sqlancer_reducer_removed_statements_total{dbms=\"sqlite3\",oracle=\"NoREC\"} 3\n"),
+                metrics);
+        assertTrue(metrics.contains(
+                "sqlancer_query_result_cache_lookups_total{dbms=\"sqlite3\",oracle=\"NoREC\",outcome=\"miss\"} 2\n"),
+                metrics);
+        assertTrue(metrics.contains("sqlancer_reducer_steps_total{dbms=\"sqlite3\",oracle=\"NoREC\"} 2\n"), metrics);
+        for (String line : metrics.split("\n")) {
+            assertTrue(line.startsWith("# ") || line.matches("sqlancer_\\w+(\\{.*\\})? \\S+"), line);
+        }
+    }
+
+    @Test
+    public void testServe() throws IOException {
+        try (PrometheusExporter exporter = PrometheusExporter.start(createRegistry(), 0)) {
+            URL url = new URL("http://localhost:" + exporter.getPort() + "/metrics");
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try {
+                assertEquals(200, connection.getResponseCode());
+                assertEquals(PrometheusExporter.CONTENT_TYPE, connection.getContentType());
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                try (InputStream in = connection.getInputStream()) {
+                    in.transferTo(body);
+                }
+                assertTrue(body.toString(StandardCharsets.UTF_8).contains("sqlancer_queries_total 1\n"));
+            } finally {
+                connection.disconnect();
+            }
+        }
+    }
+
+}
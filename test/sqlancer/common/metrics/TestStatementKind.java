@@ -0,0 +1,23 @@
+package sqlancer.common.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TestStatementKind {
+
+    @Test
+    public void testClassification() {
+        assertEquals(StatementKind.SELECT, StatementKind.classify("SELECT * FROM t0;"));
+        assertEquals(StatementKind.SELECT, StatementKind.classify("  (select 1) UNION (SELECT 2)"));
+        assertEquals(StatementKind.SELECT, StatementKind.classify("WITH x AS (SELECT 1) SELECT * FROM x"));
+        assertEquals(StatementKind.DML, StatementKind.classify("insert into t0 values (1)"));
+        assertEquals(StatementKind.DML, StatementKind.classify("UPDATE t0 SET c0=1"));
+        assertEquals(StatementKind.DDL, StatementKind.classify("CREATE TABLE t0(c0 INT)"));
+        assertEquals(StatementKind.DDL, StatementKind.classify("DROP VIEW v0"));
+        assertEquals(StatementKind.OTHER, StatementKind.classify("VACUUM"));
+        assertEquals(StatementKind.OTHER, StatementKind.classify("SELECTED"));
+        assertEquals(StatementKind.OTHER, StatementKind.classify(""));
+    }
+
+}
@@ -0,0 +1,139 @@
+package sqlancer.common.oracle;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.DBMSSpecificOptions;
+import sqlancer.ExecutionTimer;
+import sqlancer.GlobalState;
+import sqlancer.IgnoreMeException;
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.SQLConnection;
+import sqlancer.common.query.Query;
+import sqlancer.common.schema.AbstractSchema;
+
+public class TestOraclePipeline {
+
+    private static class PipelineState
+            extends GlobalState<DBMSSpecificOptions<?>, AbstractSchema<?, ?>, SQLConnection> {
+
+        PipelineState() {
+            setMainOptions(new MainOptions());
+        }
+
+        @Override
+        protected void executeEpilogue(Query<?> q, boolean success, ExecutionTimer timer) {
+        }
+
+        @Override
+        protected AbstractSchema<?, ?> readSchema() {
+            return new AbstractSchema<>(Collections.emptyList());
+        }
+
+    }
+
+    /**
+     * Generates consecutive numbers, together with the schema version for which they were generated.
+     */
+    private static class CountingOracle implements PipelinedTestOracle<PipelineState, long[]> {
+
+        private final PipelineState state;
+        private final List<long[]> checked = new ArrayList<>();
+        private long next;
+        private long failAt = -1;
+
+        CountingOracle(PipelineState state) {
+            this.state = state;
+        }
+
+        @Override
+        public long[] generateBundle() {
+            long schemaVersion = state.getSchemaVersion();
+            long value = next++;
+            if (value == failAt) {
+                throw new IgnoreMeException();
+            }
+            return new long[] { value, schemaVersion };
+        }
+
+        @Override
+        public void checkBundle(long[] bundle) {
+            checked.add(bundle);
+        }
+
+    }
+
+    @Test
+    public void testBundlesAreCheckedInOrder() throws Exception {
+        PipelineState state = new PipelineState();
+        CountingOracle oracle = new CountingOracle(state);
+        try (OraclePipeline<PipelineState, long[]> pipeline = new OraclePipeline<>(oracle, () -> oracle, state, 2)) {
+            for (int i = 0; i < 100; i++) {
+                pipeline.check();
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, oracle.checked.get(i)[0]);
+        }
+    }
+
+    @Test
+    public void testOutdatedBundlesAreDiscarded() throws Exception {
+        PipelineState state = new PipelineState();
+        CountingOracle oracle = new CountingOracle(state);
+        try (OraclePipeline<PipelineState, long[]> pipeline = new OraclePipeline<>(oracle, () -> oracle, state, 4)) {
+            pipeline.check();
+            state.updateSchema();
+            for (int i = 0; i < 10; i++) {
+                pipeline.check();
+            }
+        }
+        for (long[] bundle : oracle.checked.subList(1, oracle.checked.size())) {
+            assertEquals(state.getSchemaVersion(), bundle[1]);
+        }
+    }
+
+    @Test
+    public void testGenerationErrorsAreRethrown() throws Exception {
+        PipelineState state = new PipelineState();
+        CountingOracle oracle = new CountingOracle(state);
+        oracle.failAt = 1;
+        try (OraclePipeline<PipelineState, long[]> pipeline = new OraclePipeline<>(oracle, () -> oracle, state, 2)) {
+            pipeline.check();
+            assertThrows(IgnoreMeException.class, pipeline::check);
+            pipeline.check();
+        }
+        assertEquals(2, oracle.checked.size());
+        assertEquals(2, oracle.checked.get(1)[0]);
+    }
+
+    @Test
+    public void testGeneratorUsesItsOwnRandomly() throws Exception {
+        PipelineState state = new PipelineState();
+        state.setRandomly(new Randomly(0));
+        List<Randomly> generationRandomly = new ArrayList<>();
+        CountingOracle oracle = new CountingOracle(state);
+        CountingOracle generationOracle = new CountingOracle(state) {
+            @Override
+            public long[] generateBundle() {
+                generationRandomly.add(state.getRandomly());
+                return super.generateBundle();
+            }
+        };
+        try (OraclePipeline<PipelineState, long[]> pipeline = new OraclePipeline<>(oracle, () -> generationOracle,
+                state, 2)) {
+            pipeline.check();
+            assertNotSame(state.getRandomly(), generationRandomly.get(0));
+        }
+        assertEquals(1, oracle.checked.size());
+    }
+
+}
@@ -0,0 +1,62 @@
+package sqlancer.common.query;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TestInsertBatch {
+
+    private static boolean canBeCombined(String query) {
+        return InsertBatch.canBeCombined(new SQLQueryAdapter(query, true));
+    }
+
+    @Test
+    public void testCombinable() {
+        assertTrue(canBeCombined("INSERT INTO t0(c0) VALUES (1);"));
+        assertTrue(canBeCombined("INSERT OR IGNORE INTO t0 VALUES (1, 'a''b'), ((2), '(;')"));
+        assertTrue(canBeCombined("insert into \"values\"(c0) values (x'00')"));
+        assertFalse(canBeCombined("INSERT INTO t0 DEFAULT VALUES"));
+        assertFalse(canBeCombined("INSERT INTO t0 SELECT * FROM t1"));
+        assertFalse(canBeCombined("INSERT INTO t0 VALUES (1) ON CONFLICT DO NOTHING"));
+        assertFalse(canBeCombined("INSERT INTO t0 VALUES (1) RETURNING *"));
+        assertFalse(canBeCombined("INSERT INTO t0 VALUES (1); DROP TABLE t0"));
+        assertFalse(canBeCombined("INSERT INTO t0 VALUES (1) -- comment"));
+        assertFalse(canBeCombined("INSERT INTO t0 VALUES ('\\'), (1)"));
+        assertFalse(canBeCombined("INSERT OR FAIL INTO t0 VALUES (1)"));
+        assertFalse(canBeCombined("INSERT OR ROLLBACK INTO t0 VALUES (1)"));
+        assertFalse(canBeCombined("UPDATE t0 SET c0 = (VALUES (1))"));
+    }
+
+    @Test
+    public void testCombine() {
+        InsertBatch batch = new InsertBatch(3);
+        SQLQueryAdapter first = new SQLQueryAdapter("INSERT INTO t0(c0) VALUES (1), (2);", true);
+        SQLQueryAdapter second = new SQLQueryAdapter("INSERT INTO t0(c0) VALUES ('a;')", true);
+        assertTrue(batch.add(first));
+        assertTrue(batch.add(second));
+        assertFalse(batch.add(new SQLQueryAdapter("INSERT INTO t1(c0) VALUES (3)", true)));
+        assertFalse(batch.add(new SQLQueryAdapter("INSERT INTO t0(c1) VALUES (3)", true)));
+        assertEquals(2, batch.size());
+        SQLQueryAdapter combined = batch.combine();
+        assertEquals("INSERT INTO t0(c0) VALUES (1), (2), ('a;');", combined.getQueryString());
+        assertTrue(combined.couldAffectSchema());
+        assertEquals(InsertBatch.COMBINED_INSERT_FAILED, combined.checkException(new Exception("any error")));
+        assertEquals(List.of(first, second), batch.take());
+        assertTrue(batch.isEmpty());
+        assertTrue(batch.add(new SQLQueryAdapter("INSERT INTO t1(c0) VALUES (3)", true)));
+    }
+
+    @Test
+    public void testFull() {
+        InsertBatch batch = new InsertBatch(2);
+        assertTrue(batch.add(new SQLQueryAdapter("INSERT INTO t0 VALUES (1)", true)));
+        assertTrue(batch.add(new SQLQueryAdapter("INSERT INTO t0 VALUES (2)", true)));
+        assertTrue(batch.isFull());
+        assertFalse(batch.add(new SQLQueryAdapter("INSERT INTO t0 VALUES (3)", true)));
+    }
+
+}
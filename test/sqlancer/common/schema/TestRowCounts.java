@@ -0,0 +1,76 @@
+package sqlancer.common.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.SQLConnection;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
+
+public class TestRowCounts {
+
+    private SQLite3GlobalState state;
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        state = new SQLite3GlobalState();
+        state.setConnection(new SQLConnection(DriverManager.getConnection("jdbc:sqlite::memory:")));
+        state.setMainOptions(MainOptions.DEFAULT_OPTIONS);
+        state.setDbmsSpecificOptions(new SQLite3Options());
+        state.setRandomly(new Randomly(0));
+        try (Statement s = state.getConnection().createStatement()) {
+            s.execute("CREATE TABLE t0(c0)");
+            s.execute("CREATE TABLE t1(c0)");
+            s.execute("CREATE VIEW v0 AS SELECT * FROM t0, t1");
+            s.execute("INSERT INTO t0 VALUES (1), (2)");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        state.getConnection().close();
+    }
+
+    private SQLite3Table getTable(String name) {
+        return state.getSchema().getDatabaseTable(name);
+    }
+
+    @Test
+    public void testTablesAreCountedTogether() {
+        assertEquals(-1, getTable("t1").getEstimatedNrRows());
+        assertEquals(2, getTable("t0").getNrRows(state));
+        assertTrue(getTable("t1").isRowCountAvailable());
+        assertEquals(0, getTable("t1").getEstimatedNrRows());
+        assertFalse(getTable("v0").isRowCountAvailable());
+        assertEquals(0, getTable("v0").getNrRows(state));
+    }
+
+    @Test
+    public void testStatementsAdjustEstimates() throws SQLException {
+        assertEquals(2, getTable("t0").getNrRows(state));
+        assertTrue(new SQLQueryAdapter("INSERT INTO t0 VALUES (3), (4), (5);").execute(state));
+        assertFalse(getTable("t0").isRowCountAvailable());
+        assertEquals(5, getTable("t0").getEstimatedNrRows());
+        assertTrue(getTable("t1").isRowCountAvailable());
+
+        assertTrue(new SQLQueryAdapter("DELETE FROM t0 WHERE c0 > 1;").execute(state));
+        assertEquals(1, getTable("t0").getEstimatedNrRows());
+        assertTrue(new SQLQueryAdapter("UPDATE t0 SET c0 = 2;").execute(state));
+        assertEquals(1, getTable("t0").getEstimatedNrRows());
+        assertEquals(1, getTable("t0").getNrRows(state));
+    }
+
+}
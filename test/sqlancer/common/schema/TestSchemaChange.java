@@ -0,0 +1,78 @@
+package sqlancer.common.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.SchemaChange.Kind;
+
+public class TestSchemaChange {
+
+    private static void assertChange(String statement, Kind kind, String name) {
+        SchemaChange change = SchemaChange.parse(statement);
+        assertEquals(kind, change.getKind(), statement);
+        assertEquals(name, change.getName(), statement);
+    }
+
+    @Test
+    public void testData() {
+        assertChange("INSERT INTO t0(c0) VALUES ('a;b'), ('it''s');", Kind.NONE, "t0");
+        assertChange("update t0 SET c0=1", Kind.NONE, "t0");
+        assertChange("DELETE FROM t0 WHERE c0 = \"x;\";", Kind.NONE, "t0");
+        assertChange("REINDEX t0;", Kind.NONE, null);
+    }
+
+    @Test
+    public void testRowCountDelta() {
+        assertChange("INSERT OR IGNORE INTO t0(c0) VALUES (1), (2);", Kind.NONE, "t0");
+        assertEquals(2, SchemaChange.parse("INSERT INTO t0 VALUES (1), (2);").getRowCountDelta(2));
+        assertEquals(1, SchemaChange.parse("REPLACE INTO t0 VALUES (1);").getRowCountDelta(1));
+        assertEquals(-3, SchemaChange.parse("DELETE FROM t0 WHERE c0;").getRowCountDelta(3));
+        assertEquals(0, SchemaChange.parse("UPDATE OR FAIL t0 SET c0 = 1;").getRowCountDelta(3));
+        assertChange("UPDATE t0 SET c0 = 1;", Kind.NONE, "t0");
+        assertChange("INSERT INTO main.t0 VALUES (1);", Kind.NONE, null);
+    }
+
+    @Test
+    public void testCreate() {
+        assertChange("CREATE TABLE t0 (c0 INT, c1 TEXT CHECK(c1 != ';'));", Kind.CREATE_TABLE, "t0");
+        assertChange("CREATE TEMP TABLE IF NOT EXISTS t1 AS SELECT 1;", Kind.CREATE_TABLE, "t1");
+        assertChange("CREATE VIRTUAL TABLE vt0 USING fts4(c0);", Kind.CREATE_TABLE, "vt0");
+        assertChange("CREATE TEMPORARY VIEW v0(c0) AS SELECT * FROM t0;", Kind.CREATE_VIEW, "v0");
+        assertChange("CREATE UNIQUE INDEX IF NOT EXISTS i0 ON t0(c0) WHERE c0 > 1;", Kind.CREATE_INDEX, "i0");
+        assertChange("CREATE TRIGGER tr0 AFTER INSERT ON t0 BEGIN DELETE FROM t0; END;", Kind.UNKNOWN, null);
+    }
+
+    @Test
+    public void testDrop() {
+        assertChange("DROP TABLE IF EXISTS t0", Kind.DROP_TABLE, "t0");
+        assertChange("DROP VIEW v0;", Kind.DROP_VIEW, "v0");
+        assertChange("DROP INDEX \"i0\"", Kind.DROP_INDEX, "i0");
+        assertChange("DROP TABLE t0, t1", Kind.UNKNOWN, null);
+        assertChange("DROP TABLE t0 CASCADE", Kind.UNKNOWN, null);
+    }
+
+    @Test
+    public void testAlter() {
+        SchemaChange rename = SchemaChange.parse("ALTER TABLE t0 RENAME TO t1;");
+        assertEquals(Kind.RENAME_TABLE, rename.getKind());
+        assertEquals("t0", rename.getName());
+        assertEquals("t1", rename.getNewName());
+        assertChange("ALTER TABLE t0 RENAME COLUMN c0 TO c1;", Kind.ALTER_TABLE, "t0");
+        assertChange("ALTER TABLE t0 ADD COLUMN c1 INT", Kind.ALTER_TABLE, "t0");
+        assertNull(SchemaChange.parse("ALTER TABLE t0 ADD c1 INT").getNewName());
+    }
+
+    @Test
+    public void testUnknown() {
+        assertChange("CREATE TABLE main.t0 (c0);", Kind.UNKNOWN, null);
+        assertChange("CREATE TABLE t0 (c0); DROP TABLE t1;", Kind.UNKNOWN, null);
+        assertChange("INSERT INTO t0 VALUES (1); -- comment", Kind.UNKNOWN, null);
+        assertChange("INSERT INTO t0 VALUES ('unterminated", Kind.UNKNOWN, null);
+        assertChange("ROLLBACK TRANSACTION;", Kind.UNKNOWN, null);
+        assertChange("UPDATE OR ROLLBACK t0 SET c0 = 1;", Kind.UNKNOWN, null);
+        assertChange("", Kind.UNKNOWN, null);
+    }
+
+}
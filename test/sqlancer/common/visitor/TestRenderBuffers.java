@@ -0,0 +1,70 @@
+package sqlancer.common.visitor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.sqlite3.SQLite3ToStringVisitor;
+import sqlancer.sqlite3.SQLite3Visitor;
+import sqlancer.sqlite3.ast.SQLite3Constant;
+import sqlancer.sqlite3.ast.SQLite3Expression;
+import sqlancer.sqlite3.ast.SQLite3Expression.Sqlite3BinaryOperation;
+import sqlancer.sqlite3.ast.SQLite3Expression.Sqlite3BinaryOperation.BinaryOperator;
+import sqlancer.sqlite3.ast.SQLite3Select;
+import sqlancer.sqlite3.ast.SQLite3Select.SelectType;
+import sqlancer.sqlite3.ast.SQLite3SetClause;
+import sqlancer.sqlite3.ast.SQLite3SetClause.SQLite3ClauseType;
+
+public class TestRenderBuffers {
+
+    // the visitor randomly renders ALL for other selects
+    private static SQLite3Select createSelect(SQLite3Expression fetchColumn) {
+        SQLite3Select select = new SQLite3Select();
+        select.setSelectType(SelectType.DISTINCT);
+        select.setFetchColumns(Arrays.asList(fetchColumn));
+        return select;
+    }
+
+    @Test
+    public void testBuffersAreReused() {
+        StringBuilder first = RenderBuffers.acquire();
+        StringBuilder second = RenderBuffers.acquire();
+        assertNotSame(first, second);
+        first.append("SELECT 1");
+        RenderBuffers.release(first);
+        StringBuilder third = RenderBuffers.acquire();
+        assertSame(first, third);
+        assertEquals(0, third.length());
+        RenderBuffers.release(second);
+        assertThrows(IllegalStateException.class, () -> RenderBuffers.release(second));
+        RenderBuffers.release(third);
+    }
+
+    @Test
+    public void testNestedVisitors() {
+        SQLite3Expression sum = new Sqlite3BinaryOperation(SQLite3Constant.createIntConstant(1),
+                SQLite3Constant.createIntConstant(2), BinaryOperator.PLUS);
+        SQLite3SetClause union = new SQLite3SetClause(createSelect(SQLite3Constant.createIntConstant(1)),
+                createSelect(sum), SQLite3ClauseType.UNION);
+        String expected = "SELECT DISTINCT 1 FROM  UNION SELECT DISTINCT ((1)+(2)) FROM ";
+        assertEquals(expected, SQLite3Visitor.asString(union));
+        assertEquals(expected, SQLite3Visitor.asString(union));
+    }
+
+    @Test
+    public void testGetTwice() {
+        SQLite3ToStringVisitor visitor = new SQLite3ToStringVisitor();
+        visitor.visit(SQLite3Constant.createTextConstant("a'b"));
+        assertEquals("'a''b'", visitor.get());
+        SQLite3ToStringVisitor other = new SQLite3ToStringVisitor();
+        other.visit(SQLite3Constant.createIntConstant(3));
+        assertEquals("'a''b'", visitor.get());
+        assertEquals("3", other.get());
+    }
+
+}
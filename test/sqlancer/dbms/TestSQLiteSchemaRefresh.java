@@ -0,0 +1,18 @@
+package sqlancer.dbms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Main;
+
+public class TestSQLiteSchemaRefresh {
+
+    @Test
+    public void testSqliteVerifiedIncrementalSchema() {
+        assertEquals(0,
+                Main.executeMain(new String[] { "--random-seed", "0", "--timeout-seconds", "60", "--num-threads", "2",
+                        "--num-queries", "100", "--schema-refresh", "VERIFY", "sqlite3", "--oracle", "NoREC" }));
+    }
+
+}
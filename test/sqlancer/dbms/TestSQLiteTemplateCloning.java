@@ -0,0 +1,19 @@
+package sqlancer.dbms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Main;
+
+public class TestSQLiteTemplateCloning {
+
+    @Test
+    public void testSqliteNoRECWithClones() {
+        assertEquals(0,
+                Main.executeMain(new String[] { "--random-seed", "0", "--timeout-seconds", TestConfig.SECONDS,
+                        "--num-threads", "2", "--num-tries", "2", "--max-generated-databases", "8", "--num-queries",
+                        "100", "--clones-per-template", "3", "sqlite3", "--oracle", "NoREC" }));
+    }
+
+}